@@ -0,0 +1,34 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.admission")
+public class AlertAdmissionProperties {
+    boolean enabled = true;
+
+    // Token bucket cho mỗi camera (alert không có camera không bị giới hạn)
+    double ratePerSecond = 20;
+    int burst = 40;
+
+    // Ghi đè theo cameraId, ví dụ 12: 5
+    Map<Long, Double> cameraRates = new HashMap<>();
+
+    // Ngưỡng confidence tối thiểu: camera > type > mặc định
+    float minConfidence = 0.0f;
+    Map<String, Float> typeMinConfidence = new HashMap<>();
+    Map<Long, Float> cameraMinConfidence = new HashMap<>();
+
+    // Tỉ lệ giữ lại alert dưới ngưỡng (0 = bỏ hết, 0.1 = giữ 10% để theo dõi chất lượng model)
+    double belowThresholdSampleRate = 0.0;
+}
@@ -0,0 +1,33 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.analytics-cache")
+public class AlertAnalyticsCacheProperties {
+    // Cache kết quả dashboard / thống kê trong Redis, theo bộ lọc đã chuẩn hóa
+    boolean enabled = true;
+
+    // Thời gian sống tối đa của 1 kết quả (khi không có alert mới của project đó)
+    Duration ttl = Duration.ofMinutes(5);
+
+    // Kết quả cũ hơn khoảng này mà vẫn được đọc thì được tính lại nền; người gọi nhận ngay kết quả cũ
+    Duration refreshAfter = Duration.ofMinutes(4);
+
+    // Redis lỗi -> tính trực tiếp, không gọi Redis trong khoảng này (mỗi lệnh không phải chờ timeout)
+    Duration redisRetryAfter = Duration.ofSeconds(30);
+
+    // Khóa SET NX khi tính 1 khóa cache: node khác chờ kết quả tối đa loadLockWait thay vì tính trùng.
+    // Khóa tự hết hạn sau loadLockTimeout nếu node giữ khóa chết giữa chừng
+    Duration loadLockTimeout = Duration.ofSeconds(30);
+    Duration loadLockWait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,27 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.export")
+public class AlertExportProperties {
+    // Integer.MIN_VALUE: driver MySQL stream từng dòng thay vì nạp cả kết quả, không cần useCursorFetch
+    // trên URL dùng chung; DB khác dùng số dòng mỗi lần đọc (> 0)
+    int fetchSize = Integer.MIN_VALUE;
+
+    // Timeout async chỉ cho request export trực tiếp (StreamingResponseBody); request khác giữ mặc định
+    Duration requestTimeout = Duration.ofMinutes(30);
+
+    // Múi giờ của các cột thời gian trong file XLSX (CSV luôn ghi ISO-8601 UTC)
+    ZoneId zone = ZoneId.of("Asia/Ho_Chi_Minh");
+}
@@ -0,0 +1,37 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.safetyconstruction.backend.enums.IngestBackpressure;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.ingest")
+public class AlertIngestProperties {
+    // Sức chứa của mỗi lane ưu tiên (mỗi mức severity 1 lane)
+    int queueCapacity = 10_000;
+
+    // Alert ở lane thấp chờ quá thời gian này sẽ được xử lý trước lane cao (chống đói)
+    Duration laneMaxWait = Duration.ofSeconds(2);
+
+    // Không nên vượt quá pool kết nối DB (Hikari mặc định 10)
+    int workers = 4;
+
+    int batchSize = 200;
+
+    IngestBackpressure backpressure = IngestBackpressure.REJECT;
+
+    // Chỉ dùng khi backpressure = BLOCK
+    Duration blockTimeout = Duration.ofSeconds(2);
+
+    // Thời gian giữ trạng thái để client tra cứu theo trackingId
+    Duration trackingTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,27 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.kpi-cube")
+public class AlertKpiCubeProperties {
+    boolean enabled = true;
+
+    // Số ngày gần nhất (tính cả hôm nay) được giữ trong bộ nhớ; dashboard có happenedAfter cũ hơn đọc DB
+    int retentionDays = 90;
+
+    // Nạp lại từ alert_stats_hourly định kỳ: sửa các event bị lỡ
+    Duration reseedInterval = Duration.ofHours(1);
+
+    // Nhiều node: chỉ dùng cube khi đang nhận event của node khác qua Redis (tắt nếu chạy 1 node)
+    boolean requireRemoteEvents = true;
+}
@@ -0,0 +1,25 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.reference-cache")
+public class AlertReferenceCacheProperties {
+    // Số Project / Camera tối đa giữ trong mỗi cache cục bộ
+    long maximumSize = 10_000;
+
+    // Node không nhận được invalidation (Redis lỗi) vẫn thấy thay đổi sau khoảng này
+    Duration ttl = Duration.ofMinutes(10);
+
+    // Gửi invalidation qua Redis lỗi -> không gửi trong khoảng này (lần sửa Project/Camera sau không chờ Redis)
+    Duration redisRetryAfter = Duration.ofSeconds(30);
+}
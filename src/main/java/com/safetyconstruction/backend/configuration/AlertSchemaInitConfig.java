@@ -0,0 +1,35 @@
+package com.safetyconstruction.backend.configuration;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.safetyconstruction.backend.entity.Alert;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@Slf4j
+public class AlertSchemaInitConfig {
+
+    /**
+     * alerts.id chuyển từ IDENTITY sang SEQUENCE (bảng alerts_seq trên MySQL).
+     * Với DB đã có dữ liệu, đẩy alerts_seq lên trên MAX(id) để không bị trùng khóa.
+     */
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "spring",
+            value = "datasource.driverClassName",
+            havingValue = "com.mysql.cj.jdbc.Driver")
+    ApplicationRunner alertIdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE alerts_seq SET next_val = GREATEST(next_val, "
+                            + "(SELECT COALESCE(MAX(id), 0) + ? + 1 FROM alerts))",
+                    Alert.ID_ALLOCATION_SIZE);
+            log.info("alerts_seq aligned with existing alert ids ({} row)", updated);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.stats-rollup")
+public class AlertStatsRollupProperties {
+    // Chỉ bật / tắt đường đọc; bảng rollup luôn được cập nhật khi ghi alert
+    boolean enabled = true;
+
+    // Bảng rollup chưa phủ hết dữ liệu cũ (lần đầu triển khai) thì tự rebuild khi khởi động
+    boolean rebuildOnStartup = true;
+
+    // Rebuild / đối soát từng khoảng này trong 1 transaction (làm tròn xuống theo giờ)
+    Duration chunk = Duration.ofDays(1);
+
+    // Đối soát định kỳ các giờ gần nhất trong khoảng này
+    Duration checkWindow = Duration.ofDays(2);
+
+    // Đối soát định kỳ tự sửa các nhóm lệch
+    boolean repair = true;
+
+    // Khoảng tối đa của 1 lần đối soát qua API
+    Duration maxCheckRange = Duration.ofDays(92);
+}
@@ -0,0 +1,33 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.text-index")
+public class AlertTextIndexProperties {
+    boolean enabled = true;
+
+    // Thư mục Lucene trên đĩa, mỗi node một bản riêng
+    String directory = "data/alert-text-index";
+
+    // Số alert tối đa được đánh index lại trong 1 lần flush
+    int flushBatchSize = 500;
+
+    int rebuildChunkSize = 1_000;
+
+    // Dựng lại toàn bộ sau mỗi khoảng này, để sửa thay đổi bị lỡ (node khác không relay được event)
+    Duration reconcileInterval = Duration.ofHours(6);
+
+    int defaultLimit = 20;
+
+    int maxLimit = 200;
+}
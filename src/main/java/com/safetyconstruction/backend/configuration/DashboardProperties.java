@@ -0,0 +1,23 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.dashboard")
+public class DashboardProperties {
+    // Chạy các phần của dashboard (KPI + biểu đồ, cảnh báo mới nhất) song song, mỗi phần 1 kết nối DB read-only.
+    // false: tuần tự trong 1 transaction như trước
+    boolean parallel = true;
+
+    // Thời gian tối đa cho cả dashboard; phần chưa xong thì bị bỏ và được liệt kê trong unavailableSections
+    Duration deadline = Duration.ofSeconds(5);
+}
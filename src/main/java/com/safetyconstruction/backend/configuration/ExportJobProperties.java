@@ -0,0 +1,30 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.export.jobs")
+public class ExportJobProperties {
+    // Mỗi worker giữ 1 kết nối DB suốt lúc export: workers + ingest workers phải nhỏ hơn pool của Hikari
+    int workers = 2;
+
+    // Job chờ tối đa; đầy -> 429
+    int queueCapacity = 20;
+
+    // Số job đang chờ / chạy tối đa của 1 người dùng
+    int maxActivePerUser = 2;
+
+    String directory = "data/exports";
+
+    // File và trạng thái job được giữ trong khoảng này sau khi xong
+    Duration ttl = Duration.ofHours(1);
+}
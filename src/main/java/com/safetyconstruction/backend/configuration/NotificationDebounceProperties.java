@@ -0,0 +1,38 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.safetyconstruction.backend.enums.AlertSeverity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.debounce")
+public class NotificationDebounceProperties {
+    // Cửa sổ mặc định khi không có cấu hình riêng (trước đây hard-code 2 phút)
+    Duration defaultWindow = Duration.ofMinutes(2);
+
+    // Theo mức độ, ví dụ CRITICAL: 30s
+    Map<AlertSeverity, Duration> severityWindows = new EnumMap<>(AlertSeverity.class);
+
+    // Theo loại, key là TYPE hoặc TYPE.SEVERITY, ví dụ NO_HELMET: 5m, NO_HELMET.CRITICAL: 1m
+    Map<String, Duration> typeWindows = new HashMap<>();
+
+    // Timeout lệnh SET NX của debounce (kết nối Redis riêng); quá hạn -> fallback cục bộ
+    Duration redisTimeout = Duration.ofMillis(500);
+
+    // Sau khi Redis lỗi/timeout, dùng bộ nhớ cục bộ trong khoảng này rồi mới thử lại Redis
+    Duration redisRetryAfter = Duration.ofSeconds(30);
+
+    int localShards = 16;
+}
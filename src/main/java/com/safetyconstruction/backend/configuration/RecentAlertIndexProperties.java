@@ -0,0 +1,32 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "alert.recent-index")
+public class RecentAlertIndexProperties {
+    boolean enabled = true;
+
+    // Khoảng thời gian gần đây được giữ trong bộ nhớ; truy vấn có happenedAfter nằm trong khoảng này dùng index
+    Duration window = Duration.ofHours(24);
+
+    // Nạp lại từ DB định kỳ: bỏ alert đã ra khỏi cửa sổ, sửa các event bị lỡ
+    Duration rebuildInterval = Duration.ofMinutes(10);
+
+    // Vượt quá số dòng này thì tắt index (quay về DB) cho đến lần rebuild sau
+    int maxRows = 2_000_000;
+
+    // Nhiều node: chỉ dùng index khi đang nhận event của node khác qua Redis (tắt nếu chạy 1 node)
+    boolean requireRemoteEvents = true;
+
+    int loadChunkSize = 10_000;
+}
@@ -1,16 +1,94 @@
 package com.safetyconstruction.backend.configuration;
 
+import java.time.Duration;
+import java.util.List;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.service.AlertAnalyticsCache;
+import com.safetyconstruction.backend.service.AlertEventPublisher;
+import com.safetyconstruction.backend.service.AlertReferenceCache;
+import com.safetyconstruction.backend.service.DashboardService;
+
 @Configuration
 public class RedisConfig {
 
+    // Kết nối riêng của debounce (không phải bean để không thay RedisConnectionFactory mặc định)
+    private LettuceConnectionFactory debounceConnectionFactory;
+
     @Bean
     public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory connectionFactory) {
+        return stringTemplate(connectionFactory);
+    }
+
+    // Debounce nằm trên đường gửi thông báo: Redis chậm thì fallback sau alert.debounce.redis-timeout.
+    // Timeout ngắn chỉ áp cho kết nối này, các lệnh Redis khác giữ timeout mặc định.
+    // Cùng máy chủ (standalone / sentinel / cluster) và cấu hình client (SSL, client options...) với kết nối chính
+    @Bean
+    public RedisTemplate<String, String> debounceRedisTemplate(
+            LettuceConnectionFactory connectionFactory, NotificationDebounceProperties debounceProperties) {
+        RedisConfiguration server = connectionFactory.isRedisSentinelAware()
+                ? connectionFactory.getSentinelConfiguration()
+                : connectionFactory.isClusterAware()
+                        ? connectionFactory.getClusterConfiguration()
+                        : connectionFactory.getStandaloneConfiguration();
+        LettuceClientConfiguration client =
+                withCommandTimeout(connectionFactory.getClientConfiguration(), debounceProperties.getRedisTimeout());
+        debounceConnectionFactory = new LettuceConnectionFactory(server, client);
+        debounceConnectionFactory.afterPropertiesSet();
+        debounceConnectionFactory.start();
+        return stringTemplate(debounceConnectionFactory);
+    }
+
+    // Bản sao cấu hình client (không gồm pool: debounce dùng 1 kết nối chung), chỉ đổi command timeout
+    private static LettuceClientConfiguration withCommandTimeout(LettuceClientConfiguration source, Duration timeout) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder();
+        if (source.isUseSsl()) {
+            LettuceClientConfiguration.LettuceSslClientConfigurationBuilder ssl =
+                    builder.useSsl().verifyPeer(source.getVerifyMode());
+            if (source.isStartTls()) {
+                ssl.startTls();
+            }
+            builder = ssl.and();
+        }
+        source.getClientResources().ifPresent(builder::clientResources);
+        source.getClientOptions().ifPresent(builder::clientOptions);
+        source.getClientName().ifPresent(builder::clientName);
+        source.getReadFrom().ifPresent(builder::readFrom);
+        source.getRedisCredentialsProviderFactory().ifPresent(builder::redisCredentialsProviderFactory);
+        return builder.commandTimeout(timeout)
+                .shutdownTimeout(source.getShutdownTimeout())
+                .shutdownQuietPeriod(source.getShutdownQuietPeriod())
+                .build();
+    }
+
+    @PreDestroy
+    void closeDebounceConnection() {
+        if (debounceConnectionFactory != null) {
+            debounceConnectionFactory.destroy();
+        }
+    }
+
+    private static RedisTemplate<String, String> stringTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, String> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
@@ -20,4 +98,49 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    // Nhận thông báo xóa cache tham chiếu Project/Camera và alert event từ các node khác.
+    // Không tự start: Redis chưa sẵn sàng thì app vẫn phải khởi động được (AlertReferenceCache tự subscribe lại).
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            AlertReferenceCache alertReferenceCache,
+            AlertEventPublisher alertEventPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(alertReferenceCache, new ChannelTopic(AlertReferenceCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(alertEventPublisher, new ChannelTopic(AlertEventPublisher.CHANNEL));
+        return container;
+    }
+
+    // Cache dashboard / thống kê: JSON với kiểu cụ thể (DTO không Serializable), hết hạn theo alert.analytics-cache.ttl
+    @Bean
+    public RedisCacheManagerBuilderCustomizer alertAnalyticsCacheCustomizer(
+            ObjectMapper objectMapper, AlertAnalyticsCacheProperties properties) {
+        TypeFactory types = objectMapper.getTypeFactory();
+        JavaType dashboard =
+                types.constructParametricType(AlertAnalyticsCache.Entry.class, DashboardService.CachedDashboard.class);
+        JavaType statistics = types.constructParametricType(
+                AlertAnalyticsCache.Entry.class, types.constructCollectionType(List.class, StatisticResponse.class));
+        return builder -> builder.withCacheConfiguration(
+                        AlertAnalyticsCache.DASHBOARD_CACHE,
+                        jsonCacheConfiguration(objectMapper, dashboard, properties.getTtl()))
+                .withCacheConfiguration(
+                        AlertAnalyticsCache.STATISTICS_CACHE,
+                        jsonCacheConfiguration(objectMapper, statistics, properties.getTtl()));
+    }
+
+    private static RedisCacheConfiguration jsonCacheConfiguration(
+            ObjectMapper objectMapper, JavaType type, Duration ttl) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, type)));
+    }
 }
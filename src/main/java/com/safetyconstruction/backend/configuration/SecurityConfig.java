@@ -47,7 +47,7 @@ public class SecurityConfig {
                         // Cho phép POST tới các endpoint public (vd: /auth/token)
                         .requestMatchers(HttpMethod.POST, PUBLIC_ENDPOINTS)
                         .permitAll()
-                        .requestMatchers("/ws/**") // <-- SỬA LẠI THÀNH THẾ NÀY
+                        .requestMatchers("/ws/**", "/ws-ingest") // <-- SỬA LẠI THÀNH THẾ NÀY
                         .permitAll()
 
                         // Tùy chỉnh: nếu bạn muốn một số endpoint GET public, thêm ở đây
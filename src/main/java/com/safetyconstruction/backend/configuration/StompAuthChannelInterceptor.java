@@ -0,0 +1,83 @@
+package com.safetyconstruction.backend.configuration;
+
+import java.time.Instant;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Xác thực STOMP:
+ * - CONNECT: decode JWT (header Authorization) 1 lần, gắn Authentication vào session WebSocket.
+ * - Mỗi frame sau đó: đặt SecurityContext từ user của session để @PreAuthorize ở service hoạt động,
+ *   dọn lại sau khi xử lý xong (thread của executor được dùng lại).
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final CustomJwtDecoder jwtDecoder;
+    private final JwtAuthenticationConverter jwtAuthenticationConverter;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        // Không có token: giữ hành vi cũ (client chỉ subscribe /topic), các lệnh cần quyền sẽ bị từ chối ở service
+        String authorization = accessor.getFirstNativeHeader("Authorization");
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return message;
+        }
+        try {
+            accessor.setUser(jwtAuthenticationConverter.convert(
+                    jwtDecoder.decode(authorization.substring(BEARER_PREFIX.length()))));
+        } catch (JwtException ex) {
+            throw new MessageDeliveryException(message, "Invalid token: " + ex.getMessage());
+        }
+        return message;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor != null
+                && accessor.getUser() instanceof Authentication authentication
+                && !isExpired(authentication)) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Kết nối sống lâu hơn token: hết hạn thì coi như chưa đăng nhập
+    private static boolean isExpired(Authentication authentication) {
+        return authentication instanceof JwtAuthenticationToken jwtAuthentication
+                && jwtAuthentication.getToken().getExpiresAt() != null
+                && jwtAuthentication.getToken().getExpiresAt().isBefore(Instant.now());
+    }
+}
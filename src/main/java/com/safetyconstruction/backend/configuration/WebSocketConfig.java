@@ -2,20 +2,27 @@
 package com.safetyconstruction.backend.configuration;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import lombok.RequiredArgsConstructor;
+
 @Configuration
 @EnableWebSocketMessageBroker // Kích hoạt máy chủ WebSocket
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Định nghĩa các "chủ đề" (topics) mà client có thể lắng nghe
         // Frontend sẽ subscribe vào /topic/...
-        registry.enableSimpleBroker("/topic");
+        // /queue: trả receipt riêng cho từng thiết bị (/user/queue/alerts.receipts)
+        registry.enableSimpleBroker("/topic", "/queue");
 
         // Định nghĩa tiền tố cho các message gửi từ client đến server (nếu có)
         registry.setApplicationDestinationPrefixes("/app");
@@ -29,5 +36,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws") // <-- SỬA LẠI THÀNH THẾ NÀY
                 .setAllowedOrigins("http://localhost:3000")
                 .withSockJS();
+
+        // Endpoint WebSocket thuần (không SockJS) cho thiết bị edge đẩy alert qua /app/alerts.ingest
+        registry.addEndpoint("/ws-ingest").setAllowedOrigins("http://localhost:3000");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
     }
 }
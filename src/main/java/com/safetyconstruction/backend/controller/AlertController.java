@@ -1,15 +1,34 @@
 package com.safetyconstruction.backend.controller;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.safetyconstruction.backend.dto.request.ApiResponse;
 import com.safetyconstruction.backend.dto.request.alert.*;
+import com.safetyconstruction.backend.dto.response.AlertBatchResponse;
+import com.safetyconstruction.backend.dto.response.AlertIngestResponse;
 import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.dto.response.AlertTextSearchResponse;
+import com.safetyconstruction.backend.dto.response.CursorPageResponse;
+import com.safetyconstruction.backend.dto.response.SliceResponse;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.enums.SearchTotalMode;
+import com.safetyconstruction.backend.service.AlertExportService;
+import com.safetyconstruction.backend.service.AlertIngestPipeline;
 import com.safetyconstruction.backend.service.AlertService;
+import com.safetyconstruction.backend.service.AlertTextIndex;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,6 +38,9 @@ import lombok.RequiredArgsConstructor;
 public class AlertController {
 
     private final AlertService alertService;
+    private final AlertExportService alertExportService;
+    private final AlertIngestPipeline alertIngestPipeline;
+    private final AlertTextIndex alertTextIndex;
 
     @PostMapping
     public ApiResponse<AlertResponse> createAlertForProject(
@@ -33,6 +55,43 @@ public class AlertController {
                 .build();
     }
 
+    /**
+     * TẠO NHIỀU Alert cho Project này trong 1 request.
+     * Kết quả trả về theo từng alert (thành công / lỗi).
+     */
+    @PostMapping("/batch")
+    public ApiResponse<AlertBatchResponse> createAlertsForProject(
+            @PathVariable Long projectId, @Valid @RequestBody AlertBatchCreationRequest request) {
+
+        // Ghi đè projectId từ URL cho từng alert
+        request.getAlerts().stream().filter(Objects::nonNull).forEach(alert -> alert.setProjectId(projectId));
+
+        AlertBatchResponse result = alertService.createAlerts(request.getAlerts());
+        return ApiResponse.<AlertBatchResponse>builder()
+                .result(result)
+                .message(String.format(
+                        "%d alerts created, %d rejected for project %d",
+                        result.getAccepted(), result.getRejected(), projectId))
+                .build();
+    }
+
+    /**
+     * Ingest bất đồng bộ cho Project này: trả 202 kèm trackingId,
+     * tra cứu kết quả qua GET /api/alerts/ingest/{trackingId}.
+     */
+    @PostMapping("/ingest")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<AlertIngestResponse> ingestAlertForProject(
+            @PathVariable Long projectId, @Valid @RequestBody AlertCreationRequest request) {
+
+        request.setProjectId(projectId);
+
+        return ApiResponse.<AlertIngestResponse>builder()
+                .result(alertIngestPipeline.submit(request))
+                .message("Alert accepted for processing in project " + projectId)
+                .build();
+    }
+
     /**
      * TÌM KIẾM Alert TRONG Project này.
      * Tái sử dụng logic 'searchAlerts' của bạn.
@@ -41,13 +100,77 @@ public class AlertController {
     public ApiResponse<Page<AlertResponse>> searchAlertsInProject(
             @PathVariable Long projectId,
             AlertSearchRequest searchRequest, // Spring sẽ map các query params (ví dụ: ?type=NO_HELMET)
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(required = false) String fields) { // ?fields=id,type,severity: chỉ trả về các trường này
 
         // Ghi đè projectId từ URL để đảm bảo tìm kiếm chỉ trong project này
         searchRequest.setProjectId(projectId);
 
         return ApiResponse.<Page<AlertResponse>>builder()
-                .result(alertService.searchAlerts(searchRequest, pageable))
+                .result(alertService.searchAlerts(searchRequest, pageable, fields))
+                .build();
+    }
+
+    /**
+     * TÌM KIẾM Alert TRONG Project này, không COUNT(*) toàn bộ (?total=NONE|CAPPED|EXACT).
+     */
+    @GetMapping("/slice")
+    public ApiResponse<SliceResponse<AlertResponse>> searchAlertsInProjectSlice(
+            @PathVariable Long projectId,
+            AlertSearchRequest searchRequest,
+            Pageable pageable,
+            @RequestParam(defaultValue = "CAPPED") SearchTotalMode total,
+            @RequestParam(required = false) String fields) {
+        searchRequest.setProjectId(projectId);
+
+        return ApiResponse.<SliceResponse<AlertResponse>>builder()
+                .result(alertService.searchAlertsSlice(searchRequest, pageable, total, fields))
+                .build();
+    }
+
+    /**
+     * TÌM KIẾM Alert TRONG Project này, phân trang keyset (không OFFSET / COUNT).
+     */
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPageResponse<AlertResponse>> searchAlertsInProjectByCursor(
+            @PathVariable Long projectId,
+            AlertSearchRequest searchRequest,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
+        searchRequest.setProjectId(projectId);
+
+        return ApiResponse.<CursorPageResponse<AlertResponse>>builder()
+                .result(alertService.searchAlertsByCursor(searchRequest, cursor, size, fields))
+                .build();
+    }
+
+    /**
+     * XUẤT Alert của Project này ra file: cùng query params với GET, thêm ?format=CSV|XLSX&sort=happenedAt,desc.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAlertsInProject(
+            @PathVariable Long projectId,
+            AlertSearchRequest searchRequest,
+            Sort sort,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) String fields) {
+        searchRequest.setProjectId(projectId);
+
+        return attachment(
+                "alerts-project-" + projectId,
+                format,
+                alertExportService.exportAlerts(searchRequest, sort, format, fields));
+    }
+
+    /**
+     * TÌM full-text trong reviewNote / metadata của các Alert thuộc Project này.
+     */
+    @GetMapping("/text-search")
+    public ApiResponse<AlertTextSearchResponse> textSearchInProject(
+            @PathVariable Long projectId, @RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return ApiResponse.<AlertTextSearchResponse>builder()
+                .result(alertTextIndex.search(q, projectId, limit))
                 .build();
     }
 
@@ -78,4 +201,18 @@ public class AlertController {
                 .message("Alert reviewed successfully")
                 .build();
     }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(
+            String baseName, ExportFormat format, StreamingResponseBody body) {
+        String filename = baseName + "-" + LocalDate.now() + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, format.getContentType())
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                                .filename(filename)
+                                .build()
+                                .toString())
+                .body(body);
+    }
 }
@@ -0,0 +1,113 @@
+package com.safetyconstruction.backend.controller;
+
+import java.util.List;
+
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Controller;
+
+import com.safetyconstruction.backend.dto.request.ApiResponse;
+import com.safetyconstruction.backend.dto.request.alert.AlertBatchCreationRequest;
+import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
+import com.safetyconstruction.backend.dto.response.AlertBatchItemResponse;
+import com.safetyconstruction.backend.dto.response.AlertBatchResponse;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.service.AlertService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ingest alert qua STOMP (endpoint /ws-ingest hoặc /ws):
+ * - SEND /app/alerts.ingest       : 1 AlertCreationRequest
+ * - SEND /app/alerts.ingest.batch : AlertBatchCreationRequest
+ * Kết quả gửi về đúng session qua /user/queue/alerts.receipts, header receipt-id = header receipt của frame gửi.
+ */
+@Controller
+@RequiredArgsConstructor
+public class AlertIngestMessageController {
+    private static final String RECEIPTS = "/queue/alerts.receipts";
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final AlertService alertService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @MessageMapping("alerts.ingest")
+    public void ingestAlert(@Payload AlertCreationRequest request, SimpMessageHeaderAccessor accessor) {
+        AlertBatchItemResponse item =
+                alertService.createAlerts(List.of(request)).getItems().get(0);
+        reply(
+                accessor,
+                ApiResponse.<AlertBatchItemResponse>builder()
+                        .code(item.isSuccess() ? 1000 : item.getCode())
+                        .message(item.getMessage())
+                        .result(item)
+                        .build());
+    }
+
+    @MessageMapping("alerts.ingest.batch")
+    public void ingestAlerts(@Payload AlertBatchCreationRequest request, SimpMessageHeaderAccessor accessor) {
+        if (request.getAlerts() == null
+                || request.getAlerts().isEmpty()
+                || request.getAlerts().size() > MAX_BATCH_SIZE) {
+            throw new AppException(ErrorCode.INVALID_ALERT_BATCH);
+        }
+        AlertBatchResponse result = alertService.createAlerts(request.getAlerts());
+        reply(
+                accessor,
+                ApiResponse.<AlertBatchResponse>builder()
+                        .result(result)
+                        .message(String.format(
+                                "%d alerts created, %d rejected", result.getAccepted(), result.getRejected()))
+                        .build());
+    }
+
+    @MessageExceptionHandler(AppException.class)
+    public void handleAppException(AppException exception, SimpMessageHeaderAccessor accessor) {
+        replyError(accessor, exception.getErrorCode());
+    }
+
+    @MessageExceptionHandler(AuthenticationException.class)
+    public void handleAuthenticationException(SimpMessageHeaderAccessor accessor) {
+        replyError(accessor, ErrorCode.UNAUTHENTICATED);
+    }
+
+    @MessageExceptionHandler(AccessDeniedException.class)
+    public void handleAccessDeniedException(SimpMessageHeaderAccessor accessor) {
+        replyError(accessor, ErrorCode.UNAUTHORIZED);
+    }
+
+    @MessageExceptionHandler(MessageConversionException.class)
+    public void handleConversionException(SimpMessageHeaderAccessor accessor) {
+        replyError(accessor, ErrorCode.INVALID_ALERT_RECORD);
+    }
+
+    private void replyError(SimpMessageHeaderAccessor accessor, ErrorCode errorCode) {
+        reply(
+                accessor,
+                ApiResponse.builder()
+                        .code(errorCode.getCode())
+                        .message(errorCode.getMessage())
+                        .build());
+    }
+
+    // Gửi theo sessionId (không theo username) để mỗi thiết bị chỉ nhận receipt của chính nó
+    private void reply(SimpMessageHeaderAccessor accessor, ApiResponse<?> payload) {
+        String sessionId = accessor.getSessionId();
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        String receipt = accessor.getFirstNativeHeader("receipt");
+        if (receipt != null) {
+            headers.setNativeHeader("receipt-id", receipt);
+        }
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, RECEIPTS, payload, headers.getMessageHeaders());
+    }
+}
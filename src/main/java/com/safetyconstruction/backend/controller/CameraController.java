@@ -39,10 +39,11 @@ public class CameraController {
             @PathVariable Long projectId, // <-- THÊM THAM SỐ NÀY
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "location", required = false) String location,
-            @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+            @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields) { // ?fields=id,name,location
 
         // Gọi đúng phương thức service mới và truyền projectId
-        Page<CameraResponse> page = cameraService.getCamerasByProject(projectId, name, location, pageable);
+        Page<CameraResponse> page = cameraService.getCamerasByProject(projectId, name, location, pageable, fields);
         return ApiResponse.<Page<CameraResponse>>builder().result(page).build();
     }
 
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.safetyconstruction.backend.dto.request.ApiResponse;
 import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
 import com.safetyconstruction.backend.dto.response.DashboardResponse;
+import com.safetyconstruction.backend.dto.response.DashboardSummaryResponse;
 import com.safetyconstruction.backend.service.DashboardService;
 
 import lombok.AccessLevel;
@@ -35,4 +36,14 @@ public class DashboardController {
         DashboardResponse data = dashboardService.getDashboardData(searchRequest);
         return ApiResponse.<DashboardResponse>builder().result(data).build();
     }
+
+    /**
+     * Chỉ các thẻ KPI, nhẹ hơn GET /api/dashboard (không có biểu đồ / cảnh báo mới nhất)
+     * Frontend gọi: GET /api/dashboard/summary?projectId=1&happenedAfter=...
+     */
+    @GetMapping("/summary")
+    public ApiResponse<DashboardSummaryResponse> getSummaryStats(@ModelAttribute AlertSearchRequest searchRequest) {
+        DashboardSummaryResponse data = dashboardService.getSummaryStats(searchRequest);
+        return ApiResponse.<DashboardSummaryResponse>builder().result(data).build();
+    }
 }
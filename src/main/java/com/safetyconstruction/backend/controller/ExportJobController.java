@@ -0,0 +1,62 @@
+package com.safetyconstruction.backend.controller;
+
+import jakarta.validation.Valid;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.safetyconstruction.backend.dto.request.ApiResponse;
+import com.safetyconstruction.backend.dto.request.export.ExportJobRequest;
+import com.safetyconstruction.backend.dto.response.ExportJobResponse;
+import com.safetyconstruction.backend.service.ExportJobService;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@RestController
+@RequestMapping("/api/export-jobs")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ExportJobController {
+
+    ExportJobService exportJobService;
+
+    /**
+     * Tạo export chạy nền, trả 202 kèm jobId.
+     * Body: {"type":"ALERTS","format":"XLSX","filter":{"projectId":1,"happenedAfter":"..."},"fields":"id,type"}
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<ExportJobResponse> submit(@Valid @RequestBody ExportJobRequest request) {
+        return ApiResponse.<ExportJobResponse>builder()
+                .result(exportJobService.submit(request))
+                .message("Export job accepted")
+                .build();
+    }
+
+    @GetMapping("/{jobId}")
+    public ApiResponse<ExportJobResponse> getJob(@PathVariable String jobId) {
+        return ApiResponse.<ExportJobResponse>builder()
+                .result(exportJobService.getJob(jobId))
+                .build();
+    }
+
+    @GetMapping("/{jobId}/file")
+    public ResponseEntity<Resource> download(@PathVariable String jobId) {
+        ExportJobService.ExportFile file = exportJobService.getFile(jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, file.format().getContentType())
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                                .filename(file.filename())
+                                .build()
+                                .toString())
+                .body(file.resource());
+    }
+}
@@ -1,23 +1,53 @@
 package com.safetyconstruction.backend.controller;
 
+import java.io.IOException;
+import java.time.LocalDate;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.safetyconstruction.backend.dto.request.ApiResponse;
 import com.safetyconstruction.backend.dto.request.alert.*;
+import com.safetyconstruction.backend.dto.response.AlertBatchResponse;
+import com.safetyconstruction.backend.dto.response.AlertIngestResponse;
 import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.dto.response.AlertTextIndexStatusResponse;
+import com.safetyconstruction.backend.dto.response.AlertTextSearchResponse;
+import com.safetyconstruction.backend.dto.response.CursorPageResponse;
+import com.safetyconstruction.backend.dto.response.SliceResponse;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.enums.SearchTotalMode;
+import com.safetyconstruction.backend.service.AlertExportService;
+import com.safetyconstruction.backend.service.AlertIngestPipeline;
 import com.safetyconstruction.backend.service.AlertService;
+import com.safetyconstruction.backend.service.AlertStreamIngestService;
+import com.safetyconstruction.backend.service.AlertTextIndex;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/alerts")
 @RequiredArgsConstructor
 public class GlobalAlertController {
     private final AlertService alertService;
+    private final AlertExportService alertExportService;
+    private final AlertIngestPipeline alertIngestPipeline;
+    private final AlertStreamIngestService alertStreamIngestService;
+    private final AlertTextIndex alertTextIndex;
 
     @PostMapping
     public ApiResponse<AlertResponse> createAlert(@Valid @RequestBody AlertCreationRequest request) {
@@ -27,13 +57,130 @@ public class GlobalAlertController {
                 .build();
     }
 
+    @PostMapping("/batch")
+    public ApiResponse<AlertBatchResponse> createAlerts(@Valid @RequestBody AlertBatchCreationRequest request) {
+        AlertBatchResponse result = alertService.createAlerts(request.getAlerts());
+        return ApiResponse.<AlertBatchResponse>builder()
+                .result(result)
+                .message(String.format("%d alerts created, %d rejected", result.getAccepted(), result.getRejected()))
+                .build();
+    }
+
+    /**
+     * Ingest bất đồng bộ: alert được đưa vào hàng đợi, trả 202 kèm trackingId.
+     */
+    @PostMapping("/ingest")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<AlertIngestResponse> ingestAlert(@Valid @RequestBody AlertCreationRequest request) {
+        return ApiResponse.<AlertIngestResponse>builder()
+                .result(alertIngestPipeline.submit(request))
+                .message("Alert accepted for processing")
+                .build();
+    }
+
+    /**
+     * Ingest NDJSON trên 1 kết nối: mỗi dòng 1 AlertCreationRequest,
+     * response là NDJSON gồm 1 ack (AlertBatchItemResponse, index = thứ tự record) cho mỗi dòng.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAlerts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        long records = alertStreamIngestService.ingest(request.getInputStream(), response.getOutputStream());
+        log.info("Alert stream closed after {} records", records);
+    }
+
+    @GetMapping("/ingest/{trackingId}")
+    public ApiResponse<AlertIngestResponse> getIngestStatus(@PathVariable String trackingId) {
+        return ApiResponse.<AlertIngestResponse>builder()
+                .result(alertIngestPipeline.getStatus(trackingId))
+                .build();
+    }
+
+    /**
+     * ?fields=id,type,severity,happenedAt: chỉ SELECT và trả về các trường này (id luôn có).
+     * Không truyền -> mọi trường trừ metadata/reviewNote.
+     */
     @GetMapping
-    public ApiResponse<Page<AlertResponse>> searchAlerts(AlertSearchRequest searchRequest, Pageable pageable) {
+    public ApiResponse<Page<AlertResponse>> searchAlerts(
+            AlertSearchRequest searchRequest, Pageable pageable, @RequestParam(required = false) String fields) {
         return ApiResponse.<Page<AlertResponse>>builder()
-                .result(alertService.searchAlerts(searchRequest, pageable))
+                .result(alertService.searchAlerts(searchRequest, pageable, fields))
+                .build();
+    }
+
+    /**
+     * Phân trang keyset: ?cursor=<nextCursor của trang trước>&size=..., không đếm tổng.
+     */
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPageResponse<AlertResponse>> searchAlertsByCursor(
+            AlertSearchRequest searchRequest,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
+        return ApiResponse.<CursorPageResponse<AlertResponse>>builder()
+                .result(alertService.searchAlertsByCursor(searchRequest, cursor, size, fields))
                 .build();
     }
 
+    /**
+     * Như GET /api/alerts nhưng không COUNT(*) toàn bộ: ?total=NONE|CAPPED|EXACT (mặc định CAPPED).
+     */
+    @GetMapping("/slice")
+    public ApiResponse<SliceResponse<AlertResponse>> searchAlertsSlice(
+            AlertSearchRequest searchRequest,
+            Pageable pageable,
+            @RequestParam(defaultValue = "CAPPED") SearchTotalMode total,
+            @RequestParam(required = false) String fields) {
+        return ApiResponse.<SliceResponse<AlertResponse>>builder()
+                .result(alertService.searchAlertsSlice(searchRequest, pageable, total, fields))
+                .build();
+    }
+
+    /**
+     * Xuất alert ra file (stream, không giới hạn số dòng): cùng query params với GET /api/alerts,
+     * thêm ?format=CSV|XLSX, ?sort=happenedAt,desc (mặc định happenedAt, id giảm dần) và ?fields=.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAlerts(
+            AlertSearchRequest searchRequest,
+            Sort sort,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) String fields) {
+        return attachment("alerts", format, alertExportService.exportAlerts(searchRequest, sort, format, fields));
+    }
+
+    /**
+     * Tìm full-text trong reviewNote / metadata: ?q=mũ bảo hộ&projectId=..&limit=..
+     * Trả về id alert kèm đoạn khớp; lấy chi tiết qua GET /api/alerts/{id}.
+     */
+    @GetMapping("/text-search")
+    public ApiResponse<AlertTextSearchResponse> textSearch(
+            @RequestParam String q,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Integer limit) {
+        return ApiResponse.<AlertTextSearchResponse>builder()
+                .result(alertTextIndex.search(q, projectId, limit))
+                .build();
+    }
+
+    @GetMapping("/text-index")
+    public ApiResponse<AlertTextIndexStatusResponse> getTextIndexStatus() {
+        return ApiResponse.<AlertTextIndexStatusResponse>builder()
+                .result(alertTextIndex.getStatus())
+                .build();
+    }
+
+    /**
+     * Đánh index lại toàn bộ alert hiện có (chạy nền, theo dõi qua GET /text-index).
+     */
+    @PostMapping("/text-index/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<Void> rebuildTextIndex() {
+        alertTextIndex.startRebuild();
+        return ApiResponse.<Void>builder().message("Text index rebuild started").build();
+    }
+
     @GetMapping("/{alertId}")
     public ApiResponse<AlertResponse> getAlert(@PathVariable Long alertId) {
         return ApiResponse.<AlertResponse>builder()
@@ -49,4 +196,18 @@ public class GlobalAlertController {
                 .message("Alert reviewed successfully")
                 .build();
     }
+
+    private static ResponseEntity<StreamingResponseBody> attachment(
+            String baseName, ExportFormat format, StreamingResponseBody body) {
+        String filename = baseName + "-" + LocalDate.now() + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, format.getContentType())
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                                .filename(filename)
+                                .build()
+                                .toString())
+                .body(body);
+    }
 }
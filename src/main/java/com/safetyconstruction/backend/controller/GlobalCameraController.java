@@ -31,12 +31,13 @@ public class GlobalCameraController {
     public ApiResponse<Page<CameraResponse>> getAllCameras(
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "location", required = false) String location,
-            @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+            @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields) { // ?fields=id,name,location
 
         log.info("Controller: Getting ALL cameras globally");
 
         // Gọi phương thức service toàn cục
-        Page<CameraResponse> page = cameraService.getAllCameras(name, location, pageable);
+        Page<CameraResponse> page = cameraService.getAllCameras(name, location, pageable, fields);
         return ApiResponse.<Page<CameraResponse>>builder().result(page).build();
     }
 }
@@ -1,16 +1,24 @@
 // File: src/main/java/com/safetyconstruction/backend/controller/StatisticController.java
 package com.safetyconstruction.backend.controller;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.safetyconstruction.backend.dto.request.ApiResponse;
 import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.response.AlertStatsRollupCheckResponse;
+import com.safetyconstruction.backend.dto.response.AlertStatsRollupStatusResponse;
 import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.service.AlertStatsRollupService;
 import com.safetyconstruction.backend.service.StatisticService;
 
 import lombok.AccessLevel;
@@ -26,6 +34,7 @@ import lombok.extern.slf4j.Slf4j;
 public class StatisticController {
 
     StatisticService statisticService;
+    AlertStatsRollupService statsRollupService;
 
     /**
      * API để lấy thống kê theo LOẠI VI PHẠM (cho biểu đồ tròn)
@@ -52,6 +61,38 @@ public class StatisticController {
         return ApiResponse.<List<StatisticResponse>>builder().result(stats).build();
     }
 
+    @GetMapping("/rollup")
+    public ApiResponse<AlertStatsRollupStatusResponse> getRollupStatus() {
+        return ApiResponse.<AlertStatsRollupStatusResponse>builder()
+                .result(statsRollupService.getStatus())
+                .build();
+    }
+
+    /**
+     * Tính lại bảng alert_stats_hourly từ bảng alerts (chạy nền, theo dõi qua GET /rollup).
+     */
+    @PostMapping("/rollup/rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ApiResponse<Void> rebuildRollup() {
+        statsRollupService.startRebuild();
+        return ApiResponse.<Void>builder()
+                .message("Statistics rollup rebuild started")
+                .build();
+    }
+
+    /**
+     * Đối soát rollup với bảng alerts, ví dụ: POST /api/statistics/rollup/check?from=2024-05-01T00:00:00Z&repair=true
+     */
+    @PostMapping("/rollup/check")
+    public ApiResponse<AlertStatsRollupCheckResponse> checkRollup(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return ApiResponse.<AlertStatsRollupCheckResponse>builder()
+                .result(statsRollupService.check(from, to, repair))
+                .build();
+    }
+
     // Bạn cũng có thể tạo một endpoint thứ 3
     // để nhóm theo cả (Type VÀ Weekday) nếu frontend của bạn cần
 }
@@ -0,0 +1,7 @@
+package com.safetyconstruction.backend.dto.projection;
+
+/**
+ * 1 nhóm (loại, ngày trong tuần 1=CN..7=T7, tháng 1-12) của dashboard kèm các số đếm có điều kiện.
+ */
+public record AlertDashboardBucket(
+        Integer typeId, int dayOfWeek, int month, long total, long unresolved, long highSeverity) {}
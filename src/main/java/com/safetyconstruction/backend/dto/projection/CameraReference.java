@@ -0,0 +1,6 @@
+package com.safetyconstruction.backend.dto.projection;
+
+/**
+ * Thông tin định danh/sở hữu của Camera dùng trên luồng ingest.
+ */
+public record CameraReference(Long id, Long projectId, String name) {}
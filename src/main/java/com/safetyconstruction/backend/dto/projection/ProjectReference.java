@@ -0,0 +1,6 @@
+package com.safetyconstruction.backend.dto.projection;
+
+/**
+ * Thông tin định danh/sở hữu của Project dùng trên luồng ingest (không load manager EAGER).
+ */
+public record ProjectReference(Long id, String name, String managerId) {}
@@ -0,0 +1,20 @@
+package com.safetyconstruction.backend.dto.request.alert;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertBatchCreationRequest {
+    // Từng phần tử được validate riêng trong service để trả về kết quả theo từng alert
+    @NotEmpty(message = "INVALID_ALERT_BATCH")
+    @Size(max = 500, message = "INVALID_ALERT_BATCH")
+    List<AlertCreationRequest> alerts;
+}
@@ -15,6 +15,10 @@ public class AlertCreationRequest {
     @NotNull
     Long projectId;
 
+    // id sự kiện phía thiết bị; gửi lại cùng eventId sẽ nhận lại alert đã tạo (idempotent)
+    @Size(max = 64)
+    String eventId;
+
     Long cameraId;
 
     @NotBlank
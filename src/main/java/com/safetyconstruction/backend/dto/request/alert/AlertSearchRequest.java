@@ -2,6 +2,8 @@ package com.safetyconstruction.backend.dto.request.alert;
 
 import java.time.Instant;
 
+import com.safetyconstruction.backend.enums.TypeMatch;
+
 import lombok.*;
 
 @Data
@@ -12,6 +14,7 @@ public class AlertSearchRequest {
     private Long projectId;
     private Long cameraId;
     private String type;
+    private TypeMatch typeMatch; // mặc định EXACT; CONTAINS để tìm chuỗi con (chậm)
     private String severity;
     private String alertStatus;
     private Float minConfidence;
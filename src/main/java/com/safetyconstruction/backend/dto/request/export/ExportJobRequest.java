@@ -0,0 +1,28 @@
+package com.safetyconstruction.backend.dto.request.export;
+
+import jakarta.validation.constraints.NotNull;
+
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.enums.ExportJobType;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJobRequest {
+    @NotNull
+    ExportJobType type;
+
+    @Builder.Default
+    ExportFormat format = ExportFormat.CSV;
+
+    // Cùng bộ lọc với GET /api/alerts; null = không lọc
+    AlertSearchRequest filter;
+
+    // Chỉ dùng cho ALERTS, như ?fields= của GET /api/alerts
+    String fields;
+}
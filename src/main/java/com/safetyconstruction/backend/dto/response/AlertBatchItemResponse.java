@@ -0,0 +1,20 @@
+package com.safetyconstruction.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlertBatchItemResponse {
+    long index; // vị trí của alert trong request
+    boolean success;
+    AlertResponse alert;
+    Boolean duplicate; // true: eventId đã được xử lý trước đó, alert là bản ghi gốc
+    Integer code; // ErrorCode khi thất bại
+    String message;
+}
@@ -0,0 +1,16 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertBatchResponse {
+    int accepted;
+    int rejected;
+    List<AlertBatchItemResponse> items;
+}
@@ -0,0 +1,23 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.safetyconstruction.backend.enums.IngestStatus;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlertIngestResponse {
+    String trackingId;
+    IngestStatus status;
+    Instant acceptedAt;
+    Long alertId; // có khi status = CREATED
+    Integer code; // ErrorCode khi status = REJECTED
+    String message;
+}
@@ -17,6 +17,7 @@ public class AlertResponse {
     Long id;
     Long projectId;
     Long cameraId;
+    String eventId;
     String type;
     AlertSeverity severity;
     Float confidence;
@@ -0,0 +1,39 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertStatsRollupCheckResponse {
+    Instant from;
+    Instant to;
+    long checkedBuckets;
+    long mismatchedBuckets;
+    boolean repaired;
+    List<Mismatch> samples; // tối đa vài nhóm lệch đầu tiên
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Mismatch {
+        Long projectId;
+        Long cameraId;
+        Integer typeId;
+        AlertSeverity severity;
+        AlertStatus alertStatus;
+        Instant hourStart;
+        long expected; // đếm từ bảng alerts
+        long actual; // trong alert_stats_hourly
+    }
+}
@@ -0,0 +1,22 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlertStatsRollupStatusResponse {
+    boolean enabled;
+    boolean ready; // false: rollup chưa phủ hết alert cũ, thống kê đang đọc bảng alerts
+    boolean rebuilding;
+    Instant lastRebuildAt; // null: chưa rebuild từ lúc khởi động
+    Instant lastCheckAt;
+    Long lastCheckMismatches;
+}
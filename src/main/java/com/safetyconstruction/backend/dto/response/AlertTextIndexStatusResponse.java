@@ -0,0 +1,23 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlertTextIndexStatusResponse {
+    boolean enabled;
+    boolean rebuilding;
+    int documents;
+    int pendingUpdates; // alert đã thay đổi nhưng chưa được đánh index lại
+    Instant lastRebuildAt; // null: chưa rebuild từ lúc khởi động
+}
@@ -0,0 +1,22 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlertTextSearchHit {
+    Long alertId;
+    Long projectId;
+    float score;
+    Map<String, String> highlights; // reviewNote / metadata -> đoạn khớp, từ khóa bọc trong <b>...</b>
+}
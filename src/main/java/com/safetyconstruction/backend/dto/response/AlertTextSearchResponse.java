@@ -0,0 +1,17 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AlertTextSearchResponse {
+    List<AlertTextSearchHit> hits;
+    long totalHits;
+}
@@ -0,0 +1,13 @@
+package com.safetyconstruction.backend.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.NoArgsConstructor;
+
+/**
+ * Dòng của danh sách camera đọc qua CameraRepositoryCustom.LIST_PROJECTION (?fields=):
+ * trường không được SELECT là null và không được serialize. Các API khác vẫn trả CameraResponse đầy đủ.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class CameraListItemResponse extends CameraResponse {}
@@ -0,0 +1,20 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponse<T> {
+    List<T> content;
+    int size;
+    boolean hasNext;
+    String nextCursor; // gửi lại qua ?cursor= để lấy trang tiếp theo, null khi hết dữ liệu
+}
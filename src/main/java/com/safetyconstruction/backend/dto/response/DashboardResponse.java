@@ -15,4 +15,5 @@ public class DashboardResponse {
     private List<StatsResponse> weekdayStats; // (Thay thế detections1, 2, 3)
     private List<StatsResponse> monthlyStats;
     private Page<AlertResponse> recentAlerts; // (Top 5 cảnh báo mới nhất)
+    private List<String> unavailableSections; // Các phần quá hạn (để null), vd ["summary", "weekdayStats", ...]
 }
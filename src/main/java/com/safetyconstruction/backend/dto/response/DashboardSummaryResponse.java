@@ -1,11 +1,15 @@
 // File: src/main/java/com/safetyconstruction/backend/dto/response/DashboardSummaryResponse.java
 package com.safetyconstruction.backend.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class DashboardSummaryResponse {
     private long totalAlerts; // Tổng số cảnh báo
     private long unresolvedAlerts; // Số cảnh báo chưa xử lý (NEW)
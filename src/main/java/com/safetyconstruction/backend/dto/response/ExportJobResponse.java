@@ -0,0 +1,29 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.enums.ExportJobStatus;
+import com.safetyconstruction.backend.enums.ExportJobType;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExportJobResponse {
+    String jobId;
+    ExportJobType type;
+    ExportFormat format;
+    ExportJobStatus status;
+    long rowsWritten; // tiến độ: số dòng dữ liệu đã ghi
+    Long fileSize; // byte, khi COMPLETED
+    String error; // khi FAILED
+    Instant createdAt;
+    Instant finishedAt;
+    Instant expiresAt; // file và trạng thái job bị xóa sau thời điểm này
+}
@@ -0,0 +1,22 @@
+package com.safetyconstruction.backend.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SliceResponse<T> {
+    List<T> content;
+    int page;
+    int size;
+    boolean hasNext;
+    Long totalElements; // null khi total=NONE
+    Boolean totalCapped; // true: tổng thực tế >= totalElements (hiển thị "10000+")
+}
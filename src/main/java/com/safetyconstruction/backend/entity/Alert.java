@@ -20,10 +20,33 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "alerts")
+@Table(
+        name = "alerts",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = Alert.EVENT_ID_CONSTRAINT,
+                        columnNames = {"project_id", "event_id"}),
+        indexes = {
+            // keyset pagination: ORDER BY happened_at DESC, id DESC
+            @Index(name = "idx_alerts_happened_id", columnList = "happened_at, id"),
+            @Index(name = "idx_alerts_project_happened_id", columnList = "project_id, happened_at, id"),
+            @Index(name = "idx_alerts_type_happened", columnList = "type_id, happened_at"),
+            // khớp các tổ hợp lọc của AlertSpecification (bằng nhau trước, khoảng happened_at sau)
+            @Index(name = "idx_alerts_project_status_happened", columnList = "project_id, alert_status, happened_at"),
+            @Index(name = "idx_alerts_project_severity_happened", columnList = "project_id, severity, happened_at"),
+            @Index(name = "idx_alerts_camera_happened", columnList = "camera_id, happened_at"),
+            @Index(name = "idx_alerts_status_happened", columnList = "alert_status, happened_at"),
+            @Index(name = "idx_alerts_severity_happened", columnList = "severity, happened_at")
+        })
 public class Alert {
+    public static final String EVENT_ID_CONSTRAINT = "uk_alerts_project_event";
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // SEQUENCE (table-emulated on MySQL) instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alerts_seq")
+    @SequenceGenerator(name = "alerts_seq", sequenceName = "alerts_seq", allocationSize = Alert.ID_ALLOCATION_SIZE)
     Long id;
 
     // relations
@@ -35,9 +58,17 @@ public class Alert {
     @JoinColumn(name = "camera_id")
     Camera camera;
 
+    // id sự kiện do thiết bị gửi (idempotency key), NULL với alert cũ
+    @Column(name = "event_id", length = 64)
+    String eventId;
+
     @Column(length = 100, nullable = false)
     String type;
 
+    // id trong alert_types (type đã chuẩn hóa), dùng cho lọc chính xác và GROUP BY
+    @Column(name = "type_id")
+    Integer typeId;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 20, nullable = false)
     AlertSeverity severity;
@@ -0,0 +1,26 @@
+package com.safetyconstruction.backend.entity;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Số alert đang ở trạng thái NEW theo (project, camera, type).
+ * Được cập nhật cùng transaction với create/review/delete alert, đối soát định kỳ với bảng alerts.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "alert_open_counters")
+public class AlertOpenCounter {
+    @EmbeddedId
+    AlertOpenCounterId id;
+
+    @Column(name = "open_count", nullable = false)
+    long openCount;
+}
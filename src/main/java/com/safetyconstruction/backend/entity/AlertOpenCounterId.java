@@ -0,0 +1,32 @@
+package com.safetyconstruction.backend.entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Embeddable
+public class AlertOpenCounterId implements Serializable {
+    @Column(name = "project_id", nullable = false)
+    Long projectId;
+
+    // 0 khi alert không gắn camera
+    @Column(name = "camera_id", nullable = false)
+    Long cameraId;
+
+    @Column(length = 100, nullable = false)
+    String type;
+
+    public static AlertOpenCounterId of(Long projectId, Long cameraId, String type) {
+        return new AlertOpenCounterId(projectId, cameraId != null ? cameraId : 0L, type);
+    }
+}
@@ -0,0 +1,32 @@
+package com.safetyconstruction.backend.entity;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Số alert theo (project, camera, type, severity, status, giờ), thay cho GROUP BY trên bảng alerts khi thống kê.
+ * Được cập nhật cùng transaction với create/review/delete alert; rebuild và đối soát qua AlertStatsRollupService.
+ * Giờ được cắt theo UTC: khớp với giờ của happened_at trong DB khi múi giờ của JVM lệch UTC số giờ chẵn.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(
+        name = "alert_stats_hourly",
+        indexes = {
+            @Index(name = "idx_alert_stats_hour", columnList = "hour_start"),
+            @Index(name = "idx_alert_stats_project_hour", columnList = "project_id, hour_start")
+        })
+public class AlertStatsHourly {
+    @EmbeddedId
+    AlertStatsHourlyId id;
+
+    @Column(name = "alert_count", nullable = false)
+    long alertCount;
+}
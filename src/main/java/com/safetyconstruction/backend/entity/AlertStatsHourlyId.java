@@ -0,0 +1,74 @@
+package com.safetyconstruction.backend.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Embeddable
+public class AlertStatsHourlyId implements Serializable {
+    // alert cũ chưa có type_id (khác UNKNOWN_TYPE_ID = 0 để lọc EXACT theo type lạ vẫn không khớp gì)
+    public static final int NO_TYPE_ID = -1;
+
+    // Thứ tự khóa dòng cố định khi cập nhật nhiều nhóm trong 1 transaction (tránh deadlock)
+    public static final Comparator<AlertStatsHourlyId> LOCK_ORDER = Comparator.comparing(
+                    AlertStatsHourlyId::getProjectId)
+            .thenComparing(AlertStatsHourlyId::getCameraId)
+            .thenComparing(AlertStatsHourlyId::getTypeId)
+            .thenComparing(AlertStatsHourlyId::getSeverity)
+            .thenComparing(AlertStatsHourlyId::getAlertStatus)
+            .thenComparing(AlertStatsHourlyId::getHourStart);
+
+    @Column(name = "project_id", nullable = false)
+    Long projectId;
+
+    // 0 khi alert không gắn camera
+    @Column(name = "camera_id", nullable = false)
+    Long cameraId;
+
+    @Column(name = "type_id", nullable = false)
+    Integer typeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    AlertSeverity severity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_status", length = 20, nullable = false)
+    AlertStatus alertStatus;
+
+    @Column(name = "hour_start", nullable = false)
+    Instant hourStart;
+
+    public static AlertStatsHourlyId of(Alert alert, AlertStatus alertStatus) {
+        return new AlertStatsHourlyId(
+                alert.getProject().getId(),
+                alert.getCamera() != null ? alert.getCamera().getId() : 0L,
+                alert.getTypeId() != null ? alert.getTypeId() : NO_TYPE_ID,
+                alert.getSeverity(),
+                alertStatus,
+                hourOf(alert.getHappenedAt()));
+    }
+
+    public static Instant hourOf(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -0,0 +1,27 @@
+package com.safetyconstruction.backend.entity;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Từ điển loại alert: mỗi type (đã chuẩn hóa TRIM + UPPER) ứng với 1 id số nhỏ,
+ * alerts.type_id trỏ vào đây để lọc/nhóm theo cột số có index thay vì LIKE trên VARCHAR.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "alert_types")
+public class AlertType {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Integer id;
+
+    @Column(length = 100, nullable = false, unique = true)
+    String code;
+}
@@ -4,5 +4,14 @@ public enum AlertSeverity {
     LOW,
     MEDIUM,
     HIGH,
-    CRITICAL
+    CRITICAL;
+
+    // Lane ưu tiên khi xử lý ingest / gửi thông báo: 0 = CRITICAL ... 3 = LOW
+    public int priorityLane() {
+        return CRITICAL.ordinal() - ordinal();
+    }
+
+    public static AlertSeverity ofLane(int lane) {
+        return values()[CRITICAL.ordinal() - lane];
+    }
 }
@@ -0,0 +1,8 @@
+package com.safetyconstruction.backend.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
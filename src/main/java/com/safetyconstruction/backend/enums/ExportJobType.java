@@ -0,0 +1,6 @@
+package com.safetyconstruction.backend.enums;
+
+public enum ExportJobType {
+    ALERTS, // danh sách alert theo bộ lọc (như GET /api/alerts/export)
+    STATISTICS // thống kê theo loại / ngày trong tuần / project
+}
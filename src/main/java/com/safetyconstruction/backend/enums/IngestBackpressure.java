@@ -0,0 +1,6 @@
+package com.safetyconstruction.backend.enums;
+
+public enum IngestBackpressure {
+    REJECT, // trả lỗi ngay khi hàng đợi đầy
+    BLOCK // chờ tối đa block-timeout rồi mới trả lỗi
+}
@@ -0,0 +1,7 @@
+package com.safetyconstruction.backend.enums;
+
+public enum IngestStatus {
+    QUEUED,
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,7 @@
+package com.safetyconstruction.backend.enums;
+
+public enum SearchTotalMode {
+    NONE, // không đếm
+    CAPPED, // đếm tối đa tới ngưỡng (ví dụ "10000+")
+    EXACT // COUNT(*) đầy đủ như Page
+}
@@ -0,0 +1,7 @@
+package com.safetyconstruction.backend.enums;
+
+public enum StatisticGroup {
+    TYPE, // type_id
+    WEEKDAY, // DAYOFWEEK(happened_at): 1=CN..7=T7
+    PROJECT // project_id
+}
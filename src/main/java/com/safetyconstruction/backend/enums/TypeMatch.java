@@ -0,0 +1,6 @@
+package com.safetyconstruction.backend.enums;
+
+public enum TypeMatch {
+    EXACT, // so khớp chính xác (không phân biệt hoa thường) qua alerts.type_id có index
+    CONTAINS // LIKE '%...%' trên alerts.type, không dùng được index
+}
@@ -24,7 +24,26 @@ public enum ErrorCode {
     ROLE_EXISTED(1013, "Role existed", HttpStatus.BAD_REQUEST),
     ROLE_NOT_FOUND(1014, "Role not found", HttpStatus.NOT_FOUND),
     PERMISSION_NOT_FOUND(1015, "Permission not found", HttpStatus.NOT_FOUND),
-    ACCOUNT_LOCKED(1016, "Account is locked", HttpStatus.FORBIDDEN);
+    ACCOUNT_LOCKED(1016, "Account is locked", HttpStatus.FORBIDDEN),
+    INVALID_ALERT_SEVERITY(1017, "Alert severity must be one of LOW, MEDIUM, HIGH, CRITICAL", HttpStatus.BAD_REQUEST),
+    INVALID_ALERT_BATCH(1018, "Alert batch must contain between 1 and 500 alerts", HttpStatus.BAD_REQUEST),
+    ALERT_INGEST_QUEUE_FULL(1019, "Alert ingest queue is full, retry later", HttpStatus.SERVICE_UNAVAILABLE),
+    ALERT_INGEST_NOT_FOUND(1020, "Alert ingest tracking id not found or expired", HttpStatus.NOT_FOUND),
+    ALERT_EVENT_CONFLICT(1021, "Alert event is being processed by another request, retry later", HttpStatus.CONFLICT),
+    INVALID_ALERT_RECORD(1022, "Malformed alert record", HttpStatus.BAD_REQUEST),
+    ALERT_RATE_LIMITED(1023, "Too many alerts from this camera, retry later", HttpStatus.TOO_MANY_REQUESTS),
+    ALERT_BELOW_CONFIDENCE(1024, "Alert confidence is below the configured threshold", HttpStatus.UNPROCESSABLE_ENTITY),
+    INVALID_ALERT_CURSOR(1025, "Invalid or expired cursor", HttpStatus.BAD_REQUEST),
+    INVALID_FIELDS(1026, "Unknown field in fields parameter", HttpStatus.BAD_REQUEST),
+    INVALID_SEARCH_QUERY(1027, "Invalid search query", HttpStatus.BAD_REQUEST),
+    TEXT_INDEX_REBUILD_RUNNING(1028, "Text index rebuild is already running", HttpStatus.CONFLICT),
+    TEXT_INDEX_UNAVAILABLE(1029, "Text index is unavailable", HttpStatus.SERVICE_UNAVAILABLE),
+    EXPORT_QUEUE_FULL(1030, "Too many export jobs, retry later", HttpStatus.TOO_MANY_REQUESTS),
+    EXPORT_JOB_NOT_FOUND(1031, "Export job not found or expired", HttpStatus.NOT_FOUND),
+    EXPORT_JOB_NOT_READY(1032, "Export job has not completed", HttpStatus.CONFLICT),
+    STATS_ROLLUP_REBUILD_RUNNING(1033, "Statistics rollup rebuild is already running", HttpStatus.CONFLICT),
+    INVALID_TIME_RANGE(1034, "Invalid or too large time range", HttpStatus.BAD_REQUEST),
+    INVALID_SORT(1035, "Unknown property in sort parameter", HttpStatus.BAD_REQUEST);
 
     ErrorCode(int code, String message, HttpStatusCode httpStatusCode) {
         this.code = code;
@@ -27,6 +27,8 @@ public interface AlertMapper {
     @Mapping(target = "alertStatus", constant = "NEW") // Tự động gán
     @Mapping(target = "reviewer", ignore = true)
     @Mapping(target = "reviewNote", ignore = true)
+    @Mapping(target = "createdAt", ignore = true) // không lấy project.createdAt (và không làm load proxy)
+    @Mapping(target = "typeId", ignore = true) // AlertService gán qua AlertTypeInterner
     Alert toAlert(AlertCreationRequest request, Project project, Camera camera);
 
     // 3. Mapper cho 'review' (thay thế .set...)
@@ -34,6 +36,7 @@ public interface AlertMapper {
     @Mapping(target = "project", ignore = true)
     @Mapping(target = "camera", ignore = true)
     @Mapping(target = "reviewer", source = "reviewer")
+    @Mapping(target = "typeId", ignore = true)
     void updateAlertFromReview(@MappingTarget Alert alert, AlertReviewRequest request, User reviewer);
 
     AlertResponse toAlertResponse(Alert alert);
@@ -0,0 +1,29 @@
+package com.safetyconstruction.backend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.safetyconstruction.backend.entity.AlertOpenCounter;
+import com.safetyconstruction.backend.entity.AlertOpenCounterId;
+
+public interface AlertOpenCounterRepository extends JpaRepository<AlertOpenCounter, AlertOpenCounterId> {
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO alert_open_counters (project_id, camera_id, type, open_count) "
+                    + "VALUES (:projectId, :cameraId, :type, GREATEST(:delta, 0)) "
+                    + "ON DUPLICATE KEY UPDATE open_count = GREATEST(open_count + :delta, 0)",
+            nativeQuery = true)
+    int increment(
+            @Param("projectId") Long projectId,
+            @Param("cameraId") Long cameraId,
+            @Param("type") String type,
+            @Param("delta") long delta);
+
+    @Query("SELECT c.openCount FROM AlertOpenCounter c WHERE c.id = :id")
+    Optional<Long> findOpenCount(@Param("id") AlertOpenCounterId id);
+}
@@ -1,16 +1,53 @@
 package com.safetyconstruction.backend.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import com.safetyconstruction.backend.entity.Alert;
 
-public interface AlertRepository extends JpaRepository<Alert, Long>, JpaSpecificationExecutor<Alert> {
+public interface AlertRepository
+        extends JpaRepository<Alert, Long>, JpaSpecificationExecutor<Alert>, AlertRepositoryCustom {
     Optional<Alert> findByIdAndProjectId(Long id, Long projectId);
 
     Page<Alert> findByProjectIdOrderByHappenedAtDesc(Long projectId, Pageable pageable);
+
+    // [projectId, cameraId (0 nếu không có), type, count] của các alert NEW, dùng để đối soát alert_open_counters
+    @Query("SELECT a.project.id, COALESCE(c.id, 0), a.type, COUNT(a) FROM Alert a LEFT JOIN a.camera c "
+            + "WHERE a.alertStatus = com.safetyconstruction.backend.enums.AlertStatus.NEW "
+            + "GROUP BY a.project.id, c.id, a.type")
+    List<Object[]> countOpenAlertsGrouped();
+
+    // MIN / MAX đọc đầu, cuối index (happened_at, id): giới hạn khoảng giờ khi rebuild alert_stats_hourly
+    @Query("SELECT MIN(a.happenedAt) FROM Alert a")
+    Instant findFirstHappenedAt();
+
+    @Query("SELECT MAX(a.happenedAt) FROM Alert a")
+    Instant findLastHappenedAt();
+
+    // dùng unique index (project_id, event_id)
+    List<Alert> findAllByProjectIdInAndEventIdIn(Collection<Long> projectIds, Collection<String> eventIds);
+
+    // Cột lọc của alert từ thời điểm afterTime, theo (happenedAt, id) tăng dần: nạp RecentAlertIndex từng phần
+    @Query("SELECT a.id, a.project.id, c.id, a.typeId, a.severity, a.alertStatus, a.confidence, a.happenedAt "
+            + "FROM Alert a LEFT JOIN a.camera c "
+            + "WHERE a.happenedAt > :afterTime OR (a.happenedAt = :afterTime AND a.id > :afterId) "
+            + "ORDER BY a.happenedAt, a.id")
+    List<Object[]> findIndexRowsAfter(Instant afterTime, long afterId, Limit limit);
+
+    // [id, projectId, reviewNote, metadata]: nguồn cho AlertTextIndex
+    @Query("SELECT a.id, a.project.id, a.reviewNote, a.metadata FROM Alert a WHERE a.id IN :ids")
+    List<Object[]> findTextByIdIn(Collection<Long> ids);
+
+    @Query("SELECT a.id, a.project.id, a.reviewNote, a.metadata FROM Alert a "
+            + "WHERE a.id > :afterId AND (a.reviewNote IS NOT NULL OR a.metadata IS NOT NULL) ORDER BY a.id")
+    List<Object[]> findTextAfter(long afterId, Limit limit);
 }
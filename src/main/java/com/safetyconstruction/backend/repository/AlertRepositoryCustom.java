@@ -0,0 +1,66 @@
+package com.safetyconstruction.backend.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.response.AlertListItemResponse;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.util.TupleProjection;
+
+public interface AlertRepositoryCustom {
+
+    // Các trường client được chọn qua ?fields=; project/camera/reviewer id đọc thẳng cột khóa ngoại, không JOIN
+    TupleProjection<Alert, AlertResponse> LIST_PROJECTION = new TupleProjection<Alert, AlertResponse>(
+                    AlertListItemResponse::new)
+            .column("id", Long.class, root -> root.get("id"), AlertResponse::setId)
+            .column("projectId", Long.class, root -> root.get("project").get("id"), AlertResponse::setProjectId)
+            .column("cameraId", Long.class, root -> root.get("camera").get("id"), AlertResponse::setCameraId)
+            .column("eventId", String.class, root -> root.get("eventId"), AlertResponse::setEventId)
+            .column("type", String.class, root -> root.get("type"), AlertResponse::setType)
+            .column("severity", AlertSeverity.class, root -> root.get("severity"), AlertResponse::setSeverity)
+            .column("confidence", Float.class, root -> root.get("confidence"), AlertResponse::setConfidence)
+            .column("alertStatus", AlertStatus.class, root -> root.get("alertStatus"), AlertResponse::setAlertStatus)
+            .column("happenedAt", Instant.class, root -> root.get("happenedAt"), AlertResponse::setHappenedAt)
+            .column("imageKey", String.class, root -> root.get("imageKey"), AlertResponse::setImageKey)
+            .column("clipKey", String.class, root -> root.get("clipKey"), AlertResponse::setClipKey)
+            .column("metadata", String.class, root -> root.get("metadata"), AlertResponse::setMetadata)
+            .column("reviewerId", String.class, root -> root.get("reviewer").get("id"), AlertResponse::setReviewerId)
+            .column("reviewNote", String.class, root -> root.get("reviewNote"), AlertResponse::setReviewNote)
+            .column("createdAt", LocalDateTime.class, root -> root.get("createdAt"), AlertResponse::setCreatedAt);
+
+    // Mặc định khi không truyền fields: mọi cột trừ 2 cột TEXT metadata / review_note (chỉ lấy khi yêu cầu rõ)
+    Set<String> DEFAULT_LIST_FIELDS = LIST_PROJECTION.fieldsExcept("metadata", "reviewNote");
+
+    /**
+     * Đếm số alert khớp spec nhưng dừng ở limit (SELECT id ... LIMIT limit), không quét toàn bộ như COUNT(*).
+     */
+    long countUpTo(Specification<Alert> spec, int limit);
+
+    /**
+     * Lấy danh sách alert cho màn hình list: chỉ SELECT các cột trong fields (xem LIST_PROJECTION) thẳng vào
+     * AlertResponse, không nạp entity. limit âm = không giới hạn.
+     */
+    List<AlertResponse> findListItems(Specification<Alert> spec, Sort sort, long offset, int limit, Set<String> fields);
+
+    /**
+     * Như findListItems nhưng đọc tuần tự (fetchSize Integer.MIN_VALUE: MySQL stream từng dòng),
+     * trả về giá trị các cột theo thứ tự fields (không dựng DTO). Phải dùng trong transaction và đóng Stream sau khi đọc xong.
+     */
+    Stream<Object[]> streamListRows(Specification<Alert> spec, Sort sort, Set<String> fields, int fetchSize);
+
+    /**
+     * 1 lần quét cho cả dashboard: GROUP BY (type_id, DAYOFWEEK, MONTH) của happened_at, mỗi nhóm kèm
+     * COUNT(*) và SUM(CASE ...) cho NEW / HIGH+CRITICAL. Tổng các nhóm chính là các thẻ KPI.
+     */
+    List<AlertDashboardBucket> aggregateDashboard(Specification<Alert> spec);
+}
@@ -0,0 +1,122 @@
+package com.safetyconstruction.backend.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class AlertRepositoryImpl implements AlertRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public long countUpTo(Specification<Alert> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Alert> root = query.from(Alert.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"));
+
+        return entityManager
+                .createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .size();
+    }
+
+    @Override
+    public List<AlertResponse> findListItems(
+            Specification<Alert> spec, Sort sort, long offset, int limit, Set<String> fields) {
+        TypedQuery<Tuple> typedQuery = createListQuery(spec, sort, fields).setFirstResult(Math.toIntExact(offset));
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream()
+                .map(row -> LIST_PROJECTION.read(row, fields))
+                .toList();
+    }
+
+    @Override
+    public Stream<Object[]> streamListRows(Specification<Alert> spec, Sort sort, Set<String> fields, int fetchSize) {
+        // Tuple chỉ gồm giá trị cột (không phải entity) nên persistence context không phình theo số dòng
+        return createListQuery(spec, sort, fields)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(Tuple::toArray);
+    }
+
+    @Override
+    public List<AlertDashboardBucket> aggregateDashboard(Specification<Alert> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Alert> root = query.from(Alert.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Expression<Integer> type = root.get("typeId");
+        // Hàm của MySQL: DAYOFWEEK 1=CN..7=T7, MONTH 1-12
+        Expression<Integer> weekday = cb.function("DAYOFWEEK", Integer.class, root.get("happenedAt"));
+        Expression<Integer> month = cb.function("MONTH", Integer.class, root.get("happenedAt"));
+        Expression<Long> unresolved = cb.sum(cb.<Long>selectCase()
+                .when(cb.equal(root.get("alertStatus"), AlertStatus.NEW), 1L)
+                .otherwise(0L));
+        Expression<Long> highSeverity = cb.sum(cb.<Long>selectCase()
+                .when(root.get("severity").in(AlertSeverity.HIGH, AlertSeverity.CRITICAL), 1L)
+                .otherwise(0L));
+        query.groupBy(type, weekday, month);
+        query.multiselect(type, weekday, month, cb.count(root), unresolved, highSeverity);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new AlertDashboardBucket(
+                        row.get(0, Integer.class),
+                        row.get(1, Integer.class),
+                        row.get(2, Integer.class),
+                        row.get(3, Long.class),
+                        row.get(4, Number.class).longValue(),
+                        row.get(5, Number.class).longValue()))
+                .toList();
+    }
+
+    private TypedQuery<Tuple> createListQuery(Specification<Alert> spec, Sort sort, Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Alert> root = query.from(Alert.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        LIST_PROJECTION.select(query, root, fields);
+        return entityManager.createQuery(query);
+    }
+}
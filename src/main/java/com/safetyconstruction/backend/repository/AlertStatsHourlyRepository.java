@@ -0,0 +1,82 @@
+package com.safetyconstruction.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.safetyconstruction.backend.entity.AlertStatsHourly;
+import com.safetyconstruction.backend.entity.AlertStatsHourlyId;
+
+public interface AlertStatsHourlyRepository
+        extends JpaRepository<AlertStatsHourly, AlertStatsHourlyId>, AlertStatsHourlyRepositoryCustom {
+
+    // Nhóm alert [from, to) theo đúng khóa của alert_stats_hourly (camera 0 / type -1 khi NULL)
+    String HOURLY_ALERT_COUNTS = "SELECT a.project_id, COALESCE(a.camera_id, 0), COALESCE(a.type_id, -1), "
+            + "a.severity, a.alert_status, TIMESTAMP(DATE(a.happened_at), MAKETIME(HOUR(a.happened_at), 0, 0)), "
+            + "COUNT(*) FROM alerts a WHERE a.happened_at >= :from AND a.happened_at < :to "
+            + "GROUP BY a.project_id, COALESCE(a.camera_id, 0), COALESCE(a.type_id, -1), a.severity, a.alert_status, "
+            + "TIMESTAMP(DATE(a.happened_at), MAKETIME(HOUR(a.happened_at), 0, 0))";
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO alert_stats_hourly "
+                    + "(project_id, camera_id, type_id, severity, alert_status, hour_start, alert_count) "
+                    + "VALUES (:projectId, :cameraId, :typeId, :severity, :alertStatus, :hourStart, GREATEST(:delta, 0)) "
+                    + "ON DUPLICATE KEY UPDATE alert_count = GREATEST(alert_count + :delta, 0)",
+            nativeQuery = true)
+    int increment(
+            @Param("projectId") Long projectId,
+            @Param("cameraId") Long cameraId,
+            @Param("typeId") Integer typeId,
+            @Param("severity") String severity,
+            @Param("alertStatus") String alertStatus,
+            @Param("hourStart") Instant hourStart,
+            @Param("delta") long delta);
+
+    // [projectId, cameraId, typeId, severity, alertStatus, hourStart, count] tính thẳng từ bảng alerts
+    @Query(value = HOURLY_ALERT_COUNTS, nativeQuery = true)
+    List<Object[]> countAlertsHourly(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Rebuild 1 khoảng giờ: gọi sau deleteHours trong cùng transaction
+    @Modifying
+    @Query(
+            value = "INSERT INTO alert_stats_hourly "
+                    + "(project_id, camera_id, type_id, severity, alert_status, hour_start, alert_count) "
+                    + HOURLY_ALERT_COUNTS,
+            nativeQuery = true)
+    int insertFromAlerts(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Modifying
+    @Query(value = "DELETE FROM alert_stats_hourly WHERE hour_start >= :from AND hour_start < :to", nativeQuery = true)
+    int deleteHours(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Modifying
+    @Query(value = "DELETE FROM alert_stats_hourly WHERE hour_start < :before", nativeQuery = true)
+    int deleteHoursBefore(@Param("before") Instant before);
+
+    @Query("SELECT s FROM AlertStatsHourly s WHERE s.id.hourStart >= :from AND s.id.hourStart < :to")
+    List<AlertStatsHourly> findHours(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("SELECT MIN(s.id.hourStart) FROM AlertStatsHourly s")
+    Instant findFirstHour();
+
+    // [projectId, typeId, severity, alertStatus, hourStart, count] từ hourStart trở đi: nạp AlertKpiCube.
+    // Stream từng dòng (fetch size Integer.MIN_VALUE của MySQL), phải dùng trong transaction và đóng Stream sau khi
+    // đọc xong; trong lúc đó kết nối không chạy được câu lệnh khác.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id.projectId, s.id.typeId, s.id.severity, s.id.alertStatus, s.id.hourStart, s.alertCount "
+            + "FROM AlertStatsHourly s WHERE s.id.hourStart >= :from AND s.alertCount > 0")
+    Stream<Object[]> streamCountsFrom(@Param("from") Instant from);
+}
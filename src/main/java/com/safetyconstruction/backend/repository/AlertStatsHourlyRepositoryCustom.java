@@ -0,0 +1,35 @@
+package com.safetyconstruction.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.StatisticGroup;
+
+public interface AlertStatsHourlyRepositoryCustom {
+
+    /**
+     * Bộ lọc trên alert_stats_hourly; null = không lọc. fromHour (gồm) / toHour (không gồm) là đầu giờ.
+     */
+    record Filter(
+            Long projectId,
+            Long cameraId,
+            Integer typeId,
+            AlertSeverity severity,
+            AlertStatus alertStatus,
+            Instant fromHour,
+            Instant toHour) {}
+
+    /**
+     * SUM(alert_count) theo nhóm, cùng dạng với thống kê trên bảng alerts (type_id NULL -> group null).
+     */
+    List<StatisticResponse> countGrouped(Filter filter, StatisticGroup group);
+
+    /**
+     * Như AlertRepositoryCustom.aggregateDashboard nhưng cộng trên các dòng theo giờ thay vì từng alert.
+     */
+    List<AlertDashboardBucket> aggregateDashboard(Filter filter);
+}
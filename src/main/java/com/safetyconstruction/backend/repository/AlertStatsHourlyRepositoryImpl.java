@@ -0,0 +1,118 @@
+package com.safetyconstruction.backend.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.entity.AlertStatsHourly;
+import com.safetyconstruction.backend.entity.AlertStatsHourlyId;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.StatisticGroup;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class AlertStatsHourlyRepositoryImpl implements AlertStatsHourlyRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<StatisticResponse> countGrouped(Filter filter, StatisticGroup group) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<AlertStatsHourly> root = query.from(AlertStatsHourly.class);
+        Path<AlertStatsHourlyId> id = root.get("id");
+        query.where(toPredicate(filter, id, cb));
+
+        Expression<?> groupField =
+                switch (group) {
+                    case TYPE -> id.get("typeId");
+                    case WEEKDAY -> cb.function("DAYOFWEEK", Integer.class, id.get("hourStart"));
+                    case PROJECT -> id.get("projectId");
+                };
+        query.groupBy(groupField);
+        query.multiselect(groupField, cb.sum(root.<Long>get("alertCount")));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new StatisticResponse(
+                        group == StatisticGroup.TYPE ? typeIdOf(row.get(0, Integer.class)) : row.get(0),
+                        row.get(1, Number.class).longValue()))
+                .toList();
+    }
+
+    @Override
+    public List<AlertDashboardBucket> aggregateDashboard(Filter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<AlertStatsHourly> root = query.from(AlertStatsHourly.class);
+        Path<AlertStatsHourlyId> id = root.get("id");
+        query.where(toPredicate(filter, id, cb));
+
+        Expression<Long> count = root.get("alertCount");
+        Expression<Integer> type = id.get("typeId");
+        // Cả giờ nằm trong cùng 1 ngày / tháng nên DAYOFWEEK, MONTH của hour_start = của từng alert
+        Expression<Integer> weekday = cb.function("DAYOFWEEK", Integer.class, id.get("hourStart"));
+        Expression<Integer> month = cb.function("MONTH", Integer.class, id.get("hourStart"));
+        Expression<Long> unresolved = cb.sum(cb.<Long>selectCase()
+                .when(cb.equal(id.get("alertStatus"), AlertStatus.NEW), count)
+                .otherwise(0L));
+        Expression<Long> highSeverity = cb.sum(cb.<Long>selectCase()
+                .when(id.get("severity").in(AlertSeverity.HIGH, AlertSeverity.CRITICAL), count)
+                .otherwise(0L));
+        query.groupBy(type, weekday, month);
+        query.multiselect(type, weekday, month, cb.sum(count), unresolved, highSeverity);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new AlertDashboardBucket(
+                        typeIdOf(row.get(0, Integer.class)),
+                        row.get(1, Integer.class),
+                        row.get(2, Integer.class),
+                        row.get(3, Number.class).longValue(),
+                        row.get(4, Number.class).longValue(),
+                        row.get(5, Number.class).longValue()))
+                .toList();
+    }
+
+    private static Predicate toPredicate(Filter filter, Path<AlertStatsHourlyId> id, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.projectId() != null) {
+            predicates.add(cb.equal(id.get("projectId"), filter.projectId()));
+        }
+        if (filter.cameraId() != null) {
+            predicates.add(cb.equal(id.get("cameraId"), filter.cameraId()));
+        }
+        if (filter.typeId() != null) {
+            predicates.add(cb.equal(id.get("typeId"), filter.typeId()));
+        }
+        if (filter.severity() != null) {
+            predicates.add(cb.equal(id.get("severity"), filter.severity()));
+        }
+        if (filter.alertStatus() != null) {
+            predicates.add(cb.equal(id.get("alertStatus"), filter.alertStatus()));
+        }
+        if (filter.fromHour() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(id.get("hourStart"), filter.fromHour()));
+        }
+        if (filter.toHour() != null) {
+            predicates.add(cb.lessThan(id.get("hourStart"), filter.toHour()));
+        }
+        return cb.and(predicates.toArray(Predicate[]::new));
+    }
+
+    // Trả lại NULL như bảng alerts cho alert chưa có type_id
+    private static Integer typeIdOf(Integer typeId) {
+        return Objects.equals(typeId, AlertStatsHourlyId.NO_TYPE_ID) ? null : typeId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.safetyconstruction.backend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.safetyconstruction.backend.entity.AlertType;
+
+public interface AlertTypeRepository extends JpaRepository<AlertType, Integer> {
+    Optional<AlertType> findByCode(String code);
+
+    // Thêm type mới trong transaction hiện tại; đã có (kể cả do transaction khác vừa commit) thì giữ nguyên
+    // nhưng vẫn đặt LAST_INSERT_ID() = id của dòng đó -> đọc bằng lastInsertId(), không phụ thuộc snapshot
+    @Modifying
+    @Query(
+            value = "INSERT INTO alert_types (code) VALUES (:code) ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("code") String code);
+
+    // Theo kết nối: phải gọi trong cùng transaction, ngay sau insertIfAbsent
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    int lastInsertId();
+}
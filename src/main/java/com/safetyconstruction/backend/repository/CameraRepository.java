@@ -1,11 +1,21 @@
 package com.safetyconstruction.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import com.safetyconstruction.backend.dto.projection.CameraReference;
 import com.safetyconstruction.backend.entity.Camera;
 
-public interface CameraRepository extends JpaRepository<Camera, Long>, JpaSpecificationExecutor<Camera> {
+public interface CameraRepository
+        extends JpaRepository<Camera, Long>, JpaSpecificationExecutor<Camera>, CameraRepositoryCustom {
     // Page<Camera> findByNameContainingIgnoreCaseAndLocationContainingIgnoreCase(String name, String location, Pageable
     // pageable);
+
+    @Query("SELECT new com.safetyconstruction.backend.dto.projection.CameraReference(c.id, c.project.id, c.name) "
+            + "FROM Camera c WHERE c.id IN :ids")
+    List<CameraReference> findReferencesByIdIn(Collection<Long> ids);
 }
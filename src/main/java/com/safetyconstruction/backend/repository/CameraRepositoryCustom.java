@@ -0,0 +1,33 @@
+package com.safetyconstruction.backend.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.safetyconstruction.backend.dto.response.CameraListItemResponse;
+import com.safetyconstruction.backend.dto.response.CameraResponse;
+import com.safetyconstruction.backend.entity.Camera;
+import com.safetyconstruction.backend.util.TupleProjection;
+
+public interface CameraRepositoryCustom {
+
+    // Các trường client được chọn qua ?fields=
+    TupleProjection<Camera, CameraResponse> LIST_PROJECTION = new TupleProjection<Camera, CameraResponse>(
+                    CameraListItemResponse::new)
+            .column("id", Long.class, root -> root.get("id"), CameraResponse::setId)
+            .column("name", String.class, root -> root.get("name"), CameraResponse::setName)
+            .column("ipAddress", String.class, root -> root.get("ipAddress"), CameraResponse::setIpAddress)
+            .column("rtspUrl", String.class, root -> root.get("rtspUrl"), CameraResponse::setRtspUrl)
+            .column("location", String.class, root -> root.get("location"), CameraResponse::setLocation)
+            .column("description", String.class, root -> root.get("description"), CameraResponse::setDescription)
+            .column("model", String.class, root -> root.get("model"), CameraResponse::setModel)
+            .column("projectId", Long.class, root -> root.get("project").get("id"), CameraResponse::setProjectId);
+
+    /**
+     * Danh sách camera chỉ với các cột trong fields (xem LIST_PROJECTION), không nạp entity. limit âm = không giới hạn.
+     */
+    List<CameraResponse> findListItems(
+            Specification<Camera> spec, Sort sort, long offset, int limit, Set<String> fields);
+}
@@ -0,0 +1,51 @@
+package com.safetyconstruction.backend.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.safetyconstruction.backend.dto.response.CameraResponse;
+import com.safetyconstruction.backend.entity.Camera;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class CameraRepositoryImpl implements CameraRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<CameraResponse> findListItems(
+            Specification<Camera> spec, Sort sort, long offset, int limit, Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Camera> root = query.from(Camera.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        LIST_PROJECTION.select(query, root, fields);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query).setFirstResult(Math.toIntExact(offset));
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream()
+                .map(row -> LIST_PROJECTION.read(row, fields))
+                .toList();
+    }
+}
@@ -1,10 +1,14 @@
 package com.safetyconstruction.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import com.safetyconstruction.backend.dto.projection.ProjectReference;
 import com.safetyconstruction.backend.entity.Project;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -16,4 +20,8 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     //    Page<Project> findByManagerName(String managerName, Pageable pageable);
 
     boolean existsByIdAndManagerName(Long projectId, String username);
+
+    @Query("SELECT new com.safetyconstruction.backend.dto.projection.ProjectReference(p.id, p.name, m.id) "
+            + "FROM Project p LEFT JOIN p.manager m WHERE p.id IN :ids")
+    List<ProjectReference> findReferencesByIdIn(Collection<Long> ids);
 }
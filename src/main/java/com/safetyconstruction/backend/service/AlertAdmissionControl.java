@@ -0,0 +1,109 @@
+package com.safetyconstruction.backend.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.safetyconstruction.backend.configuration.AlertAdmissionProperties;
+import com.safetyconstruction.backend.dto.projection.CameraReference;
+import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.util.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Chặn alert trước khi chạm DB:
+ * - camera không tồn tại / thuộc project khác -> từ chối (qua AlertReferenceCache, không tạo bucket);
+ * - confidence dưới ngưỡng (theo camera / type / mặc định) -> bỏ, hoặc giữ lại 1 phần theo sample rate;
+ * - vượt token bucket của camera -> từ chối.
+ */
+@Component
+public class AlertAdmissionControl {
+
+    private final AlertAdmissionProperties properties;
+    private final AlertReferenceCache referenceCache;
+    private final MeterRegistry meterRegistry;
+    private final TokenBucketRateLimiter<Long> rateLimiter = new TokenBucketRateLimiter<>();
+    private final Map<String, Float> typeMinConfidence = new HashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public AlertAdmissionControl(
+            AlertAdmissionProperties properties, AlertReferenceCache referenceCache, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.referenceCache = referenceCache;
+        this.meterRegistry = meterRegistry;
+        properties
+                .getTypeMinConfidence()
+                .forEach((type, threshold) -> typeMinConfidence.put(normalize(type), threshold));
+    }
+
+    /**
+     * @return null nếu alert được nhận, ngược lại là lý do từ chối
+     */
+    public ErrorCode check(AlertCreationRequest request) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Long cameraId = request.getCameraId();
+        // Chỉ camera có thật (của đúng project) mới được tạo bucket / tag metric
+        if (cameraId != null && !isKnownCamera(cameraId, request.getProjectId())) {
+            return ErrorCode.CAMERA_NOT_FOUND;
+        }
+
+        // Lọc confidence trước để alert rác không tiêu tốn token của camera
+        if (request.getConfidence() != null
+                && request.getConfidence() < minConfidenceFor(cameraId, request.getType())
+                && ThreadLocalRandom.current().nextDouble() >= properties.getBelowThresholdSampleRate()) {
+            count("alert.admission.dropped", cameraId);
+            return ErrorCode.ALERT_BELOW_CONFIDENCE;
+        }
+
+        if (cameraId != null
+                && !rateLimiter.tryAcquire(
+                        cameraId,
+                        properties.getCameraRates().getOrDefault(cameraId, properties.getRatePerSecond()),
+                        properties.getBurst())) {
+            count("alert.admission.throttled", cameraId);
+            return ErrorCode.ALERT_RATE_LIMITED;
+        }
+        return null;
+    }
+
+    private boolean isKnownCamera(Long cameraId, Long projectId) {
+        CameraReference camera = referenceCache.getCameras(Set.of(cameraId)).get(cameraId);
+        return camera != null && camera.projectId().equals(projectId);
+    }
+
+    float minConfidenceFor(Long cameraId, String type) {
+        Float threshold = cameraId != null ? properties.getCameraMinConfidence().get(cameraId) : null;
+        if (threshold == null) {
+            threshold = typeMinConfidence.get(normalize(type));
+        }
+        return threshold != null ? threshold : properties.getMinConfidence();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void evictIdleBuckets() {
+        rateLimiter.evictIdle();
+    }
+
+    private void count(String name, Long cameraId) {
+        String camera = cameraId != null ? cameraId.toString() : "none";
+        counters.computeIfAbsent(
+                        name + ":" + camera,
+                        key -> Counter.builder(name).tag("camera", camera).register(meterRegistry))
+                .increment();
+    }
+
+    private static String normalize(String type) {
+        return type == null ? "" : type.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,310 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.safetyconstruction.backend.configuration.AlertAnalyticsCacheProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.TypeMatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache Redis (Spring Cache) cho kết quả dashboard / thống kê, khóa theo bộ lọc đã chuẩn hóa + "thế hệ" của project.
+ * - Invalidate: alert được tạo / review / xóa -> tăng thế hệ của project đó (và của "all" cho bộ lọc không có
+ *   projectId) trong Redis, gộp mỗi invalidation-interval. Khóa cũ không còn được đọc và tự hết hạn theo ttl.
+ * - Single-flight: trong 1 node, các request cùng khóa lúc miss chờ chung 1 lần tính; giữa các node, node tính giữ
+ *   khóa SET NX ngắn, node khác chờ kết quả trong cache tối đa load-lock-wait rồi mới tự tính.
+ * - Refresh-ahead: khóa còn được đọc sau refreshAfter được tính lại nền (1 node); khóa không ai đọc thì hết hạn.
+ * Redis lỗi / chậm -> tính trực tiếp như khi không có cache, không gọi Redis lại trong redis-retry-after.
+ */
+@Component
+@Slf4j
+public class AlertAnalyticsCache {
+
+    public static final String DASHBOARD_CACHE = "alert-dashboard";
+    public static final String STATISTICS_CACHE = "alert-statistics";
+    static final String GENERATION_KEY = "alert-analytics:generation:";
+    static final String LOAD_LOCK_KEY = "alert-analytics:loading:";
+    private static final long LOAD_POLL_MILLIS = 50;
+    static final String ALL_PROJECTS = "all";
+
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final AlertAnalyticsCacheProperties properties;
+    // Khóa đang được tính trong node này
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    // Project có alert thay đổi từ lần tăng thế hệ trước
+    private final Set<Long> dirtyProjects = ConcurrentHashMap.newKeySet();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter refreshes;
+
+    private volatile long redisRetryAt;
+
+    /**
+     * Giá trị lưu trong Redis: kèm thời điểm tính để quyết định refresh-ahead.
+     */
+    public record Entry<T>(T value, long loadedAtMillis) {}
+
+    public AlertAnalyticsCache(
+            CacheManager cacheManager,
+            RedisTemplate<String, String> redisTemplate,
+            AlertAnalyticsCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.refreshes = counter(meterRegistry, "refresh");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("alert.analytics-cache.requests")
+                .description("Số lần đọc cache dashboard / thống kê theo kết quả")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public <T> T get(String cacheName, String variant, AlertSearchRequest request, Supplier<T> loader) {
+        return get(cacheName, variant, request, loader, value -> true);
+    }
+
+    /**
+     * Kết quả trong cache nếu còn hợp lệ, ngược lại gọi loader (1 lần cho mỗi khóa trong node).
+     * loader chạy với SecurityContext của người gọi; kết quả không thỏa cacheable (vd dashboard thiếu phần) thì
+     * vẫn được trả về nhưng không được lưu.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(
+            String cacheName,
+            String variant,
+            AlertSearchRequest request,
+            Supplier<T> loader,
+            Predicate<? super T> cacheable) {
+        Cache cache = properties.isEnabled() && redisAvailable() ? cacheManager.getCache(cacheName) : null;
+        if (cache == null) {
+            return loader.get();
+        }
+        String key;
+        Entry<T> entry;
+        try {
+            key = keyOf(variant, request) + "@" + generation(request.getProjectId());
+            entry = read(cache, key);
+        } catch (RuntimeException ex) {
+            backOffRedis();
+            log.warn("Analytics cache unavailable, computing directly: {}", ex.getMessage());
+            return loader.get();
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return load(cache, key, loader, cacheable, false);
+        }
+        hits.increment();
+        if (System.currentTimeMillis() - entry.loadedAtMillis()
+                >= properties.getRefreshAfter().toMillis()) {
+            refreshAhead(cache, key, loader, cacheable);
+        }
+        return entry.value();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T> read(Cache cache, String key) {
+        Cache.ValueWrapper cached = cache.get(key);
+        return cached != null ? (Entry<T>) cached.get() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(Cache cache, String key, Supplier<T> loader, Predicate<? super T> cacheable, boolean refresh) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return (T) running.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw ex;
+            }
+        }
+
+        try {
+            T value = loadOnce(cache, key, loader, cacheable, refresh);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    // Giữa các node: chỉ node lấy được khóa tính; refresh thấy khóa đã bị giữ thì dùng lại kết quả đang có
+    private <T> T loadOnce(
+            Cache cache, String key, Supplier<T> loader, Predicate<? super T> cacheable, boolean refresh) {
+        String lockKey = LOAD_LOCK_KEY + cache.getName() + ":" + key;
+        boolean locked = false;
+        if (redisAvailable()) {
+            try {
+                locked = Boolean.TRUE.equals(
+                        redisTemplate.opsForValue().setIfAbsent(lockKey, "1", properties.getLoadLockTimeout()));
+                if (!locked) {
+                    Entry<T> entry = refresh ? read(cache, key) : awaitOtherNode(cache, key);
+                    if (entry != null) {
+                        return entry.value();
+                    }
+                }
+            } catch (RuntimeException ex) {
+                backOffRedis();
+                log.warn("Analytics cache load lock unavailable, computing directly: {}", ex.getMessage());
+            }
+        }
+
+        try {
+            T value = loader.get();
+            if (cacheable.test(value)) {
+                try {
+                    cache.put(key, new Entry<>(value, System.currentTimeMillis()));
+                } catch (RuntimeException ex) {
+                    log.debug("Could not store analytics cache entry {}: {}", key, ex.getMessage());
+                }
+            }
+            return value;
+        } finally {
+            if (locked) {
+                try {
+                    // Tính lâu hơn loadLockTimeout thì có thể xóa nhầm khóa của node khác: chỉ dẫn tới 1 lần tính thừa
+                    redisTemplate.delete(lockKey);
+                } catch (RuntimeException ex) {
+                    log.debug("Could not release analytics cache load lock {}: {}", lockKey, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    // Node khác đang tính khóa này: chờ kết quả xuất hiện trong cache; hết loadLockWait thì trả null (tự tính)
+    private <T> Entry<T> awaitOtherNode(Cache cache, String key) {
+        long deadline =
+                System.currentTimeMillis() + properties.getLoadLockWait().toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOAD_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Entry<T> entry = read(cache, key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisRetryAt;
+    }
+
+    private void backOffRedis() {
+        redisRetryAt =
+                System.currentTimeMillis() + properties.getRedisRetryAfter().toMillis();
+    }
+
+    private <T> void refreshAhead(Cache cache, String key, Supplier<T> loader, Predicate<? super T> cacheable) {
+        if (loading.containsKey(key)) {
+            return;
+        }
+        refreshes.increment();
+        Thread.ofVirtual().name("analytics-cache-refresh").start(new DelegatingSecurityContextRunnable(() -> {
+            try {
+                load(cache, key, loader, cacheable, true);
+            } catch (RuntimeException ex) {
+                log.warn("Could not refresh analytics cache entry {}: {}", key, ex.getMessage());
+            }
+        }));
+    }
+
+    private String generation(Long projectId) {
+        String generation =
+                redisTemplate.opsForValue().get(GENERATION_KEY + (projectId != null ? projectId : ALL_PROJECTS));
+        return generation != null ? generation : "0";
+    }
+
+    // Cùng bộ lọc (khác hoa / thường, khoảng trắng, mặc định) -> cùng khóa
+    static String keyOf(String variant, AlertSearchRequest request) {
+        StringJoiner key = new StringJoiner("|");
+        key.add(variant);
+        key.add("p=" + request.getProjectId());
+        key.add("c=" + request.getCameraId());
+        key.add("t=" + (StringUtils.hasText(request.getType()) ? AlertTypeInterner.normalize(request.getType()) : ""));
+        key.add("m=" + (request.getTypeMatch() == TypeMatch.CONTAINS ? TypeMatch.CONTAINS : TypeMatch.EXACT));
+        key.add("s=" + AlertTypeInterner.normalize(request.getSeverity()));
+        key.add("st=" + AlertTypeInterner.normalize(request.getAlertStatus()));
+        key.add("cf=" + request.getMinConfidence() + ".." + request.getMaxConfidence());
+        key.add("h=" + epochMillis(request.getHappenedAfter()) + ".." + epochMillis(request.getHappenedBefore()));
+        return key.toString();
+    }
+
+    private static String epochMillis(Instant instant) {
+        return instant != null ? String.valueOf(instant.toEpochMilli()) : "";
+    }
+
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (properties.isEnabled() && event.projectId() != null) {
+            dirtyProjects.add(event.projectId());
+        }
+    }
+
+    /**
+     * Tăng thế hệ của các project vừa có alert thay đổi. Mọi node đều nhận event nên đều tăng; tăng thừa chỉ làm
+     * mất vài khóa còn hợp lệ.
+     */
+    @Scheduled(fixedDelayString = "${alert.analytics-cache.invalidation-interval:PT1S}")
+    void flushInvalidations() {
+        if (dirtyProjects.isEmpty()) {
+            return;
+        }
+        List<Long> projects = new ArrayList<>();
+        for (Iterator<Long> it = dirtyProjects.iterator(); it.hasNext(); ) {
+            projects.add(it.next());
+            it.remove();
+        }
+        try {
+            for (Long projectId : projects) {
+                redisTemplate.opsForValue().increment(GENERATION_KEY + projectId);
+            }
+            redisTemplate.opsForValue().increment(GENERATION_KEY + ALL_PROJECTS);
+        } catch (RuntimeException ex) {
+            // Thử lại ở lần sau; trong redis-retry-after không đọc cache (có thể đã cũ), tính trực tiếp
+            dirtyProjects.addAll(projects);
+            backOffRedis();
+            log.warn("Could not invalidate analytics cache for {} projects: {}", projects.size(), ex.getMessage());
+        }
+    }
+}
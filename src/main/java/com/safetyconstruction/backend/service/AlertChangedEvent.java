@@ -0,0 +1,45 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Instant;
+
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+/**
+ * Alert vừa được tạo / review / xóa (đã commit). Chỉ mang các cột dùng để lọc, không có metadata.
+ * Phát trong node qua ApplicationEventPublisher và sang node khác qua Redis (xem AlertEventPublisher).
+ * previousStatus: trạng thái trước thay đổi (UPDATED) hoặc lúc bị xóa (DELETED); null với CREATED hoặc khi không rõ.
+ */
+public record AlertChangedEvent(
+        Kind kind,
+        long alertId,
+        Long projectId,
+        Long cameraId,
+        Integer typeId,
+        AlertSeverity severity,
+        AlertStatus alertStatus,
+        Float confidence,
+        Instant happenedAt,
+        AlertStatus previousStatus) {
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static AlertChangedEvent of(Kind kind, Alert alert, AlertStatus previousStatus) {
+        return new AlertChangedEvent(
+                kind,
+                alert.getId(),
+                alert.getProject().getId(),
+                alert.getCamera() != null ? alert.getCamera().getId() : null,
+                alert.getTypeId(),
+                alert.getSeverity(),
+                alert.getAlertStatus(),
+                alert.getConfidence(),
+                alert.getHappenedAt(),
+                previousStatus);
+    }
+}
@@ -0,0 +1,221 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.mapper.AlertMapper;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency cho ingest theo eventId do thiết bị gửi lên.
+ * Tra cứu theo thứ tự: cache cục bộ -> Redis (dùng chung giữa các node) -> DB (unique index project_id + event_id).
+ */
+@Component
+@Slf4j
+public class AlertEventDeduplicator {
+
+    private final AlertRepository alertRepository;
+    private final AlertMapper alertMapper;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration redisRetryAfter;
+    private final Cache<EventKey, AlertResponse> local;
+    // alertId -> key trong local: event review / xóa bỏ đúng 1 mục thay vì duyệt cả cache
+    private final Map<Long, EventKey> keysByAlertId = new ConcurrentHashMap<>();
+
+    private volatile long redisRetryAt;
+
+    public AlertEventDeduplicator(
+            AlertRepository alertRepository,
+            AlertMapper alertMapper,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${alert.dedup.ttl:PT24H}") Duration ttl,
+            @Value("${alert.dedup.local-maximum-size:100000}") long localMaximumSize,
+            @Value("${alert.dedup.redis-retry-after:PT30S}") Duration redisRetryAfter) {
+        this.alertRepository = alertRepository;
+        this.alertMapper = alertMapper;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.redisRetryAfter = redisRetryAfter;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(ttl)
+                // Chạy ngay trên luồng gây ra việc xóa: keysByAlertId không giữ key đã rời cache
+                .executor(Runnable::run)
+                .removalListener((EventKey key, AlertResponse alert, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED && key != null && alert != null && alert.getId() != null) {
+                        keysByAlertId.remove(alert.getId(), key);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return alert đã được tạo trước đó cho từng key (key chưa từng thấy sẽ không có trong kết quả)
+     */
+    public Map<EventKey, AlertResponse> findExisting(Collection<EventKey> keys) {
+        Map<EventKey, AlertResponse> found = new HashMap<>(local.getAllPresent(keys));
+        List<EventKey> missing =
+                keys.stream().filter(key -> !found.containsKey(key)).toList();
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<EventKey> notInRedis = new ArrayList<>(missing);
+        if (System.currentTimeMillis() >= redisRetryAt) {
+            try {
+                List<String> values = redisTemplate
+                        .opsForValue()
+                        .multiGet(missing.stream().map(EventKey::redisKey).toList());
+                for (int i = 0; values != null && i < missing.size(); i++) {
+                    AlertResponse alert = fromJson(values.get(i));
+                    if (alert != null) {
+                        found.put(missing.get(i), alert);
+                        cacheLocally(missing.get(i), alert);
+                        notInRedis.remove(missing.get(i));
+                    }
+                }
+            } catch (DataAccessException ex) {
+                redisRetryAt = System.currentTimeMillis() + redisRetryAfter.toMillis();
+                log.warn("Redis dedup set unavailable, falling back to DB lookup: {}", ex.getMessage());
+            }
+        }
+
+        // Cache đã hết hạn (hoặc Redis lỗi): unique index trong DB là nguồn sự thật
+        if (!notInRedis.isEmpty()) {
+            Set<Long> projectIds = new HashSet<>();
+            Set<String> eventIds = new HashSet<>();
+            notInRedis.forEach(key -> {
+                projectIds.add(key.projectId());
+                eventIds.add(key.eventId());
+            });
+            Set<EventKey> wanted = new HashSet<>(notInRedis);
+            for (Alert alert : alertRepository.findAllByProjectIdInAndEventIdIn(projectIds, eventIds)) {
+                EventKey key = new EventKey(alert.getProject().getId(), alert.getEventId());
+                if (wanted.contains(key)) {
+                    AlertResponse response = alertMapper.toAlert(alert);
+                    found.put(key, response);
+                    remember(key, response);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Ghi nhớ alert vừa tạo / vừa review; chỉ có hiệu lực sau khi transaction commit.
+     */
+    public void rememberAfterCommit(Map<EventKey, AlertResponse> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> created.forEach(this::remember));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Alert bị xóa: eventId được phép tạo lại alert mới (DB không còn bản gốc).
+     */
+    public void forgetAfterCommit(EventKey key) {
+        afterCommit(() -> {
+            local.invalidate(key);
+            try {
+                redisTemplate.delete(key.redisKey());
+            } catch (DataAccessException ex) {
+                // Bản cũ trong Redis hết hạn theo ttl
+                log.warn("Could not remove alert event {} from Redis: {}", key.redisKey(), ex.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Alert đã review / xóa (ở node này hoặc node khác): bỏ bản cục bộ cũ, lần tra sau đọc lại từ Redis / DB.
+     * Node thực hiện review ghi bản mới qua rememberAfterCommit sau event này.
+     */
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (event.kind() != AlertChangedEvent.Kind.CREATED) {
+            EventKey key = keysByAlertId.get(event.alertId());
+            if (key != null) {
+                local.invalidate(key);
+            }
+        }
+    }
+
+    private void remember(EventKey key, AlertResponse alert) {
+        cacheLocally(key, alert);
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key.redisKey(), objectMapper.writeValueAsString(alert), ttl);
+        } catch (DataAccessException ex) {
+            redisRetryAt = System.currentTimeMillis() + redisRetryAfter.toMillis();
+            log.warn("Could not store alert event {} in Redis: {}", key.redisKey(), ex.getMessage());
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialize alert {} for dedup set", alert.getId(), ex);
+        }
+    }
+
+    private void cacheLocally(EventKey key, AlertResponse alert) {
+        AlertResponse previous = local.asMap().put(key, alert);
+        // eventId được dùng lại sau khi alert cũ bị xóa: bỏ liên kết của alert cũ
+        if (previous != null && previous.getId() != null && !previous.getId().equals(alert.getId())) {
+            keysByAlertId.remove(previous.getId(), key);
+        }
+        if (alert.getId() != null) {
+            keysByAlertId.put(alert.getId(), key);
+        }
+    }
+
+    private AlertResponse fromJson(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, AlertResponse.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring unreadable alert event entry in Redis: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    public record EventKey(Long projectId, String eventId) {
+        String redisKey() {
+            return "alert_event:proj_" + projectId + ":" + eventId;
+        }
+    }
+}
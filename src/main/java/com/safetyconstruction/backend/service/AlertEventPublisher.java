@@ -0,0 +1,133 @@
+package com.safetyconstruction.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Phát AlertChangedEvent sau khi transaction commit: cho listener trong node (ApplicationEvent)
+ * và cho các node khác qua Redis pub/sub. Message từ node khác được phát lại như event cục bộ.
+ * Redis lỗi thì ngừng relay trong redisRetryAfter để các lần ghi alert sau không phải chờ timeout.
+ */
+@Component
+@Slf4j
+public class AlertEventPublisher implements MessageListener {
+
+    public static final String CHANNEL = "alert-events";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final Duration redisRetryAfter;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile long redisRetryAt;
+
+    public AlertEventPublisher(
+            ApplicationEventPublisher eventPublisher,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+            @Value("${alert.events.redis-retry-after:PT30S}") Duration redisRetryAfter) {
+        this.eventPublisher = eventPublisher;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        this.redisRetryAfter = redisRetryAfter;
+    }
+
+    /**
+     * Gọi trong transaction ghi alert; event chỉ được phát nếu transaction commit.
+     */
+    public void publishAfterCommit(AlertChangedEvent.Kind kind, Collection<Alert> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        publishAfterCommit(alerts.stream()
+                .map(alert -> AlertChangedEvent.of(
+                        kind, alert, kind == AlertChangedEvent.Kind.DELETED ? alert.getAlertStatus() : null))
+                .toList());
+    }
+
+    /**
+     * Như trên cho 1 alert đã đổi trạng thái (review): listener cần trạng thái cũ để chuyển số đếm.
+     */
+    public void publishAfterCommit(AlertChangedEvent.Kind kind, Alert alert, AlertStatus previousStatus) {
+        publishAfterCommit(List.of(AlertChangedEvent.of(kind, alert, previousStatus)));
+    }
+
+    private void publishAfterCommit(List<AlertChangedEvent> events) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(events);
+                }
+            });
+        } else {
+            publish(events);
+        }
+    }
+
+    /**
+     * true nếu node đang nhận được event của các node khác (đã subscribe kênh Redis).
+     */
+    public boolean isReceivingRemoteEvents() {
+        RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+        return container != null && container.isRunning();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            if (nodeId.equals(envelope.origin())) {
+                return;
+            }
+            envelope.events().forEach(eventPublisher::publishEvent);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed alert event message: {}", e.getMessage());
+        }
+    }
+
+    private void publish(List<AlertChangedEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+        // Node khác bỏ lỡ các event không relay được: RecentAlertIndex / AlertKpiCube / AlertTextIndex tự sửa ở lần
+        // nạp lại định kỳ
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new Envelope(nodeId, events)));
+        } catch (DataAccessException ex) {
+            redisRetryAt = System.currentTimeMillis() + redisRetryAfter.toMillis();
+            log.warn("Could not relay {} alert events, pausing relay: {}", events.size(), ex.getMessage());
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not relay {} alert events: {}", events.size(), ex.getMessage());
+        }
+    }
+
+    record Envelope(String origin, List<AlertChangedEvent> events) {}
+}
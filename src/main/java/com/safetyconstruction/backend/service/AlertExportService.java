@@ -0,0 +1,154 @@
+package com.safetyconstruction.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.safetyconstruction.backend.configuration.AlertExportProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.repository.AlertRepository;
+import com.safetyconstruction.backend.specification.AlertSpecification;
+import com.safetyconstruction.backend.util.TableWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Xuất alert ra CSV / XLSX theo cùng bộ lọc với searchAlerts.
+ * Các dòng được đọc tuần tự từ cursor của DB và ghi thẳng vào response, nên bộ nhớ không tăng theo số dòng
+ * và client nhận được byte đầu tiên ngay khi DB trả về những dòng đầu.
+ */
+@Service
+@Slf4j
+public class AlertExportService {
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "happenedAt", "id");
+    private static final String TIMEOUT_INTERCEPTOR = AlertExportService.class.getName() + ".timeout";
+
+    private final AlertRepository alertRepository;
+    private final AlertTypeInterner alertTypeInterner;
+    private final AlertExportProperties properties;
+    private final TransactionTemplate readOnly;
+
+    public AlertExportService(
+            AlertRepository alertRepository,
+            AlertTypeInterner alertTypeInterner,
+            AlertExportProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.alertRepository = alertRepository;
+        this.alertTypeInterner = alertTypeInterner;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Ghi bảng ra OutputStream; progress được cộng sau mỗi dòng dữ liệu (để báo tiến độ export job).
+     */
+    @FunctionalInterface
+    public interface TableExport {
+        void writeTo(OutputStream out, LongAdder progress) throws IOException;
+    }
+
+    /**
+     * 📤 EXPORT ALERTS
+     * - Quyền, fields và sort được kiểm tra ngay (lỗi trả về JSON như bình thường);
+     *   truy vấn chỉ chạy khi body được ghi ra response, với timeout async riêng (request-timeout).
+     */
+    @PreAuthorize("hasAnyAuthority('ALERT_READ', 'ALERT_MANAGE_ALL')")
+    public StreamingResponseBody exportAlerts(
+            AlertSearchRequest searchRequest, Sort sort, ExportFormat format, String fields) {
+        TableExport export = prepare(searchRequest, sort, format, fields);
+        extendAsyncTimeout();
+        return out -> export.writeTo(out, new LongAdder());
+    }
+
+    /**
+     * Như exportAlerts nhưng trả về TableExport để chạy sau (export job), quyền vẫn được kiểm tra lúc gọi.
+     */
+    @PreAuthorize("hasAnyAuthority('ALERT_READ', 'ALERT_MANAGE_ALL')")
+    public TableExport prepareAlertExport(
+            AlertSearchRequest searchRequest, Sort sort, ExportFormat format, String fields) {
+        return prepare(searchRequest, sort, format, fields);
+    }
+
+    private TableExport prepare(AlertSearchRequest searchRequest, Sort sort, ExportFormat format, String fields) {
+        Specification<Alert> spec =
+                AlertSpecification.matching(searchRequest, alertTypeInterner.filterId(searchRequest));
+        Set<String> selected = AlertService.parseListFields(fields, "id");
+        Sort order = sort != null && sort.isSorted() ? sort : DEFAULT_SORT;
+        // Sort sai chỉ lộ ra khi body đã bắt đầu ghi (200 bị cắt cụt) -> kiểm tra trước
+        for (Sort.Order sortOrder : order) {
+            try {
+                PropertyPath.from(sortOrder.getProperty(), Alert.class);
+            } catch (PropertyReferenceException e) {
+                throw new AppException(ErrorCode.INVALID_SORT);
+            }
+        }
+
+        return (out, progress) -> readOnly.executeWithoutResult(status -> {
+            try (TableWriter writer = open(format, out, "Alerts");
+                    Stream<Object[]> stream =
+                            alertRepository.streamListRows(spec, order, selected, properties.getFetchSize())) {
+                writer.writeRow(List.copyOf(selected));
+                for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                    writer.writeRow(Arrays.asList(row));
+                    progress.increment();
+                }
+            } catch (IOException e) {
+                // Thường là client ngắt kết nối giữa chừng
+                throw new UncheckedIOException(e);
+            }
+            log.info("Exported {} alerts as {}", progress.sum(), format);
+        });
+    }
+
+    // Thời gian chờ StreamingResponseBody được đặt trước khi request chuyển sang async, chỉ cho request này
+    private void extendAsyncTimeout() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        long timeoutMillis = properties.getRequestTimeout().toMillis();
+        WebAsyncUtils.getAsyncManager(attributes.getRequest())
+                .registerCallableInterceptor(TIMEOUT_INTERCEPTOR, new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        if (request instanceof AsyncWebRequest asyncRequest) {
+                            asyncRequest.setTimeout(timeoutMillis);
+                        }
+                    }
+                });
+    }
+
+    // Dùng chung cho các export khác (thống kê) để cùng múi giờ / định dạng
+    public TableWriter open(ExportFormat format, OutputStream out, String sheetName) throws IOException {
+        return format == ExportFormat.XLSX
+                ? TableWriter.xlsx(out, sheetName, properties.getZone())
+                : TableWriter.csv(out);
+    }
+}
@@ -0,0 +1,277 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.safetyconstruction.backend.configuration.AlertIngestProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
+import com.safetyconstruction.backend.dto.response.AlertBatchItemResponse;
+import com.safetyconstruction.backend.dto.response.AlertIngestResponse;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.IngestBackpressure;
+import com.safetyconstruction.backend.enums.IngestStatus;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.util.PriorityLaneQueue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hàng đợi ingest bất đồng bộ: controller chỉ validate + enqueue rồi trả 202,
+ * các worker (virtual thread) gom alert thành micro-batch và ghi qua AlertService.
+ * Mỗi severity có 1 lane riêng: CRITICAL/HIGH được lấy trước khi hàng đợi dồn ứ, lane thấp có chống đói.
+ */
+@Service
+@Slf4j
+public class AlertIngestPipeline {
+
+    private final AlertService alertService;
+    private final AlertAdmissionControl admissionControl;
+    private final AlertIngestProperties properties;
+    private final PriorityLaneQueue<IngestTask> queue;
+    private final Map<String, Tracking> tracking = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final DistributionSummary batchSize;
+    private final Timer[] drainLatency;
+    private final Counter rejected;
+
+    private volatile boolean running;
+
+    public AlertIngestPipeline(
+            AlertService alertService,
+            AlertAdmissionControl admissionControl,
+            AlertIngestProperties properties,
+            MeterRegistry meterRegistry) {
+        this.alertService = alertService;
+        this.admissionControl = admissionControl;
+        this.properties = properties;
+        this.queue = new PriorityLaneQueue<>(
+                AlertSeverity.values().length,
+                properties.getQueueCapacity(),
+                properties.getLaneMaxWait().toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        this.drainLatency = new Timer[queue.laneCount()];
+        for (int lane = 0; lane < queue.laneCount(); lane++) {
+            int laneIndex = lane;
+            String laneName = AlertSeverity.ofLane(lane).name();
+            Gauge.builder("alert.ingest.queue.depth", queue, q -> q.size(laneIndex))
+                    .description("Số alert đang chờ trong hàng đợi ingest")
+                    .tag("lane", laneName)
+                    .register(meterRegistry);
+            drainLatency[lane] = Timer.builder("alert.ingest.drain.latency")
+                    .description("Thời gian từ lúc enqueue đến khi alert được ghi xong")
+                    .tag("lane", laneName)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        }
+        this.batchSize = DistributionSummary.builder("alert.ingest.batch.size")
+                .description("Số alert trong mỗi micro-batch")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("alert.ingest.rejected")
+                .description("Số alert bị từ chối do hàng đợi đầy")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.add(Thread.ofVirtual().name("alert-ingest-" + i).start(this::drainLoop));
+        }
+        log.info(
+                "Alert ingest pipeline started: {} workers, queue capacity {}",
+                properties.getWorkers(),
+                properties.getQueueCapacity());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Ngừng nhận, để worker ghi nốt phần còn lại trong hàng đợi
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Alert ingest pipeline stopped with {} alerts still queued", queue.size());
+        }
+    }
+
+    /**
+     * Đưa alert vào hàng đợi, trả về trackingId để tra cứu kết quả.
+     */
+    @PreAuthorize("hasAuthority('ALERT_CREATE')")
+    public AlertIngestResponse submit(AlertCreationRequest request) {
+        if (!running) {
+            throw new AppException(ErrorCode.ALERT_INGEST_QUEUE_FULL);
+        }
+        // Camera vượt rate limit / alert dưới ngưỡng confidence không được chiếm chỗ trong hàng đợi
+        ErrorCode rejectedByAdmission = admissionControl.check(request);
+        if (rejectedByAdmission != null) {
+            throw new AppException(rejectedByAdmission);
+        }
+
+        AlertIngestResponse receipt = AlertIngestResponse.builder()
+                .trackingId(UUID.randomUUID().toString())
+                .status(IngestStatus.QUEUED)
+                .acceptedAt(Instant.now())
+                .build();
+        String owner = SecurityContextHolder.getContext().getAuthentication().getName();
+        tracking.put(receipt.getTrackingId(), new Tracking(owner, receipt));
+
+        if (!offer(new IngestTask(receipt.getTrackingId(), request, laneOf(request), System.nanoTime()))) {
+            tracking.remove(receipt.getTrackingId());
+            rejected.increment();
+            throw new AppException(ErrorCode.ALERT_INGEST_QUEUE_FULL);
+        }
+        return receipt;
+    }
+
+    // trackingId của client khác trả về NOT_FOUND (không lộ trackingId tồn tại), ADMIN xem được mọi trackingId
+    @PreAuthorize("hasAuthority('ALERT_CREATE')")
+    public AlertIngestResponse getStatus(String trackingId) {
+        Tracking entry = tracking.get(trackingId);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (entry == null || !(admin || entry.owner().equals(authentication.getName()))) {
+            throw new AppException(ErrorCode.ALERT_INGEST_NOT_FOUND);
+        }
+        return entry.status();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    void evictExpiredTracking() {
+        Instant threshold = Instant.now().minus(properties.getTrackingTtl());
+        tracking.values()
+                .removeIf(entry -> entry.status().getStatus() != IngestStatus.QUEUED
+                        && entry.status().getAcceptedAt().isBefore(threshold));
+    }
+
+    private boolean offer(IngestTask task) {
+        if (properties.getBackpressure() == IngestBackpressure.REJECT) {
+            return queue.offer(task.lane(), task);
+        }
+        try {
+            return queue.offer(task.lane(), task, properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<IngestTask> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestTask first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in alert ingest worker", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<IngestTask> batch) {
+        batchSize.record(batch.size());
+
+        List<AlertBatchItemResponse> items;
+        try {
+            items = alertService
+                    .ingestBatch(batch.stream().map(IngestTask::request).toList())
+                    .getItems();
+        } catch (RuntimeException ex) {
+            // Lỗi ở mức batch (DB, constraint...) -> ghi lại từng alert để không kéo cả batch theo
+            log.warn("Alert ingest batch of {} failed, retrying one by one: {}", batch.size(), ex.getMessage());
+            items = batch.stream().map(this::processSingle).toList();
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            IngestTask task = batch.get(i);
+            complete(task.trackingId(), items.get(i));
+            drainLatency[task.lane()].record(now - task.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private AlertBatchItemResponse processSingle(IngestTask task) {
+        try {
+            return alertService.ingestBatch(List.of(task.request())).getItems().get(0);
+        } catch (AppException ex) {
+            return AlertBatchItemResponse.builder()
+                    .success(false)
+                    .code(ex.getErrorCode().getCode())
+                    .message(ex.getErrorCode().getMessage())
+                    .build();
+        } catch (RuntimeException ex) {
+            log.error("Alert ingest failed for tracking id {}", task.trackingId(), ex);
+            return AlertBatchItemResponse.builder()
+                    .success(false)
+                    .code(ErrorCode.UNCATEGORIZED_EXCEPTION.getCode())
+                    .message(ErrorCode.UNCATEGORIZED_EXCEPTION.getMessage())
+                    .build();
+        }
+    }
+
+    private void complete(String trackingId, AlertBatchItemResponse item) {
+        tracking.computeIfPresent(
+                trackingId,
+                (id, entry) -> new Tracking(
+                        entry.owner(),
+                        AlertIngestResponse.builder()
+                                .trackingId(id)
+                                .acceptedAt(entry.status().getAcceptedAt())
+                                .status(item.isSuccess() ? IngestStatus.CREATED : IngestStatus.REJECTED)
+                                .alertId(item.isSuccess() ? item.getAlert().getId() : null)
+                                .code(item.getCode())
+                                .message(item.getMessage())
+                                .build()));
+    }
+
+    // Severity chưa hợp lệ (sẽ bị AlertService từ chối) -> lane thấp nhất
+    private static int laneOf(AlertCreationRequest request) {
+        if (request.getSeverity() != null) {
+            try {
+                return AlertSeverity.valueOf(request.getSeverity()).priorityLane();
+            } catch (IllegalArgumentException e) {
+                // rơi xuống lane thấp nhất
+            }
+        }
+        return AlertSeverity.LOW.priorityLane();
+    }
+
+    // Kết quả ingest kèm người đã submit
+    private record Tracking(String owner, AlertIngestResponse status) {}
+
+    private record IngestTask(String trackingId, AlertCreationRequest request, int lane, long enqueuedNanos) {}
+}
@@ -0,0 +1,573 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.safetyconstruction.backend.configuration.AlertKpiCubeProperties;
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.entity.AlertStatsHourlyId;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.repository.AlertStatsHourlyRepository;
+import com.safetyconstruction.backend.specification.AlertSpecification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Số alert theo (project, type, severity, status, ngày) của retentionDays ngày gần nhất, giữ trong bộ nhớ cho
+ * các thẻ KPI / biểu đồ dashboard. Mỗi ngày là 1 bảng băm địa chỉ mở: khóa long đóng gói 4 chiều còn lại
+ * -> LongAdder (không boxing, ghi đồng thời không tranh chấp). Đọc = cộng các ô của những ngày trong khoảng.
+ * Nạp từ alert_stats_hourly lúc khởi động và định kỳ, cập nhật từ AlertChangedEvent.
+ * Ngày tính theo múi giờ của JVM, như DAYOFWEEK / MONTH của happened_at trong DB.
+ * Chưa nạp xong, có thể đã lỡ event, hoặc bộ lọc không biểu diễn được bằng các chiều trên -> empty để dùng DB.
+ */
+@Component
+@Slf4j
+public class AlertKpiCube {
+
+    // project_id (32 bit) | type (16 bit, type_id + 1, 0 = chưa có type_id) | severity (3 bit) | status (3 bit)
+    private static final long MAX_PROJECT_ID = (1L << 32) - 1;
+    private static final int MAX_TYPE_SLOT = (1 << 16) - 1;
+    // happenedBefore trong giây cuối của ngày được coi là hết ngày đó (giao diện thường gửi 23:59:59[.999])
+    private static final Duration END_OF_DAY_TOLERANCE = Duration.ofSeconds(1);
+    private static final AlertSeverity[] SEVERITIES = AlertSeverity.values();
+    private static final AlertStatus[] STATUSES = AlertStatus.values();
+
+    private final AlertStatsHourlyRepository statsRepository;
+    private final AlertStatsRollupService statsRollupService;
+    private final AlertEventPublisher alertEventPublisher;
+    private final AlertTypeInterner alertTypeInterner;
+    private final AlertKpiCubeProperties properties;
+    private final TransactionTemplate readOnly;
+    private final ZoneId zone = ZoneId.systemDefault();
+    // Event: read lock (áp song song lên LongAdder); đổi cube sau khi nạp: write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Counter served;
+    private final Counter fallback;
+
+    private volatile Cube cube;
+    // != null trong lúc nạp lại: event đến trong lúc nạp được áp lại lên cube mới
+    private Queue<AlertChangedEvent> pendingDuringReseed;
+    private boolean wasReceivingRemoteEvents;
+
+    public AlertKpiCube(
+            AlertStatsHourlyRepository statsRepository,
+            AlertStatsRollupService statsRollupService,
+            AlertEventPublisher alertEventPublisher,
+            AlertTypeInterner alertTypeInterner,
+            AlertKpiCubeProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.statsRepository = statsRepository;
+        this.statsRollupService = statsRollupService;
+        this.alertEventPublisher = alertEventPublisher;
+        this.alertTypeInterner = alertTypeInterner;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        Gauge.builder("alert.kpi-cube.cells", this, index -> {
+                    Cube current = index.cube;
+                    return current != null ? current.cellCount() : 0;
+                })
+                .description("Số ô (project, type, severity, status, ngày) đang giữ trong bộ nhớ")
+                .register(meterRegistry);
+        this.served = Counter.builder("alert.kpi-cube.queries")
+                .description("Số truy vấn KPI dashboard theo nơi phục vụ")
+                .tag("source", "cube")
+                .register(meterRegistry);
+        this.fallback = Counter.builder("alert.kpi-cube.queries")
+                .description("Số truy vấn KPI dashboard theo nơi phục vụ")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Các nhóm (loại, ngày trong tuần, tháng) như AlertRepositoryCustom.aggregateDashboard.
+     * Empty nếu bộ lọc không phục vụ được từ cube: có camera / confidence / type CONTAINS, happenedAfter không
+     * phải đầu ngày hoặc cũ hơn retentionDays, happenedBefore không phải cuối ngày.
+     */
+    public Optional<List<AlertDashboardBucket>> aggregate(AlertSearchRequest request) {
+        Optional<List<AlertDashboardBucket>> buckets = doAggregate(request);
+        (buckets.isPresent() ? served : fallback).increment();
+        return buckets;
+    }
+
+    private Optional<List<AlertDashboardBucket>> doAggregate(AlertSearchRequest request) {
+        Cube current = cube;
+        if (!properties.isEnabled()
+                || current == null
+                || current.stale
+                || current.overflow
+                || (properties.isRequireRemoteEvents() && !alertEventPublisher.isReceivingRemoteEvents())) {
+            return Optional.empty();
+        }
+        if (request.getCameraId() != null || request.getMinConfidence() != null || request.getMaxConfidence() != null) {
+            return Optional.empty();
+        }
+        boolean hasType = StringUtils.hasText(request.getType());
+        if (hasType && request.getTypeMatch() == TypeMatch.CONTAINS) {
+            return Optional.empty();
+        }
+        int severity = -1;
+        if (StringUtils.hasText(request.getSeverity())) {
+            AlertSeverity value = AlertSpecification.parseEnum(AlertSeverity.class, request.getSeverity());
+            if (value == null) {
+                return Optional.empty();
+            }
+            severity = value.ordinal();
+        }
+        int status = -1;
+        if (StringUtils.hasText(request.getAlertStatus())) {
+            AlertStatus value = AlertSpecification.parseEnum(AlertStatus.class, request.getAlertStatus());
+            if (value == null) {
+                return Optional.empty();
+            }
+            status = value.ordinal();
+        }
+
+        // Khoảng ngày [fromDay, toDay]
+        long today = LocalDate.now(zone).toEpochDay();
+        Instant after = request.getHappenedAfter();
+        if (after == null) {
+            return Optional.empty();
+        }
+        LocalDate afterDate = LocalDate.ofInstant(after, zone);
+        long fromDay = afterDate.toEpochDay();
+        if (!afterDate.atStartOfDay(zone).toInstant().equals(after) || fromDay < firstDay(today)) {
+            return Optional.empty();
+        }
+        long toDay;
+        Instant before = request.getHappenedBefore();
+        if (before == null) {
+            if (current.beyondWindow) {
+                return Optional.empty();
+            }
+            toDay = lastDay(today);
+        } else {
+            LocalDate beforeDate = LocalDate.ofInstant(before, zone);
+            Instant nextDay = beforeDate.plusDays(1).atStartOfDay(zone).toInstant();
+            if (Duration.between(before, nextDay).compareTo(END_OF_DAY_TOLERANCE) > 0) {
+                return Optional.empty();
+            }
+            toDay = beforeDate.toEpochDay();
+            if (toDay > lastDay(today)) {
+                if (current.beyondWindow) {
+                    return Optional.empty();
+                }
+                toDay = lastDay(today);
+            }
+        }
+
+        int typeSlot = -1;
+        if (hasType) {
+            typeSlot = typeSlot(alertTypeInterner.findId(request.getType()).orElse(AlertTypeInterner.UNKNOWN_TYPE_ID));
+        }
+        return Optional.of(current.aggregate(fromDay, toDay, request.getProjectId(), typeSlot, severity, status));
+    }
+
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            Cube current = cube;
+            if (current != null) {
+                apply(current, event);
+            }
+            if (pendingDuringReseed != null) {
+                pendingDuringReseed.add(event);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${alert.kpi-cube.initial-delay:PT20S}",
+            fixedDelayString = "${alert.kpi-cube.check-interval:PT30S}")
+    void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        boolean receiving = alertEventPublisher.isReceivingRemoteEvents();
+        // Vừa subscribe lại -> có thể đã lỡ event trong lúc mất kết nối
+        boolean resubscribed = receiving && !wasReceivingRemoteEvents;
+        wasReceivingRemoteEvents = receiving;
+        if (properties.isRequireRemoteEvents() && !receiving) {
+            return;
+        }
+
+        Cube current = cube;
+        if (current == null
+                || resubscribed
+                || current.stale
+                || System.currentTimeMillis() - current.builtAtMillis
+                        >= properties.getReseedInterval().toMillis()) {
+            reseed();
+        }
+    }
+
+    /**
+     * Nạp lại từ alert_stats_hourly (cần rollup đã sẵn sàng). Event đến trong lúc nạp được áp lại lên cube mới;
+     * event commit ngay trước lúc đọc nhưng đến sau đó có thể bị đếm 2 lần cho đến lần nạp sau.
+     */
+    void reseed() {
+        if (!statsRollupService.isReady()) {
+            log.debug("Alert stats rollup is not ready, KPI cube is not seeded yet");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long today = LocalDate.now(zone).toEpochDay();
+        Instant from = LocalDate.ofEpochDay(firstDay(today)).atStartOfDay(zone).toInstant();
+        lock.writeLock().lock();
+        try {
+            pendingDuringReseed = new ConcurrentLinkedQueue<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Cube fresh = new Cube(properties.getRetentionDays() + 2, started);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = statsRepository.streamCountsFrom(from)) {
+                    rows.forEach(row -> fresh.add(
+                            epochDay((Instant) row[4]),
+                            today,
+                            (Long) row[0],
+                            (Integer) row[1],
+                            (AlertSeverity) row[2],
+                            (AlertStatus) row[3],
+                            (Long) row[5]));
+                }
+            });
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringReseed = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Could not seed KPI cube: {}", ex.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringReseed.forEach(event -> apply(fresh, event));
+            pendingDuringReseed = null;
+            cube = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (fresh.overflow) {
+            log.warn("KPI cube cannot represent some project / type ids, dashboards fall back to the database");
+        } else {
+            log.info(
+                    "KPI cube seeded: {} cells since {} in {} ms",
+                    fresh.cellCount(),
+                    from,
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    private void apply(Cube target, AlertChangedEvent event) {
+        long day = epochDay(event.happenedAt());
+        long today = LocalDate.now(zone).toEpochDay();
+        switch (event.kind()) {
+            case CREATED -> target.add(
+                    day, today, event.projectId(), event.typeId(), event.severity(), event.alertStatus(), 1);
+            case UPDATED -> {
+                if (event.previousStatus() == null) {
+                    // Không biết trạng thái cũ (node phiên bản cũ): không chuyển được số đếm, nạp lại
+                    target.stale = true;
+                } else if (event.previousStatus() != event.alertStatus()) {
+                    target.add(
+                            day,
+                            today,
+                            event.projectId(),
+                            event.typeId(),
+                            event.severity(),
+                            event.previousStatus(),
+                            -1);
+                    target.add(day, today, event.projectId(), event.typeId(), event.severity(), event.alertStatus(), 1);
+                }
+            }
+            case DELETED -> target.add(
+                    day,
+                    today,
+                    event.projectId(),
+                    event.typeId(),
+                    event.severity(),
+                    event.previousStatus() != null ? event.previousStatus() : event.alertStatus(),
+                    -1);
+        }
+    }
+
+    private long epochDay(Instant instant) {
+        return LocalDate.ofInstant(instant, zone).toEpochDay();
+    }
+
+    private long firstDay(long today) {
+        return today - properties.getRetentionDays() + 1;
+    }
+
+    // Cho phép alert của ngày mai (lệch đồng hồ thiết bị)
+    private static long lastDay(long today) {
+        return today + 1;
+    }
+
+    private static int typeSlot(Integer typeId) {
+        return (typeId != null ? typeId : AlertStatsHourlyId.NO_TYPE_ID) + 1;
+    }
+
+    private static long pack(long projectId, int typeSlot, int severity, int status) {
+        return projectId << 22 | (long) typeSlot << 6 | (long) severity << 3 | status;
+    }
+
+    /**
+     * Vòng retentionDays + 2 ngày: ô của ngày d nằm ở vị trí d mod n, bị thay khi ngày d + n bắt đầu có dữ liệu.
+     */
+    private final class Cube {
+        final AtomicReferenceArray<DaySlab> days;
+        final long builtAtMillis;
+        volatile boolean stale;
+        // Có project / type id vượt số bit của khóa
+        volatile boolean overflow;
+        // Có alert sau ngày mai: truy vấn không có happenedBefore phải đọc DB
+        volatile boolean beyondWindow;
+
+        Cube(int size, long builtAtMillis) {
+            this.days = new AtomicReferenceArray<>(size);
+            this.builtAtMillis = builtAtMillis;
+        }
+
+        void add(
+                long day,
+                long today,
+                Long projectId,
+                Integer typeId,
+                AlertSeverity severity,
+                AlertStatus status,
+                long delta) {
+            if (day > lastDay(today)) {
+                beyondWindow = true;
+                return;
+            }
+            if (day < firstDay(today)) {
+                return;
+            }
+            int typeSlot = typeSlot(typeId);
+            if (projectId == null || projectId < 0 || projectId > MAX_PROJECT_ID || typeSlot > MAX_TYPE_SLOT) {
+                overflow = true;
+                return;
+            }
+            DaySlab slab = slab(day);
+            if (slab != null) {
+                slab.cell(pack(projectId, typeSlot, severity.ordinal(), status.ordinal()))
+                        .add(delta);
+            }
+        }
+
+        // null nếu vị trí đã thuộc về ngày mới hơn (ngày này vừa ra khỏi cửa sổ)
+        private DaySlab slab(long day) {
+            int index = (int) Math.floorMod(day, days.length());
+            while (true) {
+                DaySlab slab = days.get(index);
+                if (slab != null && slab.epochDay == day) {
+                    return slab;
+                }
+                if (slab != null && slab.epochDay > day) {
+                    return null;
+                }
+                DaySlab fresh = new DaySlab(day);
+                if (days.compareAndSet(index, slab, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+
+        List<AlertDashboardBucket> aggregate(
+                long fromDay, long toDay, Long projectId, int typeSlot, int severity, int status) {
+            // (type, ngày trong tuần, tháng) -> [tổng, NEW, HIGH+CRITICAL]
+            Map<Long, long[]> groups = new HashMap<>();
+            for (long day = fromDay; day <= toDay; day++) {
+                DaySlab slab = days.get((int) Math.floorMod(day, days.length()));
+                if (slab == null || slab.epochDay != day) {
+                    continue;
+                }
+                LocalDate date = LocalDate.ofEpochDay(day);
+                // DAYOFWEEK của MySQL: 1 = CN .. 7 = T7
+                int weekday = date.getDayOfWeek().getValue() % 7 + 1;
+                int month = date.getMonthValue();
+                Table table = slab.table;
+                for (int i = 0; i < table.keys.length; i++) {
+                    LongAdder cell = table.cells.get(i);
+                    if (cell == null) {
+                        continue;
+                    }
+                    long key = table.keys[i];
+                    int cellStatus = (int) (key & 7);
+                    int cellSeverity = (int) (key >>> 3 & 7);
+                    int cellType = (int) (key >>> 6 & MAX_TYPE_SLOT);
+                    if ((projectId != null && key >>> 22 != projectId)
+                            || (typeSlot >= 0 && cellType != typeSlot)
+                            || (severity >= 0 && cellSeverity != severity)
+                            || (status >= 0 && cellStatus != status)) {
+                        continue;
+                    }
+                    long count = cell.sum();
+                    if (count == 0) {
+                        continue;
+                    }
+                    long[] sums =
+                            groups.computeIfAbsent((long) cellType << 8 | weekday << 4 | month, group -> new long[3]);
+                    sums[0] += count;
+                    if (STATUSES[cellStatus] == AlertStatus.NEW) {
+                        sums[1] += count;
+                    }
+                    if (SEVERITIES[cellSeverity] == AlertSeverity.HIGH
+                            || SEVERITIES[cellSeverity] == AlertSeverity.CRITICAL) {
+                        sums[2] += count;
+                    }
+                }
+            }
+
+            List<AlertDashboardBucket> buckets = new ArrayList<>(groups.size());
+            groups.forEach((group, sums) -> {
+                int cellType = (int) (group >>> 8);
+                buckets.add(new AlertDashboardBucket(
+                        cellType == 0 ? null : cellType - 1,
+                        (int) (group >>> 4 & 0xF),
+                        (int) (group & 0xF),
+                        sums[0],
+                        sums[1],
+                        sums[2]));
+            });
+            return buckets;
+        }
+
+        int cellCount() {
+            int count = 0;
+            for (int i = 0; i < days.length(); i++) {
+                DaySlab slab = days.get(i);
+                if (slab != null) {
+                    count += slab.table.size;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Bảng băm địa chỉ mở (dò tuyến tính) của 1 ngày. Ô mới được thêm dưới khóa của slab, đọc không khóa:
+     * keys[i] được ghi trước cells.set(i) nên ai thấy ô cũng thấy khóa của nó.
+     */
+    private static final class DaySlab {
+        final long epochDay;
+        volatile Table table = new Table(64);
+
+        DaySlab(long epochDay) {
+            this.epochDay = epochDay;
+        }
+
+        LongAdder cell(long key) {
+            LongAdder cell = table.find(key);
+            if (cell != null) {
+                return cell;
+            }
+            synchronized (this) {
+                Table current = table;
+                cell = current.find(key);
+                if (cell != null) {
+                    return cell;
+                }
+                // Giữ tải <= 1/2 để dò ngắn; bảng mới dùng chung các LongAdder với bảng cũ
+                if ((current.size + 1) * 2 > current.keys.length) {
+                    current = current.grow();
+                }
+                cell = new LongAdder();
+                current.insert(key, cell);
+                table = current;
+                return cell;
+            }
+        }
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final AtomicReferenceArray<LongAdder> cells;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.cells = new AtomicReferenceArray<>(capacity);
+        }
+
+        LongAdder find(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                LongAdder cell = cells.get(i);
+                if (cell == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    return cell;
+                }
+            }
+        }
+
+        void insert(long key, LongAdder cell) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (cells.get(i) != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            cells.set(i, cell);
+            size++;
+        }
+
+        Table grow() {
+            Table bigger = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                LongAdder cell = cells.get(i);
+                if (cell != null) {
+                    bigger.insert(keys[i], cell);
+                }
+            }
+            return bigger;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.safetyconstruction.backend.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.entity.AlertOpenCounter;
+import com.safetyconstruction.backend.entity.AlertOpenCounterId;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.repository.AlertOpenCounterRepository;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bộ đếm alert NEW theo (project, camera, type), thay cho count(spec) LIKE trên bảng alerts mỗi lần ingest.
+ * Các hàm increment chạy trong transaction của AlertService nên khớp với dữ liệu đã commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AlertOpenCounterService {
+
+    AlertOpenCounterRepository counterRepository;
+    AlertRepository alertRepository;
+
+    @Transactional
+    public void increment(Long projectId, Long cameraId, String type, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        AlertOpenCounterId id = AlertOpenCounterId.of(projectId, cameraId, type);
+        counterRepository.increment(id.getProjectId(), id.getCameraId(), id.getType(), delta);
+    }
+
+    @Transactional(readOnly = true)
+    public long getOpenCount(Long projectId, Long cameraId, String type) {
+        return counterRepository
+                .findOpenCount(AlertOpenCounterId.of(projectId, cameraId, type))
+                .orElse(0L);
+    }
+
+    /**
+     * Gọi khi trạng thái alert thay đổi (review) hoặc alert bị xóa (newStatus = null).
+     */
+    @Transactional
+    public void onStatusChange(Alert alert, AlertStatus oldStatus, AlertStatus newStatus) {
+        boolean wasOpen = oldStatus == AlertStatus.NEW;
+        boolean isOpen = newStatus == AlertStatus.NEW;
+        if (wasOpen == isOpen) {
+            return;
+        }
+        increment(
+                alert.getProject().getId(),
+                alert.getCamera() != null ? alert.getCamera().getId() : null,
+                alert.getType(),
+                isOpen ? 1 : -1);
+    }
+
+    /**
+     * Đối soát định kỳ với bảng alerts (phòng trường hợp dữ liệu bị sửa ngoài ứng dụng).
+     * Đếm alerts và đọc counters trong cùng 1 snapshot (REPEATABLE READ) rồi chỉ cộng phần chênh lệch vào counter:
+     * increment của ingest / review commit sau snapshot không bị ghi đè.
+     */
+    @Scheduled(
+            initialDelayString = "${alert.open-counters.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${alert.open-counters.reconcile-interval:PT10M}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconcile() {
+        Map<AlertOpenCounterId, Long> actual = new HashMap<>();
+        for (Object[] row : alertRepository.countOpenAlertsGrouped()) {
+            actual.put(
+                    AlertOpenCounterId.of(
+                            ((Number) row[0]).longValue(), ((Number) row[1]).longValue(), (String) row[2]),
+                    ((Number) row[3]).longValue());
+        }
+
+        int fixed = 0;
+        List<AlertOpenCounter> counters = counterRepository.findAll();
+        for (AlertOpenCounter counter : counters) {
+            long expected = actual.getOrDefault(counter.getId(), 0L);
+            if (counter.getOpenCount() != expected) {
+                adjust(counter.getId(), expected - counter.getOpenCount());
+                fixed++;
+            }
+            actual.remove(counter.getId());
+        }
+        for (Map.Entry<AlertOpenCounterId, Long> missing : actual.entrySet()) {
+            adjust(missing.getKey(), missing.getValue());
+            fixed++;
+        }
+
+        if (fixed > 0) {
+            log.warn("Reconciled {} open-alert counters against the alerts table", fixed);
+        }
+    }
+
+    private void adjust(AlertOpenCounterId id, long delta) {
+        counterRepository.increment(id.getProjectId(), id.getCameraId(), id.getType(), delta);
+    }
+}
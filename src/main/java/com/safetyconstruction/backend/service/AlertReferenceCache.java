@@ -0,0 +1,180 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.safetyconstruction.backend.configuration.AlertReferenceCacheProperties;
+import com.safetyconstruction.backend.dto.projection.CameraReference;
+import com.safetyconstruction.backend.dto.projection.ProjectReference;
+import com.safetyconstruction.backend.repository.CameraRepository;
+import com.safetyconstruction.backend.repository.ProjectRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache cục bộ (có giới hạn, tự hết hạn) cho thông tin định danh Project/Camera trên luồng ingest.
+ * Khi Project/Camera thay đổi, cache bị xóa sau commit và thông báo cho các node khác qua Redis pub/sub.
+ */
+@Component
+@Slf4j
+public class AlertReferenceCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "alert-ref-cache:invalidate";
+
+    private final ProjectRepository projectRepository;
+    private final CameraRepository cameraRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+    private final Cache<Long, ProjectReference> projects;
+    private final Cache<Long, CameraReference> cameras;
+    private final Duration redisRetryAfter;
+
+    private volatile long redisRetryAt;
+
+    public AlertReferenceCache(
+            ProjectRepository projectRepository,
+            CameraRepository cameraRepository,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+            AlertReferenceCacheProperties properties) {
+        this.projectRepository = projectRepository;
+        this.cameraRepository = cameraRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.redisRetryAfter = properties.getRedisRetryAfter();
+        this.projects = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.cameras = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    /**
+     * Id không tồn tại sẽ không có trong kết quả (và không được cache).
+     */
+    public Map<Long, ProjectReference> getProjects(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return projects.getAll(ids, missing -> projectRepository.findReferencesByIdIn(toList(missing)).stream()
+                .collect(Collectors.toMap(ProjectReference::id, Function.identity())));
+    }
+
+    public Map<Long, CameraReference> getCameras(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return cameras.getAll(ids, missing -> cameraRepository.findReferencesByIdIn(toList(missing)).stream()
+                .collect(Collectors.toMap(CameraReference::id, Function.identity())));
+    }
+
+    public void invalidateProject(Long projectId) {
+        afterCommit(() -> {
+            evictProject(projectId);
+            publish("project:" + projectId);
+        });
+    }
+
+    public void invalidateCamera(Long cameraId) {
+        afterCommit(() -> {
+            cameras.invalidate(cameraId);
+            publish("camera:" + cameraId);
+        });
+    }
+
+    /**
+     * Subscribe kênh invalidation; nếu Redis lỗi thì thử lại ở lần chạy sau (trong lúc đó cache tự hết hạn theo ttl).
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${alert.reference-cache.subscribe-retry:PT30S}")
+    void ensureSubscribed() {
+        RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+        if (container == null || container.isRunning()) {
+            return;
+        }
+        try {
+            container.start();
+            log.info("Subscribed to reference cache invalidation channel {}", INVALIDATION_CHANNEL);
+        } catch (RuntimeException ex) {
+            container.stop();
+            log.warn("Could not subscribe to {}: {}", INVALIDATION_CHANNEL, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody());
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        try {
+            Long id = Long.valueOf(body.substring(separator + 1));
+            if (body.startsWith("project:")) {
+                evictProject(id);
+            } else if (body.startsWith("camera:")) {
+                cameras.invalidate(id);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed reference cache invalidation: {}", body);
+        }
+    }
+
+    private void evictProject(Long projectId) {
+        projects.invalidate(projectId);
+        // Xóa project sẽ cascade xóa camera của nó
+        cameras.asMap().values().removeIf(camera -> projectId.equals(camera.projectId()));
+    }
+
+    private void publish(String message) {
+        // Không gửi được thì node khác sẽ tự hết hạn theo ttl
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (DataAccessException ex) {
+            redisRetryAt = System.currentTimeMillis() + redisRetryAfter.toMillis();
+            log.warn("Could not broadcast reference cache invalidation {}: {}", message, ex.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static <T> List<T> toList(Iterable<? extends T> values) {
+        List<T> list = new ArrayList<>();
+        values.forEach(list::add);
+        return list;
+    }
+}
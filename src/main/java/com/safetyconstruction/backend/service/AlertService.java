@@ -1,28 +1,48 @@
 package com.safetyconstruction.backend.service;
 
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.safetyconstruction.backend.dto.projection.CameraReference;
+import com.safetyconstruction.backend.dto.projection.ProjectReference;
 import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
 import com.safetyconstruction.backend.dto.request.alert.AlertReviewRequest;
 import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.response.AlertBatchItemResponse;
+import com.safetyconstruction.backend.dto.response.AlertBatchResponse;
 import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.dto.response.CursorPageResponse;
+import com.safetyconstruction.backend.dto.response.SliceResponse;
 import com.safetyconstruction.backend.entity.*;
+import com.safetyconstruction.backend.enums.AlertSeverity;
 import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.SearchTotalMode;
 import com.safetyconstruction.backend.exception.AppException;
 import com.safetyconstruction.backend.exception.ErrorCode;
 import com.safetyconstruction.backend.mapper.AlertMapper;
 import com.safetyconstruction.backend.repository.*;
+import com.safetyconstruction.backend.service.AlertEventDeduplicator.EventKey;
 import com.safetyconstruction.backend.specification.AlertSpecification;
+import com.safetyconstruction.backend.util.AlertSeekCursor;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -34,79 +54,342 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AlertService {
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+    // Ngưỡng đếm của SearchTotalMode.CAPPED
+    static final int SEARCH_TOTAL_CAP = 10_000;
 
     AlertRepository alertRepository;
     ProjectRepository projectRepository;
     CameraRepository cameraRepository;
+    AlertReferenceCache referenceCache;
+    AlertEventDeduplicator eventDeduplicator;
+    AlertAdmissionControl admissionControl;
+    AlertTypeInterner alertTypeInterner;
     UserRepository userRepository;
     AlertMapper alertMapper;
     NotificationService notificationService;
-    RedisTemplate<String, String> redisTemplate;
+    NotificationDebouncer notificationDebouncer;
+    AlertOpenCounterService openCounterService;
+    AlertStatsRollupService statsRollupService;
+    AlertEventPublisher alertEventPublisher;
+    RecentAlertIndex recentAlertIndex;
+    Validator validator;
 
     /**
      * 🧱 CREATE ALERT
      * - Chỉ ADMIN hoặc MANAGER có thể tạo alert (thủ công hoặc hệ thống).
+     * - Dùng chung luồng ghi với batch (batch 1 phần tử).
      */
     @Transactional
     @PreAuthorize("hasAuthority('ALERT_CREATE')")
     public AlertResponse createAlert(AlertCreationRequest request) {
         log.info("Service: Creating alert type {}", request.getType());
 
-        Project project = projectRepository
-                .findById(request.getProjectId())
-                .orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_FOUND));
+        AlertWriteOutcome outcome = writeBatch(List.of(request), true).get(0);
+        if (outcome.error() != null) {
+            throw new AppException(outcome.error());
+        }
+        return outcome.alert();
+    }
 
-        Camera camera = request.getCameraId() != null
-                ? cameraRepository
-                        .findById(request.getCameraId())
-                        .orElseThrow(() -> new AppException(ErrorCode.CAMERA_NOT_FOUND))
-                : null;
+    /**
+     * 📦 CREATE ALERTS (BATCH)
+     * - Dành cho thiết bị edge gửi nhiều phát hiện cùng lúc.
+     * - Project/Camera được kiểm tra 1 lần cho cả batch (qua AlertReferenceCache), insert dùng JDBC batching.
+     * - Alert lỗi không làm hỏng cả batch: trả kết quả theo từng phần tử.
+     * - Alert có eventId đã xử lý: trả lại alert gốc (duplicate = true), không ghi thêm.
+     */
+    @Transactional
+    @PreAuthorize("hasAuthority('ALERT_CREATE')")
+    public AlertBatchResponse createAlerts(List<AlertCreationRequest> requests) {
+        log.info("Service: Creating batch of {} alerts", requests.size());
+        return toBatchResponse(writeBatch(requests, true));
+    }
+
+    /**
+     * Ghi micro-batch từ AlertIngestPipeline.
+     * Không có @PreAuthorize: quyền ALERT_CREATE đã được kiểm tra lúc alert được đưa vào hàng đợi,
+     * worker chạy trên virtual thread không có SecurityContext. Không gọi trực tiếp từ controller.
+     * Rate limit / ngưỡng confidence cũng đã áp dụng lúc enqueue nên không kiểm tra lại.
+     */
+    @Transactional
+    public AlertBatchResponse ingestBatch(List<AlertCreationRequest> requests) {
+        log.debug("Service: Ingesting queued batch of {} alerts", requests.size());
+        return toBatchResponse(writeBatch(requests, false));
+    }
+
+    private AlertBatchResponse toBatchResponse(List<AlertWriteOutcome> outcomes) {
+        List<AlertBatchItemResponse> items = new ArrayList<>(outcomes.size());
+        int accepted = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            AlertWriteOutcome outcome = outcomes.get(i);
+            if (outcome.error() == null) {
+                accepted++;
+                items.add(AlertBatchItemResponse.builder()
+                        .index(i)
+                        .success(true)
+                        .alert(outcome.alert())
+                        .duplicate(outcome.duplicate() ? Boolean.TRUE : null)
+                        .build());
+            } else {
+                items.add(AlertBatchItemResponse.builder()
+                        .index(i)
+                        .success(false)
+                        .code(outcome.error().getCode())
+                        .message(
+                                outcome.detail() != null
+                                        ? outcome.detail()
+                                        : outcome.error().getMessage())
+                        .build());
+            }
+        }
+
+        return AlertBatchResponse.builder()
+                .accepted(accepted)
+                .rejected(outcomes.size() - accepted)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Luồng ghi chung cho create đơn lẻ và batch.
+     * Kết quả trả về giữ đúng thứ tự của requests.
+     *
+     * @param admit có áp dụng AlertAdmissionControl (rate limit theo camera, ngưỡng confidence) hay không
+     */
+    private List<AlertWriteOutcome> writeBatch(List<AlertCreationRequest> requests, boolean admit) {
+        AlertWriteOutcome[] outcomes = new AlertWriteOutcome[requests.size()];
+
+        // 1. Validate từng phần tử
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            AlertWriteOutcome rejected = validate(requests.get(i));
+            if (rejected != null) {
+                outcomes[i] = rejected;
+            } else {
+                validIndexes.add(i);
+            }
+        }
+
+        // 2. Idempotency: eventId đã xử lý -> trả lại alert gốc, không đi vào luồng ghi.
+        //    Trùng eventId ngay trong batch -> chỉ ghi phần tử đầu tiên.
+        Map<EventKey, Integer> firstIndexByEvent = new HashMap<>();
+        Map<Integer, Integer> batchDuplicates = new HashMap<>();
+        for (int i : validIndexes) {
+            AlertCreationRequest request = requests.get(i);
+            if (request.getEventId() != null) {
+                Integer first =
+                        firstIndexByEvent.putIfAbsent(new EventKey(request.getProjectId(), request.getEventId()), i);
+                if (first != null) {
+                    batchDuplicates.put(i, first);
+                }
+            }
+        }
+        if (!firstIndexByEvent.isEmpty()) {
+            eventDeduplicator
+                    .findExisting(firstIndexByEvent.keySet())
+                    .forEach((key, alert) -> outcomes[firstIndexByEvent.get(key)] = AlertWriteOutcome.duplicate(alert));
+            validIndexes.removeIf(i -> outcomes[i] != null || batchDuplicates.containsKey(i));
+        }
+
+        // 3. Rate limit theo camera + ngưỡng confidence (sau bước 2: replay của thiết bị không tốn token)
+        if (admit) {
+            validIndexes.removeIf(i -> {
+                ErrorCode rejected = admissionControl.check(requests.get(i));
+                if (rejected != null) {
+                    outcomes[i] = AlertWriteOutcome.failed(rejected);
+                }
+                return rejected != null;
+            });
+        }
+
+        // 4. Load Project/Camera 1 lần cho cả batch
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> cameraIds = new HashSet<>();
+        for (int i : validIndexes) {
+            projectIds.add(requests.get(i).getProjectId());
+            if (requests.get(i).getCameraId() != null) {
+                cameraIds.add(requests.get(i).getCameraId());
+            }
+        }
+        //    (qua cache: chỉ cần biết id tồn tại, entity gắn vào alert là reference không query)
+        Map<Long, ProjectReference> projects = referenceCache.getProjects(projectIds);
+        Map<Long, CameraReference> cameras = referenceCache.getCameras(cameraIds);
 
-        Alert alert = alertMapper.toAlert(request, project, camera);
+        Map<String, Integer> typeIds = new HashMap<>();
+        List<Alert> pending = new ArrayList<>(validIndexes.size());
+        List<Integer> pendingIndexes = new ArrayList<>(validIndexes.size());
+        for (int i : validIndexes) {
+            AlertCreationRequest request = requests.get(i);
 
+            if (!projects.containsKey(request.getProjectId())) {
+                outcomes[i] = AlertWriteOutcome.failed(ErrorCode.PROJECT_NOT_FOUND);
+                continue;
+            }
+            Project project = projectRepository.getReferenceById(request.getProjectId());
+
+            Camera camera = null;
+            if (request.getCameraId() != null) {
+                // Camera của project khác coi như không tồn tại trong project này
+                CameraReference cameraReference = cameras.get(request.getCameraId());
+                if (cameraReference == null || !request.getProjectId().equals(cameraReference.projectId())) {
+                    outcomes[i] = AlertWriteOutcome.failed(ErrorCode.CAMERA_NOT_FOUND);
+                    continue;
+                }
+                camera = cameraRepository.getReferenceById(request.getCameraId());
+            }
+
+            Alert alert = alertMapper.toAlert(request, project, camera);
+            alert.setTypeId(typeIds.computeIfAbsent(request.getType(), alertTypeInterner::intern));
+            pending.add(alert);
+            pendingIndexes.add(i);
+        }
+
+        if (pending.isEmpty()) {
+            return resolveBatchDuplicates(outcomes, batchDuplicates);
+        }
+
+        // 5. Insert (flush để các lỗi constraint lộ ra tại đây)
+        List<Alert> savedAlerts;
         try {
-            Alert savedAlert = alertRepository.save(alert);
-            handleNotificationTrigger(savedAlert);
-            return alertMapper.toAlert(savedAlert);
+            savedAlerts = alertRepository.saveAll(pending);
+            alertRepository.flush();
         } catch (DataIntegrityViolationException ex) {
+            // 2 request đồng thời cùng eventId vượt qua bước kiểm tra -> client retry sẽ nhận bản gốc
+            if (isEventIdConflict(ex)) {
+                throw new AppException(ErrorCode.ALERT_EVENT_CONFLICT);
+            }
+            log.error("Could not insert batch of {} alerts", pending.size(), ex);
             throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION);
         }
+
+        // 6. Cập nhật bộ đếm alert NEW + thông báo: mỗi key (project/camera/type) chỉ xét 1 lần trong batch.
+        //    TreeMap để các batch đồng thời luôn khóa các dòng counter theo cùng thứ tự (tránh deadlock).
+        Map<String, List<Alert>> newAlertsByKey = savedAlerts.stream()
+                .filter(alert -> alert.getAlertStatus() == AlertStatus.NEW)
+                .collect(Collectors.groupingBy(this::notificationKey, TreeMap::new, Collectors.toList()));
+        newAlertsByKey.forEach((key, group) -> {
+            Alert first = group.get(0);
+            openCounterService.increment(first.getProject().getId(), cameraIdOf(first), first.getType(), group.size());
+        });
+        newAlertsByKey.forEach((key, group) -> handleNotificationTrigger(group.get(0), key, group.size()));
+        statsRollupService.onCreated(savedAlerts);
+
+        Map<EventKey, AlertResponse> createdEvents = new HashMap<>();
+        for (int j = 0; j < savedAlerts.size(); j++) {
+            AlertResponse response = alertMapper.toAlert(savedAlerts.get(j));
+            outcomes[pendingIndexes.get(j)] = AlertWriteOutcome.created(response);
+            if (response.getEventId() != null) {
+                createdEvents.put(new EventKey(response.getProjectId(), response.getEventId()), response);
+            }
+        }
+        eventDeduplicator.rememberAfterCommit(createdEvents);
+        alertEventPublisher.publishAfterCommit(AlertChangedEvent.Kind.CREATED, savedAlerts);
+        return resolveBatchDuplicates(outcomes, batchDuplicates);
     }
 
-    private void handleNotificationTrigger(Alert alert) {
-        if (alert.getAlertStatus() != AlertStatus.NEW) {
-            return;
+    private List<AlertWriteOutcome> resolveBatchDuplicates(
+            AlertWriteOutcome[] outcomes, Map<Integer, Integer> batchDuplicates) {
+        batchDuplicates.forEach((index, first) -> {
+            AlertWriteOutcome original = outcomes[first];
+            outcomes[index] = original.error() == null ? AlertWriteOutcome.duplicate(original.alert()) : original;
+        });
+        return Arrays.asList(outcomes);
+    }
+
+    private static boolean isEventIdConflict(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null) {
+                return violation.getConstraintName().endsWith(Alert.EVENT_ID_CONSTRAINT);
+            }
+        }
+        // Không rõ tên constraint: dựa vào thông báo lỗi của driver
+        return ex.getMessage() != null && ex.getMessage().contains(Alert.EVENT_ID_CONSTRAINT);
+    }
+
+    private AlertWriteOutcome validate(AlertCreationRequest request) {
+        if (request == null) {
+            return AlertWriteOutcome.failed(ErrorCode.INVALID_KEY);
+        }
+
+        Set<ConstraintViolation<AlertCreationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<AlertCreationRequest> violation =
+                    violations.iterator().next();
+            ErrorCode errorCode = ErrorCode.INVALID_KEY;
+            try {
+                errorCode = ErrorCode.valueOf(violation.getMessage());
+            } catch (IllegalArgumentException e) {
+                // message không phải ErrorCode -> giữ INVALID_KEY
+            }
+            return AlertWriteOutcome.failed(errorCode, violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+
+        try {
+            AlertSeverity.valueOf(request.getSeverity());
+        } catch (IllegalArgumentException e) {
+            return AlertWriteOutcome.failed(ErrorCode.INVALID_ALERT_SEVERITY);
         }
+        return null;
+    }
 
-        String lockKey = String.format(
+    private String notificationKey(Alert alert) {
+        return String.format(
                 "notify_lock:proj_%d:cam_%d:%s",
                 alert.getProject().getId(),
                 alert.getCamera() != null ? alert.getCamera().getId() : 0,
                 alert.getType());
+    }
+
+    private Long cameraIdOf(Alert alert) {
+        return alert.getCamera() != null ? alert.getCamera().getId() : null;
+    }
 
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(lockKey))) {
-            log.warn("Notification SPAM suppressed (Redis Debounce) for: {}", lockKey);
+    /**
+     * @param batchSiblings số alert NEW cùng key vừa được insert trong batch hiện tại
+     */
+    private void handleNotificationTrigger(Alert alert, String lockKey, int batchSiblings) {
+        if (alert.getAlertStatus() != AlertStatus.NEW) {
             return;
         }
 
-        Specification<Alert> spec = Specification.allOf(
-                AlertSpecification.withProjectId(alert.getProject().getId()),
-                AlertSpecification.withCameraId(
-                        alert.getCamera() != null ? alert.getCamera().getId() : null),
-                AlertSpecification.withType(alert.getType()),
-                AlertSpecification.withStatus("NEW"));
-
-        long openAlertsCount = alertRepository.count(spec);
-        if (openAlertsCount > 1) {
+        // Kiểm tra alert đang mở trước: alert bị chặn ở đây không được chiếm cửa sổ debounce
+        long openAlertsCount =
+                openCounterService.getOpenCount(alert.getProject().getId(), cameraIdOf(alert), alert.getType());
+        if (openAlertsCount > batchSiblings) {
             log.warn("Notification suppressed (Status Check), user already has an open alert for: {}", lockKey);
             return;
         }
 
+        // SET NX PX: 1 round trip, atomic -> 2 alert đồng thời không cùng gửi thông báo
+        if (!notificationDebouncer.tryAcquire(lockKey, alert.getType(), alert.getSeverity())) {
+            log.warn("Notification SPAM suppressed (Debounce) for: {}", lockKey);
+            return;
+        }
+
         log.info("Triggering new notification for: {}", lockKey);
-        redisTemplate.opsForValue().set(lockKey, "locked", 2, TimeUnit.MINUTES);
         notificationService.createNotificationForAlert(alert);
     }
 
+    private record AlertWriteOutcome(AlertResponse alert, boolean duplicate, ErrorCode error, String detail) {
+        static AlertWriteOutcome created(AlertResponse alert) {
+            return new AlertWriteOutcome(alert, false, null, null);
+        }
+
+        static AlertWriteOutcome duplicate(AlertResponse alert) {
+            return new AlertWriteOutcome(alert, true, null, null);
+        }
+
+        static AlertWriteOutcome failed(ErrorCode error) {
+            return new AlertWriteOutcome(null, false, error, null);
+        }
+
+        static AlertWriteOutcome failed(ErrorCode error, String detail) {
+            return new AlertWriteOutcome(null, false, error, detail);
+        }
+    }
+
     /**
      * 🔍 GET ALERT BY ID (theo Project)
      * - Dành cho Admin, Manager, Supervisor
@@ -120,27 +403,176 @@ public class AlertService {
                 .orElseThrow(() -> new AppException(ErrorCode.ALERT_NOT_FOUND));
     }
 
+    /**
+     * Cùng quyền với searchAlerts*: cho nơi trả kết quả tìm kiếm đã cache mà không gọi lại các hàm đó.
+     */
+    @PreAuthorize("hasAnyAuthority('ALERT_READ', 'ALERT_MANAGE_ALL')")
+    public void checkSearchAccess() {
+        // Chỉ để @PreAuthorize kiểm tra
+    }
+
     /**
      * 📑 SEARCH ALERTS
      * - Chỉ ADMIN và MANAGER có quyền xem toàn bộ cảnh báo.
      */
     @Transactional(readOnly = true)
     @PreAuthorize("hasAnyAuthority('ALERT_READ', 'ALERT_MANAGE_ALL')")
-    public Page<AlertResponse> searchAlerts(AlertSearchRequest searchRequest, Pageable pageable) {
+    public Page<AlertResponse> searchAlerts(AlertSearchRequest searchRequest, Pageable pageable, String fields) {
         log.info("Service: Searching alerts");
 
-        Specification<Alert> spec = Specification.allOf(
-                AlertSpecification.withProjectId(searchRequest.getProjectId()),
-                AlertSpecification.withCameraId(searchRequest.getCameraId()),
-                AlertSpecification.withType(searchRequest.getType()),
-                AlertSpecification.withSeverity(searchRequest.getSeverity()),
-                AlertSpecification.withStatus(searchRequest.getAlertStatus()),
-                AlertSpecification.withConfidenceRange(
-                        searchRequest.getMinConfidence(), searchRequest.getMaxConfidence()),
-                AlertSpecification.withHappenedTimeRange(
-                        searchRequest.getHappenedAfter(), searchRequest.getHappenedBefore()));
+        Specification<Alert> spec = buildSearchSpecification(searchRequest);
+        Set<String> selected = parseListFields(fields, "id");
+
+        // Projection: chỉ các cột của list, metadata/reviewNote chỉ nạp ở API xem chi tiết 1 alert
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(alertRepository.findListItems(spec, pageable.getSort(), 0, -1, selected));
+        }
+        // Khoảng thời gian nằm trong cửa sổ gần đây: lọc/đếm trong bộ nhớ, DB chỉ lấy các dòng của trang theo id
+        Optional<RecentAlertIndex.Hits> hits = recentAlertIndex.search(
+                searchRequest, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        if (hits.isPresent()) {
+            return new PageImpl<>(
+                    findListItemsInOrder(hits.get().ids(), selected),
+                    pageable,
+                    hits.get().total());
+        }
+        List<AlertResponse> content = alertRepository.findListItems(
+                spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), selected);
+        return PageableExecutionUtils.getPage(content, pageable, () -> alertRepository.count(spec));
+    }
+
+    /**
+     * 📑 SEARCH ALERTS (CURSOR)
+     * - Cùng bộ lọc với searchAlerts nhưng phân trang keyset trên (happenedAt, id) giảm dần:
+     *   không OFFSET, không COUNT(*) -> trang sâu nhanh như trang đầu.
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyAuthority('ALERT_READ', 'ALERT_MANAGE_ALL')")
+    public CursorPageResponse<AlertResponse> searchAlertsByCursor(
+            AlertSearchRequest searchRequest, String cursor, int size, String fields) {
+        // happenedAt + id luôn được lấy: cần để tạo nextCursor
+        Set<String> selected = parseListFields(fields, "id", "happenedAt");
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        AlertSeekCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = AlertSeekCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new AppException(ErrorCode.INVALID_ALERT_CURSOR);
+            }
+        }
+
+        Specification<Alert> spec = buildSearchSpecification(searchRequest)
+                .and(AlertSpecification.beforeCursor(
+                        after != null ? after.happenedAt() : null, after != null ? after.id() : null));
+
+        // Lấy dư 1 dòng để biết còn trang sau hay không
+        List<AlertResponse> rows = alertRepository.findListItems(
+                spec, Sort.by(Sort.Direction.DESC, "happenedAt", "id"), 0, pageSize + 1, selected);
+        boolean hasNext = rows.size() > pageSize;
+        List<AlertResponse> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AlertResponse last = page.get(page.size() - 1);
+            nextCursor = new AlertSeekCursor(last.getHappenedAt(), last.getId()).encode();
+        }
+        return CursorPageResponse.<AlertResponse>builder()
+                .content(page)
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 📑 SEARCH ALERTS (SLICE)
+     * - Như searchAlerts nhưng chỉ lấy thêm 1 dòng để biết có trang sau, không COUNT(*) toàn bộ.
+     * - total: NONE (không đếm), CAPPED (đếm tối đa SEARCH_TOTAL_CAP dòng), EXACT (COUNT(*) như Page).
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyAuthority('ALERT_READ', 'ALERT_MANAGE_ALL')")
+    public SliceResponse<AlertResponse> searchAlertsSlice(
+            AlertSearchRequest searchRequest, Pageable pageable, SearchTotalMode totalMode, String fields) {
+        Specification<Alert> spec = buildSearchSpecification(searchRequest);
+        Set<String> selected = parseListFields(fields, "id");
+        Sort sort =
+                pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(Sort.Direction.DESC, "happenedAt", "id");
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+
+        Optional<RecentAlertIndex.Hits> hits =
+                recentAlertIndex.search(searchRequest, sort, sortedPageable.getOffset(), sortedPageable.getPageSize());
+        if (hits.isPresent()) {
+            long total = hits.get().total();
+            SliceResponse.SliceResponseBuilder<AlertResponse> response = SliceResponse.<AlertResponse>builder()
+                    .content(findListItemsInOrder(hits.get().ids(), selected))
+                    .page(sortedPageable.getPageNumber())
+                    .size(sortedPageable.getPageSize())
+                    .hasNext(total > sortedPageable.getOffset() + sortedPageable.getPageSize());
+            // Tổng đếm trong bộ nhớ là chính xác, CAPPED cũng chỉ cắt ở SEARCH_TOTAL_CAP
+            if (totalMode == SearchTotalMode.EXACT) {
+                response.totalElements(total).totalCapped(false);
+            } else if (totalMode == SearchTotalMode.CAPPED) {
+                response.totalElements(Math.min(total, SEARCH_TOTAL_CAP)).totalCapped(total > SEARCH_TOTAL_CAP);
+            }
+            return response.build();
+        }
+
+        List<AlertResponse> rows = alertRepository.findListItems(
+                spec, sort, sortedPageable.getOffset(), sortedPageable.getPageSize() + 1, selected);
+        boolean hasNext = rows.size() > sortedPageable.getPageSize();
+        Slice<AlertResponse> slice = new SliceImpl<>(
+                hasNext ? rows.subList(0, sortedPageable.getPageSize()) : rows, sortedPageable, hasNext);
+
+        SliceResponse.SliceResponseBuilder<AlertResponse> response = SliceResponse.<AlertResponse>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext());
 
-        return alertRepository.findAll(spec, pageable).map(alertMapper::toAlert);
+        // Như PageableExecutionUtils: chỉ suy ra tổng ở trang cuối có dữ liệu (hoặc trang đầu rỗng);
+        // trang rỗng sau trang cuối không cho biết tổng -> vẫn đếm
+        boolean totalKnown = !slice.hasNext() && (slice.hasContent() || sortedPageable.getOffset() == 0);
+        long seen = sortedPageable.getOffset() + slice.getNumberOfElements();
+        if (totalMode == SearchTotalMode.EXACT) {
+            response.totalElements(totalKnown ? seen : alertRepository.count(spec))
+                    .totalCapped(false);
+        } else if (totalMode == SearchTotalMode.CAPPED) {
+            if (totalKnown) {
+                response.totalElements(seen).totalCapped(false);
+            } else {
+                long counted = alertRepository.countUpTo(spec, SEARCH_TOTAL_CAP + 1);
+                response.totalElements(Math.min(counted, SEARCH_TOTAL_CAP)).totalCapped(counted > SEARCH_TOTAL_CAP);
+            }
+        }
+        return response.build();
+    }
+
+    // Lấy theo khóa chính rồi giữ đúng thứ tự ids (alert vừa bị xóa sẽ không có trong kết quả)
+    private List<AlertResponse> findListItemsInOrder(List<Long> ids, Set<String> selected) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, AlertResponse> byId =
+                alertRepository
+                        .findListItems(AlertSpecification.withIds(ids), Sort.unsorted(), 0, -1, selected)
+                        .stream()
+                        .collect(Collectors.toMap(AlertResponse::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    // ?fields=type,severity -> chỉ SELECT + trả về các trường đó (cộng các trường required); trống -> mặc định
+    static Set<String> parseListFields(String fields, String... required) {
+        try {
+            return AlertRepositoryCustom.LIST_PROJECTION.parse(
+                    fields, AlertRepositoryCustom.DEFAULT_LIST_FIELDS, required);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_FIELDS);
+        }
+    }
+
+    private Specification<Alert> buildSearchSpecification(AlertSearchRequest searchRequest) {
+        return AlertSpecification.matching(searchRequest, alertTypeInterner.filterId(searchRequest));
     }
 
     /**
@@ -158,12 +590,16 @@ public class AlertService {
                 .findById(request.getReviewerId())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
 
+        AlertStatus oldStatus = alert.getAlertStatus();
         alert.setReviewer(reviewer);
         alert.setAlertStatus(request.getAlertStatus());
         alert.setReviewNote(request.getReviewNote());
+        openCounterService.onStatusChange(alert, oldStatus, alert.getAlertStatus());
+        statsRollupService.onStatusChange(alert, oldStatus, alert.getAlertStatus());
 
         alert = alertRepository.save(alert);
-        return alertMapper.toAlert(alert);
+        alertEventPublisher.publishAfterCommit(AlertChangedEvent.Kind.UPDATED, alert, oldStatus);
+        return rememberReviewed(alert);
     }
 
     /**
@@ -179,12 +615,26 @@ public class AlertService {
                 .findById(request.getReviewerId())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
 
+        AlertStatus oldStatus = alert.getAlertStatus();
         alert.setReviewer(reviewer);
         alert.setAlertStatus(request.getAlertStatus());
         alert.setReviewNote(request.getReviewNote());
+        openCounterService.onStatusChange(alert, oldStatus, alert.getAlertStatus());
+        statsRollupService.onStatusChange(alert, oldStatus, alert.getAlertStatus());
 
         alert = alertRepository.save(alert);
-        return alertMapper.toAlert(alert);
+        alertEventPublisher.publishAfterCommit(AlertChangedEvent.Kind.UPDATED, alert, oldStatus);
+        return rememberReviewed(alert);
+    }
+
+    // Client gửi lại eventId sau khi alert đã được review phải nhận trạng thái mới
+    private AlertResponse rememberReviewed(Alert alert) {
+        AlertResponse response = alertMapper.toAlert(alert);
+        if (alert.getEventId() != null) {
+            eventDeduplicator.rememberAfterCommit(
+                    Map.of(new EventKey(alert.getProject().getId(), alert.getEventId()), response));
+        }
+        return response;
     }
 
     /**
@@ -211,6 +661,12 @@ public class AlertService {
     public void deleteAlert(Long alertId) {
         Alert alert = alertRepository.findById(alertId).orElseThrow(() -> new AppException(ErrorCode.ALERT_NOT_FOUND));
         alertRepository.delete(alert);
+        if (alert.getEventId() != null) {
+            eventDeduplicator.forgetAfterCommit(new EventKey(alert.getProject().getId(), alert.getEventId()));
+        }
+        openCounterService.onStatusChange(alert, alert.getAlertStatus(), null);
+        statsRollupService.onStatusChange(alert, alert.getAlertStatus(), null);
+        alertEventPublisher.publishAfterCommit(AlertChangedEvent.Kind.DELETED, List.of(alert));
         log.info("Deleted alert id {}", alertId);
     }
 }
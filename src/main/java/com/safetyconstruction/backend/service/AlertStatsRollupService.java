@@ -0,0 +1,466 @@
+package com.safetyconstruction.backend.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.safetyconstruction.backend.configuration.AlertStatsRollupProperties;
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.response.AlertStatsRollupCheckResponse;
+import com.safetyconstruction.backend.dto.response.AlertStatsRollupStatusResponse;
+import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.entity.AlertStatsHourly;
+import com.safetyconstruction.backend.entity.AlertStatsHourlyId;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.StatisticGroup;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.repository.AlertRepository;
+import com.safetyconstruction.backend.repository.AlertStatsHourlyRepository;
+import com.safetyconstruction.backend.repository.AlertStatsHourlyRepositoryCustom;
+import com.safetyconstruction.backend.specification.AlertSpecification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Duy trì alert_stats_hourly và quyết định khi nào thống kê được trả lời từ bảng này.
+ * - Ghi: cùng transaction với create / review / delete alert (các dòng được khóa theo LOCK_ORDER).
+ * - Đọc: các giờ trọn vẹn trong khoảng happenedAfter..happenedBefore lấy từ rollup, phần lẻ 2 đầu
+ *   (tối đa 2 giờ, có index happened_at) đếm thẳng trên bảng alerts. Lọc theo confidence hoặc type CONTAINS
+ *   không có trong khóa rollup nên vẫn đọc bảng alerts.
+ */
+@Service
+@Slf4j
+public class AlertStatsRollupService {
+
+    private static final int MAX_MISMATCH_SAMPLES = 20;
+
+    private final AlertStatsHourlyRepository statsRepository;
+    private final AlertRepository alertRepository;
+    private final AlertTypeInterner alertTypeInterner;
+    private final AlertTypeBackfill alertTypeBackfill;
+    private final AlertStatsRollupProperties properties;
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate readOnly;
+    private final Counter mismatchCounter;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // false đến khi rollup phủ tới alert cũ nhất (lần đầu triển khai: sau khi backfill xong)
+    private volatile boolean ready;
+    private volatile Instant lastRebuildAt;
+    private volatile Instant lastCheckAt;
+    private volatile Long lastCheckMismatches;
+
+    public AlertStatsRollupService(
+            AlertStatsHourlyRepository statsRepository,
+            AlertRepository alertRepository,
+            AlertTypeInterner alertTypeInterner,
+            AlertTypeBackfill alertTypeBackfill,
+            AlertStatsRollupProperties properties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.statsRepository = statsRepository;
+        this.alertRepository = alertRepository;
+        this.alertTypeInterner = alertTypeInterner;
+        this.alertTypeBackfill = alertTypeBackfill;
+        this.properties = properties;
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.mismatchCounter = Counter.builder("alert.stats.rollup.mismatches")
+                .description("Số nhóm alert_stats_hourly lệch với bảng alerts khi đối soát")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cách trả lời 1 bộ lọc: rollup cho các giờ trọn vẹn + các spec trên bảng alerts cho phần lẻ 2 đầu.
+     */
+    public record Plan(AlertStatsHourlyRepositoryCustom.Filter rollup, List<Specification<Alert>> edges) {}
+
+    // --- GHI (trong transaction của AlertService) ---
+
+    @Transactional
+    public void onCreated(Collection<Alert> alerts) {
+        Map<AlertStatsHourlyId, Long> deltas = new TreeMap<>(AlertStatsHourlyId.LOCK_ORDER);
+        for (Alert alert : alerts) {
+            deltas.merge(AlertStatsHourlyId.of(alert, alert.getAlertStatus()), 1L, Long::sum);
+        }
+        deltas.forEach(this::increment);
+    }
+
+    /**
+     * Gọi khi trạng thái alert thay đổi (review) hoặc alert bị xóa (newStatus = null).
+     */
+    @Transactional
+    public void onStatusChange(Alert alert, AlertStatus oldStatus, AlertStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        Map<AlertStatsHourlyId, Long> deltas = new TreeMap<>(AlertStatsHourlyId.LOCK_ORDER);
+        if (oldStatus != null) {
+            deltas.put(AlertStatsHourlyId.of(alert, oldStatus), -1L);
+        }
+        if (newStatus != null) {
+            deltas.put(AlertStatsHourlyId.of(alert, newStatus), 1L);
+        }
+        deltas.forEach(this::increment);
+    }
+
+    private void increment(AlertStatsHourlyId id, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        statsRepository.increment(
+                id.getProjectId(),
+                id.getCameraId(),
+                id.getTypeId(),
+                id.getSeverity().name(),
+                id.getAlertStatus().name(),
+                id.getHourStart(),
+                delta);
+    }
+
+    // --- ĐỌC ---
+
+    /**
+     * @return rỗng nếu bộ lọc phải đọc bảng alerts (rollup tắt / chưa sẵn sàng, lọc confidence, type CONTAINS,
+     *     giá trị enum không hợp lệ, hoặc khoảng thời gian không chứa giờ trọn vẹn nào)
+     */
+    public Optional<Plan> plan(AlertSearchRequest request) {
+        if (!properties.isEnabled()
+                || !ready
+                || request.getMinConfidence() != null
+                || request.getMaxConfidence() != null) {
+            return Optional.empty();
+        }
+        boolean hasType = StringUtils.hasText(request.getType());
+        if (hasType && request.getTypeMatch() == TypeMatch.CONTAINS) {
+            return Optional.empty();
+        }
+        AlertSeverity severity = null;
+        if (StringUtils.hasText(request.getSeverity())) {
+            severity = AlertSpecification.parseEnum(AlertSeverity.class, request.getSeverity());
+            if (severity == null) {
+                return Optional.empty();
+            }
+        }
+        AlertStatus alertStatus = null;
+        if (StringUtils.hasText(request.getAlertStatus())) {
+            alertStatus = AlertSpecification.parseEnum(AlertStatus.class, request.getAlertStatus());
+            if (alertStatus == null) {
+                return Optional.empty();
+            }
+        }
+
+        // happenedAfter / happenedBefore đều là cận đóng (như withHappenedTimeRange)
+        Instant after = request.getHappenedAfter();
+        Instant before = request.getHappenedBefore();
+        Instant fromHour = after != null ? ceilHour(after) : null;
+        Instant toHour = before != null ? AlertStatsHourlyId.hourOf(before) : null;
+        if (fromHour != null && toHour != null && !fromHour.isBefore(toHour)) {
+            return Optional.empty();
+        }
+
+        Integer typeId = alertTypeInterner.filterId(request);
+        Specification<Alert> filters = Specification.allOf(
+                AlertSpecification.withProjectId(request.getProjectId()),
+                AlertSpecification.withCameraId(request.getCameraId()),
+                AlertSpecification.withType(request.getType(), request.getTypeMatch(), typeId),
+                AlertSpecification.withSeverity(request.getSeverity()),
+                AlertSpecification.withStatus(request.getAlertStatus()));
+        List<Specification<Alert>> edges = new ArrayList<>(2);
+        if (after != null && after.isBefore(fromHour)) {
+            edges.add(filters.and(AlertSpecification.withHappenedInRange(after, fromHour)));
+        }
+        if (before != null) {
+            edges.add(filters.and(AlertSpecification.withHappenedTimeRange(toHour, before)));
+        }
+
+        return Optional.of(new Plan(
+                new AlertStatsHourlyRepositoryCustom.Filter(
+                        request.getProjectId(), request.getCameraId(), typeId, severity, alertStatus, fromHour, toHour),
+                edges));
+    }
+
+    public boolean isReady() {
+        return properties.isEnabled() && ready;
+    }
+
+    @Transactional(readOnly = true)
+    public List<StatisticResponse> countGrouped(Plan plan, StatisticGroup group) {
+        return statsRepository.countGrouped(plan.rollup(), group);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AlertDashboardBucket> aggregateDashboard(Plan plan) {
+        return statsRepository.aggregateDashboard(plan.rollup());
+    }
+
+    // --- REBUILD / ĐỐI SOÁT ---
+
+    // Rebuild trước khi backfill type_id xong sẽ ghi alert cũ vào nhóm type -1 và không bao giờ được sửa
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        alertTypeBackfill.completion().whenComplete((backfilled, error) -> Thread.ofVirtual()
+                .name("alert-stats-rollup-init")
+                .start(() -> initialize(backfilled, error)));
+    }
+
+    void initialize(Long backfilled, Throwable backfillError) {
+        try {
+            refreshReadiness();
+            if (backfillError != null) {
+                log.warn("alert type_id backfill failed, alert_stats_hourly is not rebuilt on startup");
+                return;
+            }
+            // Backfill vừa gán type_id cho alert cũ: nhóm -1 của chúng trong rollup không còn đúng
+            boolean stale = backfilled != null && backfilled > 0;
+            if ((!ready || stale) && properties.isRebuildOnStartup() && rebuilding.compareAndSet(false, true)) {
+                ready = false;
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            } else if (stale) {
+                log.warn("{} alerts got a type_id but rebuild-on-startup is disabled, rebuild manually", backfilled);
+            }
+        } catch (Exception e) {
+            log.error("Alert stats rollup initialization failed, statistics read the alerts table", e);
+        }
+    }
+
+    /**
+     * 🔁 Tính lại toàn bộ alert_stats_hourly từ bảng alerts (chạy nền), mỗi chunk 1 transaction.
+     * Alert được ghi trong lúc rebuild vẫn đúng: chunk xóa + INSERT ... SELECT cùng transaction với khóa của MySQL.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public void startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new AppException(ErrorCode.STATS_ROLLUP_REBUILD_RUNNING);
+        }
+        Thread.ofVirtual().name("alert-stats-rollup-rebuild").start(() -> {
+            try {
+                // Như lúc khởi động: chờ backfill type_id (lỗi thì vẫn rebuild với dữ liệu hiện có)
+                alertTypeBackfill.completion().exceptionally(error -> null).join();
+                rebuild();
+            } catch (Exception e) {
+                log.error("Alert stats rollup rebuild failed", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    private void rebuild() {
+        long startedAt = System.nanoTime();
+        Instant first = alertRepository.findFirstHappenedAt();
+        if (first == null) {
+            readWrite.executeWithoutResult(status -> statsRepository.deleteAllInBatch());
+        } else {
+            Instant last = alertRepository.findLastHappenedAt();
+            Instant from = AlertStatsHourlyId.hourOf(first);
+            Instant to = AlertStatsHourlyId.hourOf(last.isAfter(Instant.now()) ? last : Instant.now())
+                    .plus(1, ChronoUnit.HOURS);
+            readWrite.executeWithoutResult(status -> statsRepository.deleteHoursBefore(from));
+
+            // Từ mới về cũ: giờ cũ nhất được ghi sau cùng, nên refreshReadiness chỉ thấy "đủ" khi rebuild xong
+            Duration chunk = chunk();
+            for (Instant end = to; end.isAfter(from); end = end.minus(chunk)) {
+                Instant chunkEnd = end;
+                Instant chunkStart = end.minus(chunk).isBefore(from) ? from : end.minus(chunk);
+                readWrite.executeWithoutResult(status -> {
+                    statsRepository.deleteHours(chunkStart, chunkEnd);
+                    statsRepository.insertFromAlerts(chunkStart, chunkEnd);
+                });
+            }
+        }
+        lastRebuildAt = Instant.now();
+        ready = true;
+        log.info(
+                "Rebuilt alert_stats_hourly in {} ms",
+                Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+    }
+
+    void refreshReadiness() {
+        Instant firstAlert = alertRepository.findFirstHappenedAt();
+        Instant firstHour = statsRepository.findFirstHour();
+        ready = firstAlert == null || (firstHour != null && !firstHour.isAfter(AlertStatsHourlyId.hourOf(firstAlert)));
+    }
+
+    /**
+     * 🔍 So alert_stats_hourly với số đếm trên bảng alerts trong [from, to) (làm tròn ra theo giờ).
+     * Mặc định là checkWindow gần nhất; repair = true thì sửa các nhóm lệch.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public AlertStatsRollupCheckResponse check(Instant from, Instant to, boolean repair) {
+        Instant end = to != null ? ceilHour(to) : currentHourEnd();
+        Instant start = from != null ? AlertStatsHourlyId.hourOf(from) : end.minus(properties.getCheckWindow());
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(properties.getMaxCheckRange()) > 0) {
+            throw new AppException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        return verify(start, end, repair);
+    }
+
+    @Scheduled(
+            initialDelayString = "${alert.stats-rollup.check-initial-delay:PT5M}",
+            fixedDelayString = "${alert.stats-rollup.check-interval:PT30M}")
+    void scheduledCheck() {
+        if (rebuilding.get()) {
+            return;
+        }
+        try {
+            if (!ready) {
+                refreshReadiness();
+            }
+            Instant end = currentHourEnd();
+            verify(AlertStatsHourlyId.hourOf(end.minus(properties.getCheckWindow())), end, properties.isRepair());
+        } catch (Exception e) {
+            log.warn("Alert stats rollup check failed", e);
+        }
+    }
+
+    private AlertStatsRollupCheckResponse verify(Instant from, Instant to, boolean repair) {
+        long checked = 0;
+        List<AlertStatsRollupCheckResponse.Mismatch> mismatches = new ArrayList<>();
+        TransactionTemplate template = repair ? readWrite : readOnly;
+        Duration chunk = chunk();
+        for (Instant start = from; start.isBefore(to); start = start.plus(chunk)) {
+            Instant chunkStart = start;
+            Instant chunkEnd = start.plus(chunk).isAfter(to) ? to : start.plus(chunk);
+            Map<AlertStatsHourlyId, long[]> counts =
+                    template.execute(status -> compareHours(chunkStart, chunkEnd, repair));
+            checked += counts.size();
+            counts.forEach((id, count) -> {
+                if (count[0] != count[1]) {
+                    mismatches.add(toMismatch(id, count));
+                }
+            });
+        }
+
+        lastCheckAt = Instant.now();
+        lastCheckMismatches = (long) mismatches.size();
+        if (!mismatches.isEmpty()) {
+            mismatchCounter.increment(mismatches.size());
+            log.warn(
+                    "alert_stats_hourly differs from alerts in {} buckets between {} and {}{}",
+                    mismatches.size(),
+                    from,
+                    to,
+                    repair ? " (repaired)" : "");
+        }
+        return AlertStatsRollupCheckResponse.builder()
+                .from(from)
+                .to(to)
+                .checkedBuckets(checked)
+                .mismatchedBuckets(mismatches.size())
+                .repaired(repair && !mismatches.isEmpty())
+                .samples(mismatches.subList(0, Math.min(mismatches.size(), MAX_MISMATCH_SAMPLES)))
+                .build();
+    }
+
+    /**
+     * @return nhóm -> [số đếm từ alerts, số trong rollup]. Cả 2 lần đọc nằm trong 1 transaction
+     *     (REPEATABLE READ của MySQL: cùng snapshot) và được sửa bằng delta, nên alert ghi đồng thời
+     *     không làm đối soát báo lệch giả hoặc bị ghi đè.
+     */
+    private Map<AlertStatsHourlyId, long[]> compareHours(Instant from, Instant to, boolean repair) {
+        Map<AlertStatsHourlyId, long[]> counts = new TreeMap<>(AlertStatsHourlyId.LOCK_ORDER);
+        for (Object[] row : statsRepository.countAlertsHourly(from, to)) {
+            counts.computeIfAbsent(toId(row), id -> new long[2])[0] = ((Number) row[6]).longValue();
+        }
+        for (AlertStatsHourly stats : statsRepository.findHours(from, to)) {
+            counts.computeIfAbsent(stats.getId(), id -> new long[2])[1] = stats.getAlertCount();
+        }
+        if (repair) {
+            counts.forEach((id, count) -> increment(id, count[0] - count[1]));
+        }
+        return counts;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public AlertStatsRollupStatusResponse getStatus() {
+        return AlertStatsRollupStatusResponse.builder()
+                .enabled(properties.isEnabled())
+                .ready(ready)
+                .rebuilding(rebuilding.get())
+                .lastRebuildAt(lastRebuildAt)
+                .lastCheckAt(lastCheckAt)
+                .lastCheckMismatches(lastCheckMismatches)
+                .build();
+    }
+
+    private Duration chunk() {
+        return Duration.ofHours(Math.max(1, properties.getChunk().toHours()));
+    }
+
+    private static Instant ceilHour(Instant instant) {
+        Instant hour = AlertStatsHourlyId.hourOf(instant);
+        return hour.equals(instant) ? hour : hour.plus(1, ChronoUnit.HOURS);
+    }
+
+    private static Instant currentHourEnd() {
+        return AlertStatsHourlyId.hourOf(Instant.now()).plus(1, ChronoUnit.HOURS);
+    }
+
+    private static AlertStatsHourlyId toId(Object[] row) {
+        return new AlertStatsHourlyId(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).intValue(),
+                AlertSeverity.valueOf(row[3].toString()),
+                AlertStatus.valueOf(row[4].toString()),
+                toInstant(row[5]));
+    }
+
+    // Cột DATETIME đọc qua native query, cùng quy đổi múi giờ JVM như Hibernate làm với Instant
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+        }
+        return (Instant) value;
+    }
+
+    private static AlertStatsRollupCheckResponse.Mismatch toMismatch(AlertStatsHourlyId id, long[] count) {
+        return AlertStatsRollupCheckResponse.Mismatch.builder()
+                .projectId(id.getProjectId())
+                .cameraId(id.getCameraId())
+                .typeId(id.getTypeId())
+                .severity(id.getSeverity())
+                .alertStatus(id.getAlertStatus())
+                .hourStart(id.getHourStart())
+                .expected(count[0])
+                .actual(count[1])
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.safetyconstruction.backend.service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
+import com.safetyconstruction.backend.dto.response.AlertBatchItemResponse;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ingest dạng NDJSON trên 1 kết nối dài: đọc từng dòng (không buffer cả body, dòng dài quá maxLineLength
+ * bị từ chối và bỏ qua tới dấu xuống dòng kế tiếp), gom thành micro-batch cho AlertService và trả ack NDJSON cho từng record ngay sau mỗi batch.
+ */
+@Service
+@Slf4j
+public class AlertStreamIngestService {
+
+    private final AlertService alertService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxLineLength;
+
+    public AlertStreamIngestService(
+            AlertService alertService,
+            ObjectMapper objectMapper,
+            @Value("${alert.stream.batch-size:100}") int batchSize,
+            @Value("${alert.stream.max-line-length:65536}") int maxLineLength) {
+        this.alertService = alertService;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(AlertCreationRequest.class);
+        this.batchSize = Math.max(1, Math.min(batchSize, 500));
+        this.maxLineLength = Math.max(1, maxLineLength);
+    }
+
+    /**
+     * @return số record đã đọc
+     */
+    @PreAuthorize("hasAuthority('ALERT_CREATE')")
+    public long ingest(InputStream body, OutputStream acks) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<AlertCreationRequest> batch = new ArrayList<>(batchSize);
+        List<Long> batchIndexes = new ArrayList<>(batchSize);
+        long index = 0;
+
+        StringBuilder line = new StringBuilder();
+        while (readLine(reader, line)) {
+            String record = line.length() <= maxLineLength ? line.toString() : null;
+            if (record != null && record.isBlank()) {
+                continue;
+            }
+            long recordIndex = index++;
+            if (record == null) {
+                writeAck(
+                        acks,
+                        failed(
+                                recordIndex,
+                                ErrorCode.INVALID_ALERT_RECORD,
+                                "line longer than " + maxLineLength + " characters"));
+            } else {
+                try {
+                    batch.add(requestReader.readValue(record));
+                    batchIndexes.add(recordIndex);
+                } catch (JsonProcessingException ex) {
+                    writeAck(acks, failed(recordIndex, ErrorCode.INVALID_ALERT_RECORD, ex.getOriginalMessage()));
+                }
+            }
+
+            // Ghi khi đủ batch, hoặc khi client chưa gửi thêm (không giữ ack của thiết bị gửi chậm)
+            if (batch.size() >= batchSize || !reader.ready()) {
+                flush(batch, batchIndexes, acks);
+            }
+        }
+        flush(batch, batchIndexes, acks);
+        return index;
+    }
+
+    /**
+     * Đọc 1 dòng vào line, giữ tối đa maxLineLength + 1 ký tự (dài hơn thì phần còn lại bị đọc bỏ).
+     * @return false khi hết stream và không còn gì để đọc
+     */
+    private boolean readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (c == '\n') {
+                break;
+            }
+            if (line.length() <= maxLineLength) {
+                line.append((char) c);
+            }
+        }
+        if (!line.isEmpty() && line.length() <= maxLineLength && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return read;
+    }
+
+    private void flush(List<AlertCreationRequest> batch, List<Long> batchIndexes, OutputStream acks)
+            throws IOException {
+        if (!batch.isEmpty()) {
+            List<AlertBatchItemResponse> items;
+            try {
+                items = alertService.createAlerts(batch).getItems();
+            } catch (AppException ex) {
+                // Lỗi ở mức batch (vd. ALERT_EVENT_CONFLICT): cả batch bị rollback, báo lỗi cho từng record
+                items = failedBatch(batch, ex.getErrorCode());
+            } catch (RuntimeException ex) {
+                // Lỗi không lường trước (DB mất kết nối...): báo lỗi cho batch này, stream vẫn tiếp tục
+                log.error("Could not ingest stream batch of {} alerts", batch.size(), ex);
+                items = failedBatch(batch, ErrorCode.UNCATEGORIZED_EXCEPTION);
+            }
+            for (int i = 0; i < items.size(); i++) {
+                AlertBatchItemResponse item = items.get(i);
+                item.setIndex(batchIndexes.get(i));
+                writeAck(acks, item);
+            }
+            batch.clear();
+            batchIndexes.clear();
+        }
+        acks.flush();
+    }
+
+    private static List<AlertBatchItemResponse> failedBatch(List<AlertCreationRequest> batch, ErrorCode errorCode) {
+        return batch.stream().map(request -> failed(0, errorCode, null)).toList();
+    }
+
+    private void writeAck(OutputStream acks, AlertBatchItemResponse item) throws IOException {
+        acks.write(objectMapper.writeValueAsBytes(item));
+        acks.write('\n');
+    }
+
+    private static AlertBatchItemResponse failed(long index, ErrorCode errorCode, String detail) {
+        return AlertBatchItemResponse.builder()
+                .index(index)
+                .success(false)
+                .code(errorCode.getCode())
+                .message(detail != null ? errorCode.getMessage() + ": " + detail : errorCode.getMessage())
+                .build();
+    }
+}
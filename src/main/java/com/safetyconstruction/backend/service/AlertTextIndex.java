@@ -0,0 +1,508 @@
+package com.safetyconstruction.backend.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.configuration.AlertTextIndexProperties;
+import com.safetyconstruction.backend.dto.response.AlertTextIndexStatusResponse;
+import com.safetyconstruction.backend.dto.response.AlertTextSearchHit;
+import com.safetyconstruction.backend.dto.response.AlertTextSearchResponse;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index full-text (Lucene, trên đĩa) cho reviewNote và metadata của alert, để không phải LIKE trên cột TEXT.
+ * AlertChangedEvent (tạo / review / xóa, kể cả từ node khác) chỉ đánh dấu id; flush định kỳ đọc lại nội dung
+ * đã commit từ DB rồi ghi đè document, nên index luôn khớp bản review mới nhất.
+ * Metadata JSON được làm phẳng: mọi giá trị vào field "metadata", và từng khóa vào "meta.<đường dẫn>"
+ * (ví dụ meta.zone:"khu a").
+ * Dựng lại toàn bộ (nền) lúc khởi động, khi vừa subscribe lại kênh event và mỗi reconcile-interval: sửa các thay đổi
+ * bị lỡ khi node tắt, mất Redis hoặc node khác không relay được event.
+ */
+@Component
+@Slf4j
+public class AlertTextIndex {
+
+    static final String ID = "id";
+    static final String PROJECT_ID = "projectId";
+    static final String REVIEW_NOTE = "reviewNote";
+    static final String METADATA = "metadata";
+    static final String META_PREFIX = "meta.";
+
+    private static final String[] HIGHLIGHT_FIELDS = {REVIEW_NOTE, METADATA};
+
+    // Lưu offset trong postings để highlighter không phải phân tích lại văn bản
+    private static final FieldType HIGHLIGHTED_TEXT = new FieldType(TextField.TYPE_STORED);
+
+    static {
+        HIGHLIGHTED_TEXT.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        HIGHLIGHTED_TEXT.freeze();
+    }
+
+    private final AlertRepository alertRepository;
+    private final AlertEventPublisher alertEventPublisher;
+    private final AlertTextIndexProperties properties;
+    private final ObjectMapper objectMapper;
+    // Tách từ Unicode, chữ thường, bỏ dấu: "Khu vực" khớp cả "khu vuc"
+    private final Analyzer analyzer = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream filtered = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            return new TokenStreamComponents(source, filtered);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    };
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // flush và rebuild ghi cùng IndexWriter: commit của flush giữa lúc rebuild sẽ công bố index dựng dở
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private boolean wasReceivingRemoteEvents;
+
+    // Mở lần đầu khi cần (lần maintain đầu tiên hoặc request đầu tiên)
+    private volatile Handle handle;
+    private volatile Instant lastRebuildAt;
+
+    public AlertTextIndex(
+            AlertRepository alertRepository,
+            AlertEventPublisher alertEventPublisher,
+            AlertTextIndexProperties properties,
+            ObjectMapper objectMapper) {
+        this.alertRepository = alertRepository;
+        this.alertEventPublisher = alertEventPublisher;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    private record Handle(FSDirectory directory, IndexWriter writer, SearcherManager searcherManager) {}
+
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (properties.isEnabled()) {
+            pending.add(event.alertId());
+        }
+    }
+
+    /**
+     * 🔎 Tìm alert theo reviewNote / metadata, cú pháp Lucene (AND mặc định, "cụm từ", field:giá trị, OR, -loại trừ).
+     */
+    @PreAuthorize("hasAnyAuthority('ALERT_READ', 'ALERT_MANAGE_ALL')")
+    public AlertTextSearchResponse search(String queryText, Long projectId, Integer limit) {
+        if (!properties.isEnabled()) {
+            throw new AppException(ErrorCode.TEXT_INDEX_UNAVAILABLE);
+        }
+        Query query = parse(queryText, projectId);
+        int size = Math.clamp(limit != null ? limit : properties.getDefaultLimit(), 1, properties.getMaxLimit());
+
+        SearcherManager searcherManager = open().searcherManager();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, size);
+                Map<String, String[]> highlights = UnifiedHighlighter.builder(searcher, analyzer)
+                        .build()
+                        .highlightFields(HIGHLIGHT_FIELDS, query, topDocs, new int[] {1, 1});
+                StoredFields storedFields = searcher.storedFields();
+
+                List<AlertTextSearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+                for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                    Document document = storedFields.document(topDocs.scoreDocs[i].doc, Set.of(ID, PROJECT_ID));
+                    Map<String, String> fragments = new LinkedHashMap<>();
+                    for (String field : HIGHLIGHT_FIELDS) {
+                        String fragment = highlights.get(field)[i];
+                        if (fragment != null) {
+                            fragments.put(field, fragment);
+                        }
+                    }
+                    hits.add(AlertTextSearchHit.builder()
+                            .alertId(Long.valueOf(document.get(ID)))
+                            .projectId(
+                                    document.getField(PROJECT_ID).numericValue().longValue())
+                            .score(topDocs.scoreDocs[i].score)
+                            .highlights(fragments.isEmpty() ? null : fragments)
+                            .build());
+                }
+                return AlertTextSearchResponse.builder()
+                        .hits(hits)
+                        .totalHits(topDocs.totalHits.value)
+                        .build();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            log.error("Alert text search failed", e);
+            throw new AppException(ErrorCode.TEXT_INDEX_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * 🔁 Đánh index lại toàn bộ từ DB (chạy nền). Trong lúc chạy, search vẫn dùng bản cũ.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public void startRebuild() {
+        if (!properties.isEnabled()) {
+            throw new AppException(ErrorCode.TEXT_INDEX_UNAVAILABLE);
+        }
+        if (!rebuildInBackground()) {
+            throw new AppException(ErrorCode.TEXT_INDEX_REBUILD_RUNNING);
+        }
+    }
+
+    /**
+     * Dựng index lần đầu sau khi khởi động, và dựng lại khi có thể đã lỡ event (vừa subscribe lại kênh Redis)
+     * hoặc đã quá reconcile-interval từ lần dựng trước.
+     */
+    @Scheduled(
+            initialDelayString = "${alert.text-index.initial-delay:PT10S}",
+            fixedDelayString = "${alert.text-index.check-interval:PT30S}")
+    void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        boolean receiving = alertEventPublisher.isReceivingRemoteEvents();
+        boolean resubscribed = receiving && !wasReceivingRemoteEvents;
+        wasReceivingRemoteEvents = receiving;
+
+        Instant last = lastRebuildAt;
+        if (last == null
+                || resubscribed
+                || Duration.between(last, Instant.now()).compareTo(properties.getReconcileInterval()) >= 0) {
+            rebuildInBackground();
+        }
+    }
+
+    private boolean rebuildInBackground() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofVirtual().name("alert-text-index-rebuild").start(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Alert text index rebuild failed", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public AlertTextIndexStatusResponse getStatus() {
+        int documents = 0;
+        Handle current = handle;
+        if (current != null) {
+            try {
+                IndexSearcher searcher = current.searcherManager().acquire();
+                try {
+                    documents = searcher.getIndexReader().numDocs();
+                } finally {
+                    current.searcherManager().release(searcher);
+                }
+            } catch (IOException e) {
+                log.warn("Could not read alert text index status", e);
+            }
+        }
+        return AlertTextIndexStatusResponse.builder()
+                .enabled(properties.isEnabled())
+                .rebuilding(rebuilding.get())
+                .documents(documents)
+                .pendingUpdates(pending.size())
+                .lastRebuildAt(lastRebuildAt)
+                .build();
+    }
+
+    /**
+     * Ghi các alert đã thay đổi vào index. Đang rebuild (đang giữ writeLock) thì để dành: id vẫn nằm trong pending
+     * và được ghi đè sau khi rebuild xong (rebuild có thể đã đọc bản cũ của chúng).
+     */
+    @Scheduled(
+            initialDelayString = "${alert.text-index.flush-interval:PT2S}",
+            fixedDelayString = "${alert.text-index.flush-interval:PT2S}")
+    void flush() {
+        if (!properties.isEnabled() || pending.isEmpty() || !writeLock.tryLock()) {
+            return;
+        }
+        List<Long> ids = drainPending();
+        try {
+            Map<Long, Object[]> rows = alertRepository.findTextByIdIn(ids).stream()
+                    .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+            Handle current = open();
+            for (Long id : ids) {
+                Object[] row = rows.get(id);
+                Document document = row != null ? toDocument(row) : null;
+                Term term = new Term(ID, id.toString());
+                if (document != null) {
+                    current.writer().updateDocument(term, document);
+                } else {
+                    // Alert đã bị xóa hoặc không còn nội dung để tìm
+                    current.writer().deleteDocuments(term);
+                }
+            }
+            current.writer().commit();
+            current.searcherManager().maybeRefresh();
+        } catch (Exception e) {
+            pending.addAll(ids);
+            log.warn("Alert text index flush failed for {} alerts, will retry", ids.size(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void rebuild() throws IOException {
+        writeLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() throws IOException {
+        Handle current = open();
+        IndexWriter writer = current.writer();
+        long indexed = 0;
+        try {
+            writer.deleteAll();
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = alertRepository.findTextAfter(afterId, Limit.of(properties.getRebuildChunkSize()));
+                for (Object[] row : rows) {
+                    Document document = toDocument(row);
+                    if (document != null) {
+                        writer.addDocument(document);
+                        indexed++;
+                    }
+                    afterId = (Long) row[0];
+                }
+            } while (rows.size() == properties.getRebuildChunkSize());
+            writer.commit();
+        } catch (IOException | RuntimeException e) {
+            // Bỏ phần đã ghi dở, lần mở sau quay về commit trước đó
+            close(current, true);
+            throw e;
+        }
+        current.searcherManager().maybeRefresh();
+        lastRebuildAt = Instant.now();
+        log.info("Alert text index rebuilt with {} documents", indexed);
+    }
+
+    /**
+     * [id, projectId, reviewNote, metadata] -> document; null nếu không có gì để tìm.
+     */
+    Document toDocument(Object[] row) {
+        String reviewNote = (String) row[2];
+        String metadata = (String) row[3];
+        boolean hasNote = reviewNote != null && !reviewNote.isBlank();
+        boolean hasMetadata = metadata != null && !metadata.isBlank();
+        if (!hasNote && !hasMetadata) {
+            return null;
+        }
+
+        Document document = new Document();
+        document.add(new StringField(ID, row[0].toString(), Field.Store.YES));
+        if (row[1] != null) {
+            long projectId = ((Number) row[1]).longValue();
+            document.add(new LongPoint(PROJECT_ID, projectId));
+            document.add(new StoredField(PROJECT_ID, projectId));
+        }
+        if (hasNote) {
+            document.add(new Field(REVIEW_NOTE, reviewNote, HIGHLIGHTED_TEXT));
+        }
+        if (hasMetadata) {
+            List<String> values = new ArrayList<>();
+            try {
+                flatten(objectMapper.readTree(metadata), "", values, document);
+            } catch (JsonProcessingException e) {
+                // Không phải JSON hợp lệ: vẫn tìm được theo nội dung thô
+                values.add(metadata);
+            }
+            if (!values.isEmpty()) {
+                document.add(new Field(METADATA, String.join("; ", values), HIGHLIGHTED_TEXT));
+            }
+        }
+        return document;
+    }
+
+    // Phần tử của mảng dùng chung đường dẫn của mảng: {"ppe":["helmet","vest"]} -> meta.ppe
+    private static void flatten(JsonNode node, String path, List<String> values, Document document) {
+        if (node.isObject()) {
+            for (Map.Entry<String, JsonNode> entry : node.properties()) {
+                flatten(
+                        entry.getValue(),
+                        path.isEmpty() ? entry.getKey() : path + "." + entry.getKey(),
+                        values,
+                        document);
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                flatten(element, path, values, document);
+            }
+        } else if (!node.isNull()) {
+            String value = node.asText();
+            if (!value.isBlank()) {
+                values.add(path.isEmpty() ? value : path + ": " + value);
+                if (!path.isEmpty()) {
+                    document.add(new TextField(META_PREFIX + path, value, Field.Store.NO));
+                }
+            }
+        }
+    }
+
+    private Query parse(String queryText, Long projectId) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new AppException(ErrorCode.INVALID_SEARCH_QUERY);
+        }
+        Query text;
+        try {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(HIGHLIGHT_FIELDS, analyzer);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            text = parser.parse(queryText);
+        } catch (ParseException e) {
+            throw new AppException(ErrorCode.INVALID_SEARCH_QUERY);
+        }
+        if (projectId == null) {
+            return text;
+        }
+        return new BooleanQuery.Builder()
+                .add(text, BooleanClause.Occur.MUST)
+                .add(LongPoint.newExactQuery(PROJECT_ID, projectId), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    private List<Long> drainPending() {
+        List<Long> ids = new ArrayList<>();
+        Iterator<Long> it = pending.iterator();
+        while (it.hasNext() && ids.size() < properties.getFlushBatchSize()) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    private Handle open() {
+        Handle current = handle;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (handle == null) {
+                FSDirectory directory = null;
+                try {
+                    directory = FSDirectory.open(Path.of(properties.getDirectory()));
+                    IndexWriter writer = new IndexWriter(
+                            directory,
+                            new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+                    handle = new Handle(directory, writer, new SearcherManager(writer, null));
+                } catch (IOException e) {
+                    log.error("Could not open alert text index at {}", properties.getDirectory(), e);
+                    closeQuietly(directory);
+                    throw new AppException(ErrorCode.TEXT_INDEX_UNAVAILABLE);
+                }
+            }
+            return handle;
+        }
+    }
+
+    private synchronized void close(Handle current, boolean rollback) {
+        if (handle != current) {
+            return;
+        }
+        handle = null;
+        try {
+            current.searcherManager().close();
+            if (rollback) {
+                current.writer().rollback();
+            } else {
+                current.writer().close();
+            }
+        } catch (IOException e) {
+            log.warn("Error while closing alert text index", e);
+        } finally {
+            closeQuietly(current.directory());
+        }
+    }
+
+    private static void closeQuietly(FSDirectory directory) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            directory.close();
+        } catch (IOException e) {
+            log.warn("Error while closing alert text index directory", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Ghi nốt các thay đổi còn chờ, nếu không chúng chỉ được sửa ở lần rebuild sau
+        flush();
+        Handle current = handle;
+        if (current != null) {
+            close(current, false);
+        }
+        analyzer.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.safetyconstruction.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gán alerts.type_id cho dữ liệu cũ (trước khi có bảng alert_types), chạy nền lúc khởi động.
+ * Type được thêm qua AlertTypeInterner, UPDATE theo từng khoảng id để không khóa cả bảng alerts;
+ * alert mới đã có type_id lúc ghi. completion() báo khi không còn alert nào có type_id NULL.
+ */
+@Component
+@Slf4j
+public class AlertTypeBackfill {
+
+    static final long CHUNK = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AlertTypeInterner alertTypeInterner;
+    private final CompletableFuture<Long> completion = new CompletableFuture<>();
+
+    public AlertTypeBackfill(JdbcTemplate jdbcTemplate, AlertTypeInterner alertTypeInterner) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.alertTypeInterner = alertTypeInterner;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        Thread.ofVirtual().name("alert-type-backfill").start(this::run);
+    }
+
+    /**
+     * Hoàn tất với số alert đã được gán type_id; lỗi -> hoàn tất kèm exception (chạy lại ở lần khởi động sau).
+     */
+    public CompletableFuture<Long> completion() {
+        return completion;
+    }
+
+    void run() {
+        try {
+            jdbcTemplate.queryForList("SELECT DISTINCT type FROM alerts WHERE type_id IS NULL", String.class).stream()
+                    .map(AlertTypeInterner::normalize)
+                    .distinct()
+                    .forEach(alertTypeInterner::intern);
+
+            Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM alerts WHERE type_id IS NULL", Long.class);
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM alerts WHERE type_id IS NULL", Long.class);
+            long total = 0;
+            if (minId != null && maxId != null) {
+                for (long from = minId; from <= maxId; from += CHUNK) {
+                    total += jdbcTemplate.update(
+                            "UPDATE alerts SET type_id = "
+                                    + "(SELECT t.id FROM alert_types t WHERE t.code = UPPER(TRIM(alerts.type))) "
+                                    + "WHERE type_id IS NULL AND id >= ? AND id < ?",
+                            from,
+                            from + CHUNK);
+                }
+                log.info("Backfilled type_id for {} alerts", total);
+            }
+            completion.complete(total);
+        } catch (RuntimeException e) {
+            log.error("alert type_id backfill failed, will retry on next startup", e);
+            completion.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.safetyconstruction.backend.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.entity.AlertType;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.repository.AlertTypeRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ánh xạ type (chuỗi) <-> id trong bảng alert_types, cache trong bộ nhớ (bảng nhỏ, chỉ thêm không sửa).
+ * Type mới được thêm trong transaction của người gọi (không mở kết nối thứ 2 giữa batch ingest) và chỉ được
+ * cache sau khi transaction đó commit.
+ */
+@Component
+@Slf4j
+public class AlertTypeInterner {
+
+    // Không có dòng alert_types nào mang id này -> lọc EXACT theo type chưa từng thấy sẽ không khớp gì
+    public static final int UNKNOWN_TYPE_ID = 0;
+    public static final String UNKNOWN_TYPE = "UNKNOWN";
+
+    private final AlertTypeRepository alertTypeRepository;
+    private final Map<String, Integer> idsByCode = new ConcurrentHashMap<>();
+    private final Map<Integer, String> codesById = new ConcurrentHashMap<>();
+
+    public AlertTypeInterner(AlertTypeRepository alertTypeRepository) {
+        this.alertTypeRepository = alertTypeRepository;
+    }
+
+    public static String normalize(String type) {
+        return type == null ? "" : type.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return id của type, tạo mới nếu chưa có
+     */
+    @Transactional
+    public int intern(String type) {
+        String code = normalize(type);
+        Integer cached = idsByCode.get(code);
+        if (cached != null) {
+            return cached;
+        }
+        AlertType alertType = alertTypeRepository.findByCode(code).orElse(null);
+        if (alertType == null) {
+            // Không đọc lại bằng findByCode: snapshot REPEATABLE READ của batch không thấy dòng
+            // mà transaction khác vừa commit
+            alertTypeRepository.insertIfAbsent(code);
+            alertType = AlertType.builder()
+                    .id(alertTypeRepository.lastInsertId())
+                    .code(code)
+                    .build();
+        }
+        // Dòng vừa thêm sẽ mất nếu transaction rollback -> chưa cache
+        AlertType interned = alertType;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(interned);
+                }
+            });
+        } else {
+            remember(interned);
+        }
+        return interned.getId();
+    }
+
+    /**
+     * id dùng cho bộ lọc type EXACT của request (tra cứu, không tạo mới); null khi không lọc theo type_id.
+     */
+    public Integer filterId(AlertSearchRequest request) {
+        if (!StringUtils.hasText(request.getType()) || request.getTypeMatch() == TypeMatch.CONTAINS) {
+            return null;
+        }
+        return findId(request.getType()).orElse(UNKNOWN_TYPE_ID);
+    }
+
+    /**
+     * Chỉ tra cứu, không tạo mới (dùng cho bộ lọc tìm kiếm).
+     */
+    public Optional<Integer> findId(String type) {
+        String code = normalize(type);
+        Integer cached = idsByCode.get(code);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return alertTypeRepository.findByCode(code).map(this::remember);
+    }
+
+    public String codeOf(Integer typeId) {
+        if (typeId == null) {
+            // alert cũ chưa được backfill type_id
+            return UNKNOWN_TYPE;
+        }
+        String cached = codesById.get(typeId);
+        if (cached != null) {
+            return cached;
+        }
+        return alertTypeRepository
+                .findById(typeId)
+                .map(alertType -> {
+                    remember(alertType);
+                    return alertType.getCode();
+                })
+                .orElse(UNKNOWN_TYPE);
+    }
+
+    private int remember(AlertType alertType) {
+        idsByCode.put(alertType.getCode(), alertType.getId());
+        codesById.put(alertType.getId(), alertType.getCode());
+        return alertType.getId();
+    }
+}
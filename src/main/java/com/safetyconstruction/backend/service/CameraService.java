@@ -1,8 +1,12 @@
 package com.safetyconstruction.backend.service;
 
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -16,6 +20,7 @@ import com.safetyconstruction.backend.exception.AppException;
 import com.safetyconstruction.backend.exception.ErrorCode;
 import com.safetyconstruction.backend.mapper.CameraMapper;
 import com.safetyconstruction.backend.repository.CameraRepository;
+import com.safetyconstruction.backend.repository.CameraRepositoryCustom;
 import com.safetyconstruction.backend.repository.ProjectRepository;
 import com.safetyconstruction.backend.specification.CameraSpecification;
 
@@ -33,13 +38,15 @@ public class CameraService {
     CameraRepository cameraRepository;
     CameraMapper cameraMapper;
     ProjectRepository projectRepository;
+    AlertReferenceCache alertReferenceCache;
 
     /**
      * 🔍 GET CAMERA BY PROJECT
      * - Admin, Manager, Supervisor có thể xem camera trong dự án của mình
      */
     @PreAuthorize("hasAnyAuthority('CAMERA_READ')")
-    public Page<CameraResponse> getCamerasByProject(Long projectId, String name, String location, Pageable pageable) {
+    public Page<CameraResponse> getCamerasByProject(
+            Long projectId, String name, String location, Pageable pageable, String fields) {
         log.info("Service: Getting cameras for project {}", projectId);
 
         Specification<Camera> spec = Specification.allOf(
@@ -47,7 +54,7 @@ public class CameraService {
                 CameraSpecification.byName(name),
                 CameraSpecification.byLocation(location));
 
-        return cameraRepository.findAll(spec, pageable).map(cameraMapper::toCameraResponse);
+        return listCameras(spec, pageable, fields);
     }
 
     /**
@@ -55,13 +62,32 @@ public class CameraService {
      * - Chỉ Admin có quyền xem toàn bộ camera
      */
     @PreAuthorize("hasAuthority('CAMERA_READ_ALL')")
-    public Page<CameraResponse> getAllCameras(String name, String location, Pageable pageable) {
+    public Page<CameraResponse> getAllCameras(String name, String location, Pageable pageable, String fields) {
         log.info("Service: Getting all cameras globally");
 
         Specification<Camera> spec =
                 Specification.allOf(CameraSpecification.byName(name), CameraSpecification.byLocation(location));
 
-        return cameraRepository.findAll(spec, pageable).map(cameraMapper::toCameraResponse);
+        return listCameras(spec, pageable, fields);
+    }
+
+    // ?fields=id,name,location -> chỉ SELECT + trả về các trường đó (id luôn có); trống -> mọi trường
+    private Page<CameraResponse> listCameras(Specification<Camera> spec, Pageable pageable, String fields) {
+        Set<String> selected;
+        try {
+            selected = CameraRepositoryCustom.LIST_PROJECTION.parse(
+                    fields, CameraRepositoryCustom.LIST_PROJECTION.fields(), "id");
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_FIELDS);
+        }
+        // Pageable.unpaged(): không có offset / page size -> lấy hết
+        List<CameraResponse> content = cameraRepository.findListItems(
+                spec,
+                pageable.getSort(),
+                pageable.isPaged() ? pageable.getOffset() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : -1,
+                selected);
+        return PageableExecutionUtils.getPage(content, pageable, () -> cameraRepository.count(spec));
     }
 
     /**
@@ -106,7 +132,9 @@ public class CameraService {
                 cameraRepository.findById(cameraId).orElseThrow(() -> new AppException(ErrorCode.CAMERA_NOT_FOUND));
 
         cameraMapper.updateCamera(camera, request);
-        return cameraMapper.toCameraResponse(cameraRepository.save(camera));
+        Camera savedCamera = cameraRepository.save(camera);
+        alertReferenceCache.invalidateCamera(cameraId);
+        return cameraMapper.toCameraResponse(savedCamera);
     }
 
     /**
@@ -118,6 +146,7 @@ public class CameraService {
         Camera camera = cameraRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.CAMERA_NOT_FOUND));
 
         cameraRepository.delete(camera);
+        alertReferenceCache.invalidateCamera(id);
         log.info("Deleted camera id {}", id);
     }
 }
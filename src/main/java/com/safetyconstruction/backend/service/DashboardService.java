@@ -1,29 +1,48 @@
 // File: src/main/java/com/safetyconstruction/backend/service/DashboardService.java
 package com.safetyconstruction.backend.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.Tuple;
-import jakarta.persistence.criteria.*;
+import jakarta.annotation.PreDestroy;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.safetyconstruction.backend.configuration.DashboardProperties;
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
 import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.response.AlertListItemResponse;
 import com.safetyconstruction.backend.dto.response.AlertResponse;
 import com.safetyconstruction.backend.dto.response.DashboardResponse;
 import com.safetyconstruction.backend.dto.response.DashboardSummaryResponse;
+import com.safetyconstruction.backend.dto.response.SliceResponse;
 import com.safetyconstruction.backend.dto.response.StatsResponse;
 import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.SearchTotalMode;
 import com.safetyconstruction.backend.repository.AlertRepository;
 import com.safetyconstruction.backend.specification.AlertSpecification;
 
@@ -38,190 +57,227 @@ import lombok.extern.slf4j.Slf4j;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class DashboardService {
 
-    EntityManager entityManager;
+    private static final int RECENT_ALERTS = 5;
+
     AlertRepository alertRepository;
     AlertService alertService; // Tái sử dụng AlertService
+    AlertTypeInterner alertTypeInterner;
+    AlertStatsRollupService statsRollupService;
+    AlertKpiCube alertKpiCube;
+    DashboardProperties dashboardProperties;
+    PlatformTransactionManager transactionManager;
+    AlertAnalyticsCache analyticsCache;
+    // Mỗi phần của dashboard 1 virtual thread (chủ yếu chờ DB, không cần pool)
+    ExecutorService sectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    @Transactional(readOnly = true)
+    /**
+     * 📊 DASHBOARD: thẻ KPI + biểu đồ theo ngày trong tuần / tháng + 5 cảnh báo mới nhất.
+     * - parallel: 2 phần độc lập chạy song song trên virtual thread, mỗi phần 1 transaction read-only riêng;
+     *   phần chưa xong khi hết deadline bị bỏ (null) và được liệt kê trong unavailableSections.
+     * - Không parallel: tuần tự trong 1 transaction read-only như trước.
+     * - Kết quả đầy đủ được cache trong Redis theo bộ lọc (AlertAnalyticsCache), mất hiệu lực khi project có alert
+     *   mới / được review; dashboard thiếu phần không được cache.
+     */
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public DashboardResponse getDashboardData(AlertSearchRequest searchRequest) {
+        // Bản cache có recentAlerts: kiểm tra quyền ALERT_READ như lúc tính, kể cả khi trúng cache
+        alertService.checkSearchAccess();
+        return analyticsCache
+                .get(
+                        AlertAnalyticsCache.DASHBOARD_CACHE,
+                        "dashboard",
+                        searchRequest,
+                        () -> loadDashboard(searchRequest),
+                        dashboard -> dashboard.unavailableSections().isEmpty())
+                .toResponse();
+    }
 
-        // 1. Lấy dữ liệu Summary (KPI Cards)
-        DashboardSummaryResponse summary = getSummaryStats(searchRequest);
+    /**
+     * 📊 Chỉ các thẻ KPI (tổng / chưa xử lý / mức độ cao), cho màn hình cần làm mới thường xuyên.
+     * Khoảng ngày trọn vẹn trong retentionDays ngày gần nhất được đọc từ AlertKpiCube, không chạm DB.
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public DashboardSummaryResponse getSummaryStats(AlertSearchRequest searchRequest) {
+        return aggregate(searchRequest).summary();
+    }
 
-        // 2. Lấy dữ liệu biểu đồ theo Ngày trong tuần
-        List<StatsResponse> weekdayStats = getWeekdayStats(searchRequest);
+    // --- CÁC HÀM TÍNH TOÁN (PRIVATE) ---
 
-        // 3. Lấy dữ liệu biểu đồ theo Tháng
-        List<StatsResponse> monthlyStats = getMonthlyStats(searchRequest);
+    private CachedDashboard loadDashboard(AlertSearchRequest searchRequest) {
+        if (!dashboardProperties.isParallel()) {
+            return readOnlyTransaction()
+                    .execute(status ->
+                            toDashboard(aggregate(searchRequest), findRecentAlerts(searchRequest), List.of()));
+        }
 
-        // 4. Lấy 5 cảnh báo mới nhất
-        Pageable recentAlertsPageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "happenedAt"));
-        Page<AlertResponse> recentAlerts = alertService.searchAlerts(searchRequest, recentAlertsPageable);
+        long deadline = System.nanoTime() + dashboardProperties.getDeadline().toNanos();
+        // Virtual thread không kế thừa SecurityContext: @PreAuthorize của AlertService cần người dùng hiện tại
+        Executor executor = new DelegatingSecurityContextExecutor(sectionExecutor, SecurityContextHolder.getContext());
+        TransactionTemplate readOnly = readOnlyTransaction();
+        // Giây, làm tròn lên: truy vấn của phần quá hạn bị DB hủy ngay sau deadline, không giữ kết nối
+        readOnly.setTimeout((int) Math.max(1, (dashboardProperties.getDeadline().toMillis() + 999) / 1000));
+
+        // 1-3. Thẻ KPI + biểu đồ: 1 truy vấn GROUP BY (hoặc cube / rollup)
+        CompletableFuture<DashboardAggregate> aggregate =
+                CompletableFuture.supplyAsync(() -> readOnly.execute(status -> aggregate(searchRequest)), executor);
+        // 4. 5 cảnh báo mới nhất
+        CompletableFuture<SliceResponse<AlertResponse>> recent = CompletableFuture.supplyAsync(
+                () -> readOnly.execute(status -> findRecentAlerts(searchRequest)), executor);
+
+        List<String> unavailableSections = new ArrayList<>();
+        DashboardAggregate aggregateResult = await(aggregate, deadline, "summary");
+        if (aggregateResult == null) {
+            unavailableSections.addAll(List.of("summary", "weekdayStats", "monthlyStats"));
+        }
+        SliceResponse<AlertResponse> recentResult = await(recent, deadline, "recentAlerts");
+        if (recentResult == null) {
+            unavailableSections.add("recentAlerts");
+        }
+        return toDashboard(aggregateResult, recentResult, unavailableSections);
+    }
 
-        // 5. Gộp tất cả vào 1 Response
-        return DashboardResponse.builder()
-                .summary(summary)
-                .weekdayStats(weekdayStats)
-                .monthlyStats(monthlyStats)
-                .recentAlerts(recentAlerts)
-                .build();
+    private SliceResponse<AlertResponse> findRecentAlerts(AlertSearchRequest request) {
+        // Slice, không COUNT lại: tổng chính là summary.totalAlerts, cùng bộ lọc
+        Pageable pageable = PageRequest.of(0, RECENT_ALERTS, Sort.by(Sort.Direction.DESC, "happenedAt"));
+        return alertService.searchAlertsSlice(request, pageable, SearchTotalMode.NONE, null);
     }
 
-    // --- CÁC HÀM TÍNH TOÁN (PRIVATE) ---
+    // 5. Gộp tất cả lại; phần null (quá hạn) được giữ null
+    private static CachedDashboard toDashboard(
+            DashboardAggregate aggregate, SliceResponse<AlertResponse> recentSlice, List<String> unavailableSections) {
+        List<AlertResponse> recentAlerts = recentSlice != null ? recentSlice.getContent() : null;
+        // Không có summary thì không biết tổng, chỉ trả về số dòng đã lấy
+        long recentAlertsTotal = aggregate != null
+                ? aggregate.summary().getTotalAlerts()
+                : recentAlerts != null ? recentAlerts.size() : 0;
+        return new CachedDashboard(
+                aggregate != null ? aggregate.summary() : null,
+                aggregate != null ? aggregate.weekdayStats() : null,
+                aggregate != null ? aggregate.monthlyStats() : null,
+                recentAlerts,
+                recentAlertsTotal,
+                unavailableSections);
+    }
 
-    // Hàm này lấy các thẻ KPI (Tổng, Mới, Nghiêm trọng)
-    private DashboardSummaryResponse getSummaryStats(AlertSearchRequest request) {
-        Specification<Alert> baseSpec = buildSpecification(request);
+    /**
+     * Kết quả của 1 phần, hoặc null nếu quá deadline. Lỗi khác của phần đó (vd thiếu quyền ALERT_READ) được ném lại như khi chạy tuần tự.
+     */
+    private static <T> T await(CompletableFuture<T> future, long deadlineNanos, String section) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Dashboard section {} missed the deadline, returning partial dashboard", section);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
 
-        // Lấy Tổng
-        long totalAlerts = alertRepository.count(baseSpec);
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
 
-        // Lấy Mới (Unresolved)
-        Specification<Alert> unresolvedSpec = baseSpec.and(AlertSpecification.withStatus("NEW"));
-        long unresolvedAlerts = alertRepository.count(unresolvedSpec);
+    @PreDestroy
+    void shutdown() {
+        sectionExecutor.shutdownNow();
+    }
 
-        // Lấy Nghiêm trọng
-        Specification<Alert> criticalSpec = baseSpec.and(Specification.anyOf(
-                AlertSpecification.withSeverity("HIGH"), AlertSpecification.withSeverity("CRITICAL")));
-        long highSeverityAlerts = alertRepository.count(criticalSpec);
+    /**
+     * Nội dung DashboardResponse ở dạng lưu được trong Redis (JSON): Page được dựng lại khi trả về.
+     */
+    public record CachedDashboard(
+            DashboardSummaryResponse summary,
+            List<StatsResponse> weekdayStats,
+            List<StatsResponse> monthlyStats,
+            // Danh sách lấy từ projection gọn, giữ kiểu để đọc lại từ cache vẫn bỏ trường null
+            @JsonDeserialize(contentAs = AlertListItemResponse.class) List<AlertResponse> recentAlerts,
+            long recentAlertsTotal,
+            List<String> unavailableSections) {
+
+        DashboardResponse toResponse() {
+            Page<AlertResponse> page = recentAlerts != null
+                    ? new PageImpl<>(
+                            recentAlerts,
+                            PageRequest.of(0, RECENT_ALERTS, Sort.by(Sort.Direction.DESC, "happenedAt")),
+                            recentAlertsTotal)
+                    : null;
+            return DashboardResponse.builder()
+                    .summary(summary)
+                    .weekdayStats(weekdayStats)
+                    .monthlyStats(monthlyStats)
+                    .recentAlerts(page)
+                    .unavailableSections(unavailableSections)
+                    .build();
+        }
+    }
+
+    private record DashboardAggregate(
+            DashboardSummaryResponse summary, List<StatsResponse> weekdayStats, List<StatsResponse> monthlyStats) {}
+
+    /**
+     * Thay cho 3 lần count(spec) + 2 truy vấn GROUP BY riêng: mỗi nhóm (loại, ngày trong tuần, tháng) đã kèm
+     * số NEW / HIGH+CRITICAL, nên thẻ KPI là tổng các nhóm và 2 biểu đồ được cộng dồn từ cùng kết quả.
+     */
+    private DashboardAggregate aggregate(AlertSearchRequest request) {
+        List<AlertDashboardBucket> buckets = findBuckets(request);
+
+        long totalAlerts = 0;
+        long unresolvedAlerts = 0;
+        long highSeverityAlerts = 0;
+        // Giữ thứ tự xuất hiện của loại; "NO_HELMET" -> [CN, T2, ..., T7] / [Tháng 1, ..., Tháng 12]
+        Map<String, long[]> weekdayCounts = new LinkedHashMap<>();
+        Map<String, long[]> monthlyCounts = new LinkedHashMap<>();
+        for (AlertDashboardBucket bucket : buckets) {
+            totalAlerts += bucket.total();
+            unresolvedAlerts += bucket.unresolved();
+            highSeverityAlerts += bucket.highSeverity();
+
+            String type = alertTypeInterner.codeOf(bucket.typeId());
+            weekdayCounts.computeIfAbsent(type, key -> new long[7])[bucket.dayOfWeek() - 1] += bucket.total();
+            monthlyCounts.computeIfAbsent(type, key -> new long[12])[bucket.month() - 1] += bucket.total();
+        }
 
-        return DashboardSummaryResponse.builder()
+        DashboardSummaryResponse summary = DashboardSummaryResponse.builder()
                 .totalAlerts(totalAlerts)
                 .unresolvedAlerts(unresolvedAlerts)
                 .highSeverityAlerts(highSeverityAlerts)
                 .build();
+        return new DashboardAggregate(summary, toStats(weekdayCounts), toStats(monthlyCounts));
     }
 
-    // Hàm này thay thế logic 'count()' và 'partitionByErrorType' (theo ngày)
-    private List<StatsResponse> getWeekdayStats(AlertSearchRequest request) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Tuple> query = cb.createTupleQuery();
-        Root<Alert> root = query.from(Alert.class);
-
-        // 1. Lọc (WHERE)
-        Predicate predicate = buildPredicate(request, root, cb);
-
-        // --- SỬA LỖI Ở ĐÂY ---
-        // Chỉ áp dụng mệnh đề WHERE nếu 'predicate' (bộ lọc) không rỗng
-        if (predicate != null) {
-            query.where(predicate); // <-- Đây là dòng 104
+    // Cube trong bộ nhớ nếu được; không thì các giờ trọn vẹn từ alert_stats_hourly, phần lẻ 2 đầu (và các trường
+    // hợp khác) từ alerts
+    private List<AlertDashboardBucket> findBuckets(AlertSearchRequest request) {
+        Optional<List<AlertDashboardBucket>> cached = alertKpiCube.aggregate(request);
+        if (cached.isPresent()) {
+            return cached.get();
         }
-
-        // 2. Nhóm (GROUP BY)
-        Expression<String> typeGroup = root.get("type");
-        // Dùng hàm DAYOFWEEK() của MySQL (1=CN, 2=T2, ...)
-        Expression<Integer> weekdayGroup = cb.function("DAYOFWEEK", Integer.class, root.get("happenedAt"));
-        query.groupBy(typeGroup, weekdayGroup);
-
-        // 3. Đếm (SELECT)
-        query.multiselect(
-                typeGroup.alias("group"),
-                weekdayGroup.alias("day"),
-                cb.count(root).alias("count"));
-
-        // Xử lý kết quả thô (raw)
-        List<Tuple> results = entityManager.createQuery(query).getResultList();
-
-        // 4. Chuyển đổi (Process)
-        // Chuyển List<Tuple> (ví dụ: ["NO_HELMET", 2, 10])
-        // thành Map<String, long[7]> (ví dụ: "NO_HELMET" -> [0, 10, 0, 0, 0, 0, 0])
-        Map<String, long[]> statsMap = results.stream()
-                .collect(Collectors.groupingBy(
-                        tuple -> tuple.get("group", String.class),
-                        Collectors.collectingAndThen(Collectors.toList(), list -> {
-                            long[] counts = new long[7]; // 0=CN, 1=T2, ...
-                            list.forEach(tuple -> {
-                                int dayOfWeek = tuple.get("day", Integer.class); // 1-7
-                                long count = tuple.get("count", Long.class);
-                                counts[dayOfWeek - 1] = count; // Chuyển 1-7 thành index 0-6
-                            });
-                            return counts;
-                        })));
-
-        // Chuyển Map thành List<StatsResponse>
-        return statsMap.entrySet().stream()
-                .map(entry -> new StatsResponse(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
+        Optional<AlertStatsRollupService.Plan> plan = statsRollupService.plan(request);
+        if (plan.isEmpty()) {
+            return alertRepository.aggregateDashboard(
+                    AlertSpecification.matching(request, alertTypeInterner.filterId(request)));
+        }
+        List<AlertDashboardBucket> buckets = new ArrayList<>(statsRollupService.aggregateDashboard(plan.get()));
+        for (Specification<Alert> edge : plan.get().edges()) {
+            buckets.addAll(alertRepository.aggregateDashboard(edge));
+        }
+        return buckets;
     }
 
-    // Hàm này thay thế logic 'getMonthlyReportData'
-    private List<StatsResponse> getMonthlyStats(AlertSearchRequest request) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Tuple> query = cb.createTupleQuery();
-        Root<Alert> root = query.from(Alert.class);
-
-        // 1. Lọc (WHERE)
-        Predicate predicate = buildPredicate(request, root, cb);
-
-        // --- SỬA LỖI Ở ĐÂY (Giống hệt lần trước) ---
-        // Chỉ áp dụng mệnh đề WHERE nếu 'predicate' (bộ lọc) không rỗng
-        if (predicate != null) {
-            query.where(predicate); // <-- Đây là dòng 155
-        }
-        // --- HẾT PHẦN SỬA ---
-
-        // 2. Nhóm (GROUP BY)
-        Expression<String> typeGroup = root.get("type");
-        // Dùng hàm MONTH() của MySQL (1-12)
-        Expression<Integer> monthGroup = cb.function("MONTH", Integer.class, root.get("happenedAt"));
-        query.groupBy(typeGroup, monthGroup);
-
-        // 3. Đếm (SELECT)
-        query.multiselect(
-                typeGroup.alias("group"),
-                monthGroup.alias("month"),
-                cb.count(root).alias("count"));
-
-        // Xử lý kết quả thô
-        List<Tuple> results = entityManager.createQuery(query).getResultList();
-
-        // 4. Chuyển đổi (Process)
-        Map<String, long[]> statsMap = results.stream()
-                .collect(Collectors.groupingBy(
-                        tuple -> tuple.get("group", String.class),
-                        Collectors.collectingAndThen(Collectors.toList(), list -> {
-                            long[] counts = new long[12]; // 0=Tháng 1, ...
-                            list.forEach(tuple -> {
-                                int month = tuple.get("month", Integer.class); // 1-12
-                                long count = tuple.get("count", Long.class);
-                                counts[month - 1] = count; // Chuyển 1-12 thành index 0-11
-                            });
-                            return counts;
-                        })));
-
-        return statsMap.entrySet().stream()
+    private static List<StatsResponse> toStats(Map<String, long[]> counts) {
+        return counts.entrySet().stream()
                 .map(entry -> new StatsResponse(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
-
-    /**
-     * Hàm private để tái sử dụng logic lọc (filtering) của AlertSpecification
-     */
-    private Predicate buildPredicate(AlertSearchRequest searchRequest, Root<Alert> root, CriteriaBuilder cb) {
-        Specification<Alert> spec = Specification.allOf(
-                AlertSpecification.withProjectId(searchRequest.getProjectId()),
-                AlertSpecification.withCameraId(searchRequest.getCameraId()),
-                AlertSpecification.withType(searchRequest.getType()),
-                AlertSpecification.withSeverity(searchRequest.getSeverity()),
-                AlertSpecification.withStatus(searchRequest.getAlertStatus()),
-                AlertSpecification.withHappenedTimeRange(
-                        searchRequest.getHappenedAfter(), searchRequest.getHappenedBefore()));
-        return spec.toPredicate(root, cb.createQuery(), cb);
-    }
-
-    private Specification<Alert> buildSpecification(AlertSearchRequest searchRequest) {
-        // Đây là cách chúng ta kết hợp tất cả các Specification bạn đã viết
-        // Nó giống hệt logic trong hàm 'buildPredicate'
-        return Specification.allOf(
-                AlertSpecification.withProjectId(searchRequest.getProjectId()),
-                AlertSpecification.withCameraId(searchRequest.getCameraId()),
-                AlertSpecification.withType(searchRequest.getType()),
-                AlertSpecification.withSeverity(searchRequest.getSeverity()),
-                AlertSpecification.withStatus(searchRequest.getAlertStatus()),
-                AlertSpecification.withConfidenceRange( // (Tôi cũng thêm bộ lọc này)
-                        searchRequest.getMinConfidence(), searchRequest.getMaxConfidence()),
-                AlertSpecification.withHappenedTimeRange(
-                        searchRequest.getHappenedAfter(), searchRequest.getHappenedBefore()));
-    }
 }
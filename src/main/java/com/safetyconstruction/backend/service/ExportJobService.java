@@ -0,0 +1,330 @@
+package com.safetyconstruction.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.safetyconstruction.backend.configuration.ExportJobProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.request.export.ExportJobRequest;
+import com.safetyconstruction.backend.dto.response.ExportJobResponse;
+import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.enums.ExportJobStatus;
+import com.safetyconstruction.backend.enums.ExportJobType;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.util.TableWriter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Export chạy nền: submit trả về jobId ngay, worker ghi file vào thư mục cục bộ, client hỏi trạng thái rồi tải file.
+ * Số worker cố định (mỗi worker giữ 1 kết nối DB trong lúc chạy) và hàng đợi có giới hạn, nên export không
+ * chiếm hết pool kết nối của ingest. Job và file chỉ tồn tại trên node đã nhận job, bị xóa sau ttl.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final AlertExportService alertExportService;
+    private final StatisticService statisticService;
+    private final ExportJobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    // Số job QUEUED / RUNNING theo người submit; kiểm tra giới hạn và giữ chỗ trong cùng 1 compute
+    private final Map<String, Integer> activeByOwner = new ConcurrentHashMap<>();
+
+    public ExportJobService(
+            AlertExportService alertExportService,
+            StatisticService statisticService,
+            ExportJobProperties properties,
+            MeterRegistry meterRegistry) {
+        this.alertExportService = alertExportService;
+        this.statisticService = statisticService;
+        this.properties = properties;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getWorkers(),
+                properties.getWorkers(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("export.jobs.queued", executor, e -> e.getQueue().size())
+                .description("Số export job đang chờ worker")
+                .register(meterRegistry);
+        Gauge.builder("export.jobs.running", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Số export job đang chạy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Thông tin 1 job; chỉ giữ trong bộ nhớ (mất khi restart, như file tạm).
+     */
+    private static final class ExportJob {
+        final String id = UUID.randomUUID().toString();
+        final String owner;
+        final ExportJobType type;
+        final ExportFormat format;
+        final Instant createdAt = Instant.now();
+        final LongAdder rowsWritten = new LongAdder();
+        volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        volatile Instant finishedAt;
+        volatile Path file;
+        volatile String error;
+
+        ExportJob(String owner, ExportJobType type, ExportFormat format) {
+            this.owner = owner;
+            this.type = type;
+            this.format = format;
+        }
+
+        boolean isActive() {
+            return status == ExportJobStatus.QUEUED || status == ExportJobStatus.RUNNING;
+        }
+    }
+
+    public record ExportFile(FileSystemResource resource, String filename, ExportFormat format) {}
+
+    /**
+     * 📦 SUBMIT EXPORT JOB
+     * - Quyền được kiểm tra ngay cho cả ALERTS và STATISTICS (lỗi trả về như request thường, không tạo job).
+     */
+    public ExportJobResponse submit(ExportJobRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String owner = authentication.getName();
+
+        AlertSearchRequest filter = request.getFilter() != null ? request.getFilter() : new AlertSearchRequest();
+        ExportFormat format = request.getFormat() != null ? request.getFormat() : ExportFormat.CSV;
+        AlertExportService.TableExport export =
+                switch (request.getType()) {
+                    case ALERTS -> alertExportService.prepareAlertExport(filter, null, format, request.getFields());
+                    case STATISTICS -> {
+                        statisticService.checkExportAccess();
+                        yield (out, progress) -> writeStatistics(filter, format, out, progress);
+                    }
+                };
+
+        reserveSlot(owner);
+        ExportJob job = new ExportJob(owner, request.getType(), format);
+        jobs.put(job.id, job);
+        try {
+            // Worker chạy với quyền của người submit (các service có @PreAuthorize)
+            executor.execute(new DelegatingSecurityContextRunnable(() -> run(job, export)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            releaseSlot(owner);
+            throw new AppException(ErrorCode.EXPORT_QUEUE_FULL);
+        }
+        log.info("Export job {} ({} {}) submitted by {}", job.id, job.type, format, owner);
+        return toResponse(job);
+    }
+
+    public ExportJobResponse getJob(String jobId) {
+        return toResponse(findOwnJob(jobId));
+    }
+
+    public ExportFile getFile(String jobId) {
+        ExportJob job = findOwnJob(jobId);
+        Path file = job.file;
+        if (job.status != ExportJobStatus.COMPLETED || file == null || !Files.exists(file)) {
+            throw new AppException(ErrorCode.EXPORT_JOB_NOT_READY);
+        }
+        String filename = job.type.name().toLowerCase() + "-" + job.id + "." + job.format.getExtension();
+        return new ExportFile(new FileSystemResource(file), filename, job.format);
+    }
+
+    private void run(ExportJob job, AlertExportService.TableExport export) {
+        job.status = ExportJobStatus.RUNNING;
+        Path target = directory().resolve(job.id + "." + job.format.getExtension());
+        Path partial = target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+        try {
+            Files.createDirectories(target.getParent());
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                export.writeTo(out, job.rowsWritten);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            job.file = target;
+            job.status = ExportJobStatus.COMPLETED;
+            log.info("Export job {} completed with {} rows", job.id, job.rowsWritten.sum());
+        } catch (AccessDeniedException e) {
+            fail(job, partial, "Access denied", null);
+        } catch (Exception e) {
+            fail(job, partial, "Export failed", e);
+        } finally {
+            job.finishedAt = Instant.now();
+            releaseSlot(job.owner);
+        }
+    }
+
+    // Hai submit đồng thời của cùng người dùng không thể cùng lọt qua giới hạn
+    private void reserveSlot(String owner) {
+        activeByOwner.compute(owner, (key, active) -> {
+            int count = active != null ? active : 0;
+            if (count >= properties.getMaxActivePerUser()) {
+                throw new AppException(ErrorCode.EXPORT_QUEUE_FULL);
+            }
+            return count + 1;
+        });
+    }
+
+    private void releaseSlot(String owner) {
+        activeByOwner.computeIfPresent(owner, (key, active) -> active > 1 ? active - 1 : null);
+    }
+
+    private void fail(ExportJob job, Path partial, String error, Exception cause) {
+        job.error = error;
+        job.status = ExportJobStatus.FAILED;
+        log.error("Export job {} failed", job.id, cause);
+        deleteQuietly(partial);
+    }
+
+    // Mỗi nhóm thống kê là 1 khối dòng: section, group, count
+    private void writeStatistics(AlertSearchRequest filter, ExportFormat format, OutputStream out, LongAdder progress)
+            throws IOException {
+        Map<String, List<StatisticResponse>> sections = new LinkedHashMap<>();
+        sections.put("type", statisticService.getStatsByType(filter));
+        sections.put("weekday", statisticService.getStatsByWeekday(filter));
+        sections.put("project", statisticService.getStatsByProject(filter));
+
+        try (TableWriter writer = alertExportService.open(format, out, "Statistics")) {
+            writer.writeRow(List.of("section", "group", "count"));
+            for (Map.Entry<String, List<StatisticResponse>> section : sections.entrySet()) {
+                for (StatisticResponse stat : section.getValue()) {
+                    writer.writeRow(Arrays.asList(section.getKey(), stat.getGroup(), stat.getCount()));
+                    progress.increment();
+                }
+            }
+        }
+    }
+
+    // Job của người khác trả về NOT_FOUND (không lộ jobId tồn tại), ADMIN xem được mọi job
+    private ExportJob findOwnJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (job == null || !(admin || job.owner.equals(authentication.getName()))) {
+            throw new AppException(ErrorCode.EXPORT_JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    /**
+     * Xóa job đã xong quá ttl cùng file của chúng, và file mồ côi (từ lần chạy trước) cũ hơn ttl.
+     */
+    @Scheduled(fixedDelayString = "${alert.export.jobs.cleanup-interval:PT5M}")
+    void cleanup() {
+        try {
+            Instant expiredBefore = Instant.now().minus(properties.getTtl());
+            jobs.values().removeIf(job -> {
+                if (job.finishedAt == null || job.finishedAt.isAfter(expiredBefore)) {
+                    return false;
+                }
+                if (job.file != null) {
+                    deleteQuietly(job.file);
+                }
+                return true;
+            });
+
+            Path directory = directory();
+            if (!Files.isDirectory(directory)) {
+                return;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    if (isOrphan(file)
+                            && Files.getLastModifiedTime(file).toInstant().isBefore(expiredBefore)) {
+                        deleteQuietly(file);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Export job cleanup failed", e);
+        }
+    }
+
+    private boolean isOrphan(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.');
+        ExportJob job = jobs.get(dot > 0 ? name.substring(0, dot) : name);
+        return job == null || (!job.isActive() && !file.equals(job.file));
+    }
+
+    private Path directory() {
+        return Path.of(properties.getDirectory()).toAbsolutePath();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", file, e);
+        }
+    }
+
+    private ExportJobResponse toResponse(ExportJob job) {
+        Path file = job.file;
+        Long fileSize = null;
+        if (file != null) {
+            try {
+                fileSize = Files.size(file);
+            } catch (IOException e) {
+                // File đã bị xóa: để trống
+            }
+        }
+        return ExportJobResponse.builder()
+                .jobId(job.id)
+                .type(job.type)
+                .format(job.format)
+                .status(job.status)
+                .rowsWritten(job.rowsWritten.sum())
+                .fileSize(fileSize)
+                .error(job.error)
+                .createdAt(job.createdAt)
+                .finishedAt(job.finishedAt)
+                .expiresAt(job.finishedAt != null ? job.finishedAt.plus(properties.getTtl()) : null)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Job đang chạy bị ngắt; file .part còn lại được cleanup xóa ở lần chạy sau
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,109 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.safetyconstruction.backend.configuration.NotificationDebounceProperties;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chống spam thông báo theo key project/camera/type.
+ * - Redis: 1 lệnh SET NX PX duy nhất (atomic, không có check-then-act).
+ * - Kết nối Redis riêng với timeout ngắn (redis-timeout), không ảnh hưởng các lệnh Redis khác.
+ * - Redis chậm/không khả dụng: fallback sang map cục bộ chia shard, tự thử lại Redis sau redis-retry-after.
+ */
+@Component
+@Slf4j
+public class NotificationDebouncer {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final NotificationDebounceProperties properties;
+    private final Map<String, Duration> typeWindows = new HashMap<>();
+    private final ConcurrentHashMap<String, Long>[] shards;
+
+    private volatile long redisRetryAt;
+
+    @SuppressWarnings("unchecked")
+    public NotificationDebouncer(
+            @Qualifier("debounceRedisTemplate") RedisTemplate<String, String> redisTemplate,
+            NotificationDebounceProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        properties.getTypeWindows().forEach((key, window) -> typeWindows.put(normalize(key), window));
+
+        this.shards = new ConcurrentHashMap[Math.max(1, properties.getLocalShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * @return true nếu được phép gửi thông báo (và cửa sổ debounce bắt đầu từ bây giờ)
+     */
+    public boolean tryAcquire(String key, String type, AlertSeverity severity) {
+        Duration window = windowFor(type, severity);
+
+        if (System.currentTimeMillis() >= redisRetryAt) {
+            try {
+                return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, "locked", window));
+            } catch (DataAccessException ex) {
+                redisRetryAt = System.currentTimeMillis()
+                        + properties.getRedisRetryAfter().toMillis();
+                log.warn("Redis debounce unavailable, using local fallback: {}", ex.getMessage());
+            }
+        }
+        return tryAcquireLocal(key, window);
+    }
+
+    Duration windowFor(String type, AlertSeverity severity) {
+        String normalizedType = normalize(type);
+        Duration window = typeWindows.get(normalizedType + "." + severity.name());
+        if (window == null) {
+            window = typeWindows.get(normalizedType);
+        }
+        if (window == null) {
+            window = properties.getSeverityWindows().get(severity);
+        }
+        return window != null ? window : properties.getDefaultWindow();
+    }
+
+    private boolean tryAcquireLocal(String key, Duration window) {
+        long now = System.currentTimeMillis();
+        boolean[] acquired = new boolean[1];
+        shardFor(key).compute(key, (k, expiresAt) -> {
+            if (expiresAt != null && expiresAt > now) {
+                return expiresAt;
+            }
+            acquired[0] = true;
+            return now + window.toMillis();
+        });
+        return acquired[0];
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    void purgeExpiredLocalLocks() {
+        long now = System.currentTimeMillis();
+        for (ConcurrentHashMap<String, Long> shard : shards) {
+            shard.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+    }
+
+    private ConcurrentHashMap<String, Long> shardFor(String key) {
+        return shards[Math.floorMod(key.hashCode(), shards.length)];
+    }
+
+    private static String normalize(String type) {
+        return type == null ? "" : type.trim().toUpperCase(Locale.ROOT);
+    }
+}
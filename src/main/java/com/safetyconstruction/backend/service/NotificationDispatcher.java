@@ -0,0 +1,130 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.util.PriorityLaneQueue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Đẩy thông báo WebSocket theo lane ưu tiên (CRITICAL trước LOW), chỉ sau khi transaction tạo thông báo commit.
+ * Luồng ghi alert không phải chờ fan-out; lane thấp có chống đói như hàng đợi ingest.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PriorityLaneQueue<Delivery> queue;
+    private final Timer[] deliveryLatency;
+    private final Counter dropped;
+    private final int senders;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public NotificationDispatcher(
+            SimpMessagingTemplate messagingTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${alert.notification.queue-capacity:10000}") int queueCapacity,
+            @Value("${alert.notification.lane-max-wait:PT1S}") Duration laneMaxWait,
+            @Value("${alert.notification.senders:2}") int senders) {
+        this.messagingTemplate = messagingTemplate;
+        this.senders = Math.max(1, senders);
+        this.queue = new PriorityLaneQueue<>(
+                AlertSeverity.values().length, queueCapacity, laneMaxWait.toMillis(), TimeUnit.MILLISECONDS);
+
+        this.deliveryLatency = new Timer[queue.laneCount()];
+        for (int lane = 0; lane < queue.laneCount(); lane++) {
+            int laneIndex = lane;
+            String laneName = AlertSeverity.ofLane(lane).name();
+            Gauge.builder("alert.notification.queue.depth", queue, q -> q.size(laneIndex))
+                    .description("Số thông báo đang chờ gửi qua WebSocket")
+                    .tag("lane", laneName)
+                    .register(meterRegistry);
+            deliveryLatency[lane] = Timer.builder("alert.notification.delivery.latency")
+                    .description("Thời gian từ lúc commit thông báo đến khi đẩy qua WebSocket")
+                    .tag("lane", laneName)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        }
+        this.dropped = Counter.builder("alert.notification.dropped")
+                .description("Số thông báo WebSocket bị bỏ do hàng đợi đầy (vẫn còn trong DB)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < senders; i++) {
+            workers.add(Thread.ofVirtual().name("notification-dispatch-" + i).start(this::sendLoop));
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public void dispatch(AlertSeverity severity, String destination, Object payload) {
+        int lane = (severity != null ? severity : AlertSeverity.LOW).priorityLane();
+        Runnable enqueue = () -> {
+            if (!queue.offer(lane, new Delivery(lane, destination, payload, System.nanoTime()))) {
+                dropped.increment();
+                log.warn("Notification queue full, dropping WebSocket push to {}", destination);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue.run();
+                }
+            });
+        } else {
+            enqueue.run();
+        }
+    }
+
+    private void sendLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Delivery delivery = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (delivery == null) {
+                    continue;
+                }
+                messagingTemplate.convertAndSend(delivery.destination(), delivery.payload());
+                deliveryLatency[delivery.lane()].record(
+                        System.nanoTime() - delivery.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to push WebSocket notification", e);
+            }
+        }
+    }
+
+    private record Delivery(int lane, String destination, Object payload, long enqueuedNanos) {}
+}
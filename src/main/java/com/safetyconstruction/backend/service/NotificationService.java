@@ -9,7 +9,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -46,7 +45,7 @@ public class NotificationService {
     NotificationMapper mapper;
     RoleRepository roleRepository;
 
-    SimpMessagingTemplate messagingTemplate;
+    NotificationDispatcher notificationDispatcher;
 
     @Transactional
     public void createNotificationForAlert(Alert alert) {
@@ -80,8 +79,9 @@ public class NotificationService {
             // 2. Lấy ID của người nhận
             String userChannel = user.getName(); // <-- SỬA LÀM SAO LẤY ĐƯỢC USERNAME
 
-            log.info("Pushing WebSocket notification to /topic/notifications/{}", userChannel);
-            messagingTemplate.convertAndSend("/topic/notifications/" + userChannel, dto);
+            // Đẩy sau khi commit, theo lane ưu tiên của severity
+            log.info("Queueing WebSocket notification to /topic/notifications/{}", userChannel);
+            notificationDispatcher.dispatch(alert.getSeverity(), "/topic/notifications/" + userChannel, dto);
             // --- HẾT ---
         }
     }
@@ -44,6 +44,7 @@ public class ProjectService {
     UserRepository userRepository;
     ProjectMapper projectMapper;
     CameraMapper cameraMapper;
+    AlertReferenceCache alertReferenceCache;
 
     /**
      * Tạo project
@@ -107,6 +108,7 @@ public class ProjectService {
 
         projectMapper.updateProject(project, request);
         Project savedProject = projectRepository.save(project);
+        alertReferenceCache.invalidateProject(id);
         ProjectResponse response = projectMapper.toProjectResponse(savedProject);
         log.info(
                 "Returning project response with managerName: {}",
@@ -124,6 +126,7 @@ public class ProjectService {
         Project project =
                 projectRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_FOUND));
         projectRepository.delete(project);
+        alertReferenceCache.invalidateProject(id);
     }
 
     /**
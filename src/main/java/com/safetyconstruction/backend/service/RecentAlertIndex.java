@@ -0,0 +1,562 @@
+package com.safetyconstruction.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.safetyconstruction.backend.configuration.RecentAlertIndexProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.repository.AlertRepository;
+import com.safetyconstruction.backend.specification.AlertSpecification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index trong bộ nhớ của các alert trong cửa sổ gần đây (mặc định 24h), lưu dạng cột bằng mảng nguyên thủy
+ * kèm danh sách dòng theo project / camera. Truy vấn có happenedAfter nằm trong cửa sổ được lọc, sắp xếp và đếm
+ * tại đây, DB chỉ còn lấy các dòng của trang theo id.
+ * Được cập nhật từ AlertChangedEvent (ghi / review / xóa), nạp lại từ DB lúc khởi động và định kỳ.
+ * Chưa nạp xong, vượt maxRows hoặc có thể đã lỡ event của node khác -> search trả về empty để dùng DB.
+ */
+@Component
+@Slf4j
+public class RecentAlertIndex {
+
+    private static final byte DELETED = -1;
+    private static final int NO_TYPE = -1;
+
+    private final AlertRepository alertRepository;
+    private final AlertTypeInterner alertTypeInterner;
+    private final AlertEventPublisher alertEventPublisher;
+    private final RecentAlertIndexProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Counter served;
+    private final Counter fallback;
+
+    // Ghi dưới write lock; volatile để maintain() đọc nhanh không cần lock
+    private volatile Segment segment;
+    // != null trong lúc rebuild: event đến trong lúc nạp được áp lại lên segment mới
+    private List<AlertChangedEvent> pendingDuringRebuild;
+    private boolean wasReceivingRemoteEvents;
+
+    public RecentAlertIndex(
+            AlertRepository alertRepository,
+            AlertTypeInterner alertTypeInterner,
+            AlertEventPublisher alertEventPublisher,
+            RecentAlertIndexProperties properties,
+            MeterRegistry meterRegistry) {
+        this.alertRepository = alertRepository;
+        this.alertTypeInterner = alertTypeInterner;
+        this.alertEventPublisher = alertEventPublisher;
+        this.properties = properties;
+        Gauge.builder("alert.recent-index.rows", this, index -> {
+                    Segment current = index.segment;
+                    return current != null ? current.size : 0;
+                })
+                .description("Số alert đang giữ trong index bộ nhớ")
+                .register(meterRegistry);
+        this.served = Counter.builder("alert.recent-index.queries")
+                .description("Số truy vấn search alert theo nơi phục vụ")
+                .tag("source", "index")
+                .register(meterRegistry);
+        this.fallback = Counter.builder("alert.recent-index.queries")
+                .description("Số truy vấn search alert theo nơi phục vụ")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    public record Hits(List<Long> ids, long total) {}
+
+    /**
+     * Id của các alert khớp bộ lọc theo happenedAt DESC, id DESC (bỏ qua offset, tối đa limit) và tổng số khớp.
+     * Empty nếu truy vấn không phục vụ được từ index.
+     */
+    public Optional<Hits> search(AlertSearchRequest request, Sort sort, long offset, int limit) {
+        Optional<Hits> hits = doSearch(request, sort, offset, limit);
+        (hits.isPresent() ? served : fallback).increment();
+        return hits;
+    }
+
+    @EventListener
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            if (segment != null) {
+                segment.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${alert.recent-index.initial-delay:PT5S}",
+            fixedDelayString = "${alert.recent-index.check-interval:PT30S}")
+    void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        boolean receiving = alertEventPublisher.isReceivingRemoteEvents();
+        // Vừa subscribe lại -> có thể đã lỡ event trong lúc mất kết nối
+        boolean resubscribed = receiving && !wasReceivingRemoteEvents;
+        wasReceivingRemoteEvents = receiving;
+        if (properties.isRequireRemoteEvents() && !receiving) {
+            return;
+        }
+
+        Segment current = segment;
+        if (current == null
+                || resubscribed
+                || current.overflow
+                || System.currentTimeMillis() - current.builtAtMillis
+                        >= properties.getRebuildInterval().toMillis()) {
+            rebuild();
+        }
+    }
+
+    void rebuild() {
+        long started = System.currentTimeMillis();
+        Instant from = Instant.now().minus(properties.getWindow());
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment(toMicros(from), properties.getMaxRows(), started);
+        try {
+            load(fresh, from);
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Could not rebuild recent alert index: {}", ex.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(fresh::apply);
+            pendingDuringRebuild = null;
+            segment = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (fresh.overflow) {
+            log.warn("Recent alert index exceeds {} rows, queries fall back to the database", properties.getMaxRows());
+        } else {
+            log.info(
+                    "Recent alert index rebuilt: {} alerts since {} in {} ms",
+                    fresh.size,
+                    from,
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    private void load(Segment fresh, Instant from) {
+        int chunkSize = properties.getLoadChunkSize();
+        Instant afterTime = from;
+        long afterId = -1;
+        while (!fresh.overflow) {
+            List<Object[]> rows = alertRepository.findIndexRowsAfter(afterTime, afterId, Limit.of(chunkSize));
+            for (Object[] row : rows) {
+                fresh.upsert(
+                        (Long) row[0],
+                        (Long) row[1],
+                        (Long) row[2],
+                        (Integer) row[3],
+                        (AlertSeverity) row[4],
+                        (AlertStatus) row[5],
+                        (Float) row[6],
+                        (Instant) row[7]);
+            }
+            if (rows.size() < chunkSize) {
+                return;
+            }
+            Object[] last = rows.get(rows.size() - 1);
+            afterTime = (Instant) last[7];
+            afterId = (Long) last[0];
+        }
+    }
+
+    private Optional<Hits> doSearch(AlertSearchRequest request, Sort sort, long offset, int limit) {
+        if (!properties.isEnabled()
+                || limit < 0
+                || request.getHappenedAfter() == null
+                || request.getTypeMatch() == TypeMatch.CONTAINS
+                || !isNewestFirst(sort)) {
+            return Optional.empty();
+        }
+        if (properties.isRequireRemoteEvents() && !alertEventPublisher.isReceivingRemoteEvents()) {
+            return Optional.empty();
+        }
+        Filter filter = Filter.of(request, alertTypeInterner);
+
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            if (current == null || current.overflow || filter.from() < current.coveredFromMicros) {
+                return Optional.empty();
+            }
+            return Optional.of(current.search(filter, offset, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Chỉ phục vụ thứ tự mặc định của list: happenedAt DESC (rồi id DESC)
+    private static boolean isNewestFirst(Sort sort) {
+        Iterator<Sort.Order> orders = sort.iterator();
+        if (!orders.hasNext()) {
+            return true;
+        }
+        Sort.Order first = orders.next();
+        if (!first.getProperty().equals("happenedAt") || first.isAscending()) {
+            return false;
+        }
+        if (!orders.hasNext()) {
+            return true;
+        }
+        Sort.Order second = orders.next();
+        return second.getProperty().equals("id") && second.isDescending() && !orders.hasNext();
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    /**
+     * Bộ lọc đã chuẩn hóa, cùng ngữ nghĩa với AlertSpecification (severity/status/type không hợp lệ -> không khớp gì).
+     */
+    private record Filter(
+            Long projectId,
+            Long cameraId,
+            int typeId,
+            byte severity,
+            byte status,
+            Float minConfidence,
+            Float maxConfidence,
+            long from,
+            long to,
+            boolean matchesNothing) {
+
+        private static final int ANY = -2;
+
+        static Filter of(AlertSearchRequest request, AlertTypeInterner typeInterner) {
+            boolean matchesNothing = false;
+
+            int typeId = ANY;
+            if (request.getType() != null && !request.getType().trim().isEmpty()) {
+                typeId = typeInterner.findId(request.getType()).orElse(AlertTypeInterner.UNKNOWN_TYPE_ID);
+            }
+            byte severity = ANY;
+            if (request.getSeverity() != null && !request.getSeverity().trim().isEmpty()) {
+                AlertSeverity value = AlertSpecification.parseEnum(AlertSeverity.class, request.getSeverity());
+                matchesNothing = value == null;
+                severity = value != null ? (byte) value.ordinal() : ANY;
+            }
+            byte status = ANY;
+            if (request.getAlertStatus() != null
+                    && !request.getAlertStatus().trim().isEmpty()) {
+                AlertStatus value = AlertSpecification.parseEnum(AlertStatus.class, request.getAlertStatus());
+                matchesNothing |= value == null;
+                status = value != null ? (byte) value.ordinal() : ANY;
+            }
+            return new Filter(
+                    request.getProjectId(),
+                    request.getCameraId(),
+                    typeId,
+                    severity,
+                    status,
+                    request.getMinConfidence(),
+                    request.getMaxConfidence(),
+                    toMicros(request.getHappenedAfter()),
+                    request.getHappenedBefore() != null ? toMicros(request.getHappenedBefore()) : Long.MAX_VALUE,
+                    matchesNothing);
+        }
+    }
+
+    /**
+     * Dữ liệu của 1 lần nạp: mỗi alert là 1 dòng (cùng chỉ số) trong các mảng cột.
+     * Không tự đồng bộ: RecentAlertIndex bảo vệ bằng read/write lock.
+     */
+    static final class Segment {
+        final long coveredFromMicros;
+        final long builtAtMillis;
+        final int maxRows;
+        int size;
+        boolean overflow;
+
+        long[] ids = new long[1024];
+        long[] projectIds = new long[1024];
+        long[] cameraIds = new long[1024]; // 0 = không có camera
+        int[] typeIds = new int[1024];
+        byte[] severities = new byte[1024];
+        byte[] statuses = new byte[1024]; // DELETED = đã xóa
+        float[] confidences = new float[1024];
+        long[] happenedAt = new long[1024]; // epoch micros
+
+        final LongIntMap rowById = new LongIntMap();
+        final Map<Long, IntList> rowsByProject = new HashMap<>();
+        final Map<Long, IntList> rowsByCamera = new HashMap<>();
+
+        Segment(long coveredFromMicros, int maxRows, long builtAtMillis) {
+            this.coveredFromMicros = coveredFromMicros;
+            this.maxRows = maxRows;
+            this.builtAtMillis = builtAtMillis;
+        }
+
+        void apply(AlertChangedEvent event) {
+            if (event.kind() == AlertChangedEvent.Kind.DELETED) {
+                int row = rowById.get(event.alertId());
+                if (row >= 0) {
+                    statuses[row] = DELETED;
+                }
+                return;
+            }
+            upsert(
+                    event.alertId(),
+                    event.projectId(),
+                    event.cameraId(),
+                    event.typeId(),
+                    event.severity(),
+                    event.alertStatus(),
+                    event.confidence(),
+                    event.happenedAt());
+        }
+
+        void upsert(
+                long id,
+                Long projectId,
+                Long cameraId,
+                Integer typeId,
+                AlertSeverity severity,
+                AlertStatus status,
+                Float confidence,
+                Instant happened) {
+            int row = rowById.get(id);
+            if (row < 0) {
+                long happenedMicros = toMicros(happened);
+                if (happenedMicros < coveredFromMicros) {
+                    return; // ngoài cửa sổ
+                }
+                if (size >= maxRows) {
+                    overflow = true;
+                    return;
+                }
+                row = size++;
+                ensureCapacity(size);
+                ids[row] = id;
+                projectIds[row] = projectId;
+                cameraIds[row] = cameraId != null ? cameraId : 0;
+                rowById.put(id, row);
+                rowsByProject.computeIfAbsent(projectId, key -> new IntList()).add(row);
+                if (cameraId != null) {
+                    rowsByCamera.computeIfAbsent(cameraId, key -> new IntList()).add(row);
+                }
+            }
+            typeIds[row] = typeId != null ? typeId : NO_TYPE;
+            severities[row] = (byte) severity.ordinal();
+            statuses[row] = (byte) status.ordinal();
+            confidences[row] = confidence;
+            happenedAt[row] = toMicros(happened);
+        }
+
+        Hits search(Filter filter, long offset, int limit) {
+            if (filter.matchesNothing()) {
+                return new Hits(List.of(), 0);
+            }
+            IntList source = null;
+            if (filter.cameraId() != null) {
+                source = rowsByCamera.get(filter.cameraId());
+                if (source == null) {
+                    return new Hits(List.of(), 0);
+                }
+            } else if (filter.projectId() != null) {
+                source = rowsByProject.get(filter.projectId());
+                if (source == null) {
+                    return new Hits(List.of(), 0);
+                }
+            }
+
+            // Giữ k dòng mới nhất bằng min-heap (đầu heap là dòng cũ nhất)
+            int k = (int) Math.min(Integer.MAX_VALUE - 1, offset + limit);
+            PriorityQueue<Integer> newest = new PriorityQueue<>(Math.min(k, 1024) + 1, this::compareOldestFirst);
+            long total = 0;
+            int count = source != null ? source.size : size;
+            for (int i = 0; i < count; i++) {
+                int row = source != null ? source.items[i] : i;
+                if (!matches(row, filter)) {
+                    continue;
+                }
+                total++;
+                if (k > 0) {
+                    newest.add(row);
+                    if (newest.size() > k) {
+                        newest.poll();
+                    }
+                }
+            }
+
+            long[] ordered = new long[newest.size()];
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                ordered[i] = ids[newest.poll()];
+            }
+            int skip = (int) Math.min(offset, ordered.length);
+            return new Hits(Arrays.stream(ordered, skip, ordered.length).boxed().toList(), total);
+        }
+
+        private boolean matches(int row, Filter filter) {
+            byte status = statuses[row];
+            if (status == DELETED) {
+                return false;
+            }
+            long happened = happenedAt[row];
+            if (happened < filter.from() || happened > filter.to()) {
+                return false;
+            }
+            if (filter.projectId() != null && projectIds[row] != filter.projectId()) {
+                return false;
+            }
+            if (filter.cameraId() != null && cameraIds[row] != filter.cameraId()) {
+                return false;
+            }
+            if (filter.typeId() != Filter.ANY && typeIds[row] != filter.typeId()) {
+                return false;
+            }
+            if (filter.severity() != Filter.ANY && severities[row] != filter.severity()) {
+                return false;
+            }
+            if (filter.status() != Filter.ANY && status != filter.status()) {
+                return false;
+            }
+            float confidence = confidences[row];
+            if (filter.minConfidence() != null && confidence < filter.minConfidence()) {
+                return false;
+            }
+            return filter.maxConfidence() == null || confidence <= filter.maxConfidence();
+        }
+
+        private int compareOldestFirst(int left, int right) {
+            int byTime = Long.compare(happenedAt[left], happenedAt[right]);
+            return byTime != 0 ? byTime : Long.compare(ids[left], ids[right]);
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(required, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            projectIds = Arrays.copyOf(projectIds, capacity);
+            cameraIds = Arrays.copyOf(cameraIds, capacity);
+            typeIds = Arrays.copyOf(typeIds, capacity);
+            severities = Arrays.copyOf(severities, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            confidences = Arrays.copyOf(confidences, capacity);
+            happenedAt = Arrays.copyOf(happenedAt, capacity);
+        }
+    }
+
+    // Danh sách chỉ số dòng (int nguyên thủy, không boxing)
+    static final class IntList {
+        int[] items = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size + (size >> 1));
+            }
+            items[size++] = value;
+        }
+    }
+
+    // Map long -> int không boxing (open addressing, dò tuyến tính); chỉ thêm, không xóa. Khóa vắng -> -1
+    static final class LongIntMap {
+        long[] keys = new long[2048];
+        int[] values = filled(2048);
+        int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                if (values[slot] < 0) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            // Giữ tải <= 1/2 để chuỗi dò ngắn
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (values[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] < 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = filled(capacity);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private static int[] filled(int capacity) {
+            int[] values = new int[capacity];
+            Arrays.fill(values, -1);
+            return values;
+        }
+    }
+}
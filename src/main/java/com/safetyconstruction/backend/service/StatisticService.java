@@ -1,6 +1,11 @@
 package com.safetyconstruction.backend.service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
@@ -9,11 +14,13 @@ import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
 import com.safetyconstruction.backend.dto.response.StatisticResponse;
 import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.StatisticGroup;
 import com.safetyconstruction.backend.specification.AlertSpecification;
 
 import lombok.AccessLevel;
@@ -28,6 +35,20 @@ import lombok.extern.slf4j.Slf4j;
 public class StatisticService {
 
     EntityManager entityManager;
+    AlertTypeInterner alertTypeInterner;
+    AlertStatsRollupService statsRollupService;
+    AlertAnalyticsCache analyticsCache;
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * Export STATISTICS gồm cả 3 nhóm: kiểm tra quyền lúc submit job thay vì để job FAILED khi chạy.
+     */
+    @PreAuthorize(
+            "hasAnyAuthority('STATISTIC_READ_ALL', 'STATISTIC_READ') or (hasAuthority('STATISTIC_READ_ALERT_TYPE')"
+                    + " and hasAuthority('STATISTIC_READ_ALERT_TREND') and hasAuthority('STATISTIC_READ_PROJECT'))")
+    public void checkExportAccess() {
+        // Chỉ để @PreAuthorize kiểm tra
+    }
 
     /**
      * Lấy số lượng Alert, NHÓM THEO LOẠI VI PHẠM
@@ -35,28 +56,16 @@ public class StatisticService {
      * - MANAGER: Chỉ xem thống kê projects được phân công
      * - SUPERVISOR: Chỉ xem thống kê cơ bản
      */
-    @Transactional(readOnly = true)
     @PreAuthorize("hasAnyAuthority('STATISTIC_READ_ALL', 'STATISTIC_READ_ALERT_TYPE', 'STATISTIC_READ')")
     public List<StatisticResponse> getStatsByType(AlertSearchRequest searchRequest) {
         log.info("Getting statistics by alert type");
 
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<StatisticResponse> query = cb.createQuery(StatisticResponse.class);
-        Root<Alert> root = query.from(Alert.class);
-
-        // 1. ÁP DỤNG BỘ LỌC (WHERE clause)
-        Predicate predicate = buildPredicate(searchRequest, root, cb);
-        query.where(predicate);
-
-        // 2. ÁP DỤNG NHÓM (GROUP BY type)
-        Expression<String> groupField = root.get("type");
-        query.groupBy(groupField);
-
-        // 3. TÍNH TOÁN (SELECT type, COUNT(*))
-        query.select(cb.construct(StatisticResponse.class, groupField, cb.count(root)));
-
-        TypedQuery<StatisticResponse> typedQuery = entityManager.createQuery(query);
-        return typedQuery.getResultList();
+        return cached(StatisticGroup.TYPE, searchRequest, () -> {
+            // Nhóm theo type_id (cột số, rẻ hơn nhóm theo VARCHAR) rồi đổi id -> tên type
+            List<StatisticResponse> results = countBy(StatisticGroup.TYPE, searchRequest);
+            results.forEach(result -> result.setGroup(alertTypeInterner.codeOf((Integer) result.getGroup())));
+            return results;
+        });
     }
 
     /**
@@ -64,70 +73,82 @@ public class StatisticService {
      * - ADMIN: Toàn quyền
      * - MANAGER: Chỉ xem thống kê projects được phân công
      */
-    @Transactional(readOnly = true)
     @PreAuthorize("hasAnyAuthority('STATISTIC_READ_ALL', 'STATISTIC_READ_ALERT_TREND', 'STATISTIC_READ')")
     public List<StatisticResponse> getStatsByWeekday(AlertSearchRequest searchRequest) {
         log.info("Getting statistics by weekday");
-
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<StatisticResponse> query = cb.createQuery(StatisticResponse.class);
-        Root<Alert> root = query.from(Alert.class);
-
-        // 1. ÁP DỤNG BỘ LỌC (WHERE clause)
-        Predicate predicate = buildPredicate(searchRequest, root, cb);
-        query.where(predicate);
-
-        // 2. ÁP DỤNG NHÓM (GROUP BY DAY_OF_WEEK(happenedAt))
-        Expression<Integer> groupField = cb.function("DAYOFWEEK", Integer.class, root.get("happenedAt"));
-        query.groupBy(groupField);
-
-        // 3. TÍNH TOÁN (SELECT DAY_OF_WEEK, COUNT(*))
-        query.select(cb.construct(StatisticResponse.class, groupField, cb.count(root)));
-
-        TypedQuery<StatisticResponse> typedQuery = entityManager.createQuery(query);
-        return typedQuery.getResultList();
+        return cached(StatisticGroup.WEEKDAY, searchRequest, () -> countBy(StatisticGroup.WEEKDAY, searchRequest));
     }
 
     /**
      * THÊM MỚI: Thống kê theo Project (Manager cần cái này)
      */
-    @Transactional(readOnly = true)
     @PreAuthorize("hasAnyAuthority('STATISTIC_READ_ALL', 'STATISTIC_READ_PROJECT', 'STATISTIC_READ')")
     public List<StatisticResponse> getStatsByProject(AlertSearchRequest searchRequest) {
         log.info("Getting statistics by project");
+        return cached(StatisticGroup.PROJECT, searchRequest, () -> countBy(StatisticGroup.PROJECT, searchRequest));
+    }
+
+    /**
+     * Đọc từ cache Redis theo bộ lọc; chỉ khi miss mới mở transaction read-only (lấy kết nối DB) để tính.
+     */
+    private List<StatisticResponse> cached(
+            StatisticGroup group, AlertSearchRequest searchRequest, Supplier<List<StatisticResponse>> loader) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return analyticsCache.get(
+                AlertAnalyticsCache.STATISTICS_CACHE,
+                group.name(),
+                searchRequest,
+                () -> readOnly.execute(status -> loader.get()));
+    }
+
+    /**
+     * Đếm theo nhóm: từ alert_stats_hourly khi bộ lọc cho phép (cộng thêm phần giờ lẻ 2 đầu từ bảng alerts),
+     * ngược lại GROUP BY trên bảng alerts như cũ.
+     */
+    private List<StatisticResponse> countBy(StatisticGroup group, AlertSearchRequest searchRequest) {
+        Optional<AlertStatsRollupService.Plan> plan = statsRollupService.plan(searchRequest);
+        if (plan.isEmpty()) {
+            return countAlerts(
+                    group, AlertSpecification.matching(searchRequest, alertTypeInterner.filterId(searchRequest)));
+        }
+
+        Map<Object, Long> counts = new LinkedHashMap<>();
+        statsRollupService
+                .countGrouped(plan.get(), group)
+                .forEach(result -> counts.merge(result.getGroup(), result.getCount(), Long::sum));
+        for (Specification<Alert> edge : plan.get().edges()) {
+            countAlerts(group, edge).forEach(result -> counts.merge(result.getGroup(), result.getCount(), Long::sum));
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new StatisticResponse(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
 
+    private List<StatisticResponse> countAlerts(StatisticGroup group, Specification<Alert> spec) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<StatisticResponse> query = cb.createQuery(StatisticResponse.class);
         Root<Alert> root = query.from(Alert.class);
 
-        Predicate predicate = buildPredicate(searchRequest, root, cb);
-        query.where(predicate);
-
-        // Nhóm theo project
-        Expression<Long> groupField = root.get("project").get("id");
+        // 1. ÁP DỤNG BỘ LỌC (WHERE clause)
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // 2. ÁP DỤNG NHÓM
+        Expression<?> groupField =
+                switch (group) {
+                    case TYPE -> root.get("typeId");
+                    case WEEKDAY -> cb.function("DAYOFWEEK", Integer.class, root.get("happenedAt"));
+                    case PROJECT -> root.get("project").get("id");
+                };
         query.groupBy(groupField);
 
+        // 3. TÍNH TOÁN (SELECT group, COUNT(*))
         query.select(cb.construct(StatisticResponse.class, groupField, cb.count(root)));
 
         TypedQuery<StatisticResponse> typedQuery = entityManager.createQuery(query);
         return typedQuery.getResultList();
     }
-
-    /**
-     * Hàm private để tái sử dụng logic lọc
-     */
-    private Predicate buildPredicate(AlertSearchRequest searchRequest, Root<Alert> root, CriteriaBuilder cb) {
-        Specification<Alert> spec = Specification.allOf(
-                AlertSpecification.withProjectId(searchRequest.getProjectId()),
-                AlertSpecification.withCameraId(searchRequest.getCameraId()),
-                AlertSpecification.withType(searchRequest.getType()),
-                AlertSpecification.withSeverity(searchRequest.getSeverity()),
-                AlertSpecification.withStatus(searchRequest.getAlertStatus()),
-                AlertSpecification.withConfidenceRange(
-                        searchRequest.getMinConfidence(), searchRequest.getMaxConfidence()),
-                AlertSpecification.withHappenedTimeRange(
-                        searchRequest.getHappenedAfter(), searchRequest.getHappenedBefore()));
-
-        return spec.toPredicate(root, cb.createQuery(), cb);
-    }
 }
@@ -1,12 +1,33 @@
 package com.safetyconstruction.backend.specification;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Locale;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
 import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.TypeMatch;
 
 public class AlertSpecification {
+    /**
+     * Bộ lọc chung của các API search / export alert.
+     * typeId: id trong alert_types của request.getType() do service tra sẵn (AlertTypeInterner.filterId).
+     */
+    public static Specification<Alert> matching(AlertSearchRequest request, Integer typeId) {
+        return Specification.allOf(
+                withProjectId(request.getProjectId()),
+                withCameraId(request.getCameraId()),
+                withType(request.getType(), request.getTypeMatch(), typeId),
+                withSeverity(request.getSeverity()),
+                withStatus(request.getAlertStatus()),
+                withConfidenceRange(request.getMinConfidence(), request.getMaxConfidence()),
+                withHappenedTimeRange(request.getHappenedAfter(), request.getHappenedBefore()));
+    }
+
     public static Specification<Alert> withProjectId(Long projectId) {
         return (root, query, cb) -> {
             if (projectId == null) return null;
@@ -28,19 +49,44 @@ public class AlertSpecification {
         };
     }
 
+    // Mặc định EXACT: so sánh type_id (có index); CONTAINS giữ cách LIKE cũ khi client yêu cầu rõ.
+    // Alert cũ chưa được backfill type_id (NULL) thì so với cột type đã chuẩn hóa
+    public static Specification<Alert> withType(String type, TypeMatch match, Integer typeId) {
+        if (match == TypeMatch.CONTAINS) {
+            return withType(type);
+        }
+        return (root, query, cb) -> {
+            if (type == null || type.trim().isEmpty()) return null;
+            return cb.or(
+                    typeId != null ? cb.equal(root.get("typeId"), typeId) : cb.disjunction(),
+                    cb.and(
+                            cb.isNull(root.get("typeId")),
+                            cb.equal(
+                                    cb.upper(cb.trim(root.get("type"))),
+                                    type.trim().toUpperCase(Locale.ROOT))));
+        };
+    }
+
+    // So sánh trực tiếp với enum (không CAST cột sang chuỗi) để MySQL dùng được index (…, severity, happened_at)
     public static Specification<Alert> withSeverity(String severity) {
         return (root, query, cb) -> {
             if (severity == null || severity.trim().isEmpty()) return null;
-            return cb.equal(root.get("severity").as(String.class), severity.toUpperCase());
+            AlertSeverity value = parseEnum(AlertSeverity.class, severity);
+            return value == null ? cb.disjunction() : cb.equal(root.get("severity"), value);
         };
     }
 
+    public static Specification<Alert> withSeverityIn(AlertSeverity... severities) {
+        return (root, query, cb) -> root.get("severity").in((Object[]) severities);
+    }
+
     public static Specification<Alert> withStatus(String status) {
         return (root, query, cb) -> {
             if (status == null || status.trim().isEmpty()) return null;
 
             // SỬA LẠI: Tên trường đúng trong Entity là "alertStatus"
-            return cb.equal(root.get("alertStatus").as(String.class), status.toUpperCase());
+            AlertStatus value = parseEnum(AlertStatus.class, status);
+            return value == null ? cb.disjunction() : cb.equal(root.get("alertStatus"), value);
         };
     }
 
@@ -53,6 +99,20 @@ public class AlertSpecification {
         };
     }
 
+    public static Specification<Alert> withIds(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    // Keyset: các alert đứng sau (happenedAt, id) theo thứ tự happenedAt DESC, id DESC
+    public static Specification<Alert> beforeCursor(Instant happenedAt, Long id) {
+        return (root, query, cb) -> {
+            if (happenedAt == null || id == null) return null;
+            return cb.or(
+                    cb.lessThan(root.get("happenedAt"), happenedAt),
+                    cb.and(cb.equal(root.get("happenedAt"), happenedAt), cb.lessThan(root.get("id"), id)));
+        };
+    }
+
     public static Specification<Alert> withHappenedTimeRange(Instant after, Instant before) {
         return (root, query, cb) -> {
             if (after == null && before == null) return null;
@@ -61,4 +121,19 @@ public class AlertSpecification {
             return cb.between(root.get("happenedAt"), after, before);
         };
     }
+
+    // Khoảng nửa mở [from, to): ghép với các giờ trọn vẹn lấy từ alert_stats_hourly
+    public static Specification<Alert> withHappenedInRange(Instant from, Instant to) {
+        return (root, query, cb) ->
+                cb.and(cb.greaterThanOrEqualTo(root.get("happenedAt"), from), cb.lessThan(root.get("happenedAt"), to));
+    }
+
+    // Giá trị không hợp lệ -> null (bộ lọc không khớp alert nào, giống hành vi so sánh chuỗi cũ)
+    public static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
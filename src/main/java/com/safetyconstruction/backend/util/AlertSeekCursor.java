@@ -0,0 +1,35 @@
+package com.safetyconstruction.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Vị trí (happenedAt, id) của alert cuối cùng trên trang trước, mã hóa thành token mờ (base64url)
+ * để client chỉ cần gửi lại nguyên văn.
+ */
+public record AlertSeekCursor(Instant happenedAt, Long id) {
+
+    public String encode() {
+        String raw = happenedAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException nếu token không hợp lệ
+     */
+    public static AlertSeekCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new AlertSeekCursor(
+                    Instant.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.safetyconstruction.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hàng đợi có giới hạn gồm nhiều lane ưu tiên (lane 0 ưu tiên cao nhất), mỗi lane có sức chứa riêng
+ * để lane thấp bị dồn ứ không chặn được lane cao.
+ * Chống đói: phần tử đầu lane thấp đã chờ quá maxWait được lấy trước (chờ lâu nhất trước), nhưng tối đa
+ * 1 trong agedEvery lần lấy; còn lại lấy theo thứ tự lane. Khi quá tải (mọi lane đều quá maxWait)
+ * lane cao vẫn giữ phần lớn lượt thay vì thành FIFO.
+ */
+public class PriorityLaneQueue<T> {
+
+    public static final int DEFAULT_AGED_EVERY = 4;
+
+    private final ArrayDeque<Entry<T>>[] lanes;
+    private final int laneCapacity;
+    private final long maxWaitNanos;
+    private final int agedEvery;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int size;
+    // Số lần lấy theo thứ tự lane kể từ lần lấy phần tử quá hạn gần nhất
+    private int sinceAged;
+
+    public PriorityLaneQueue(int laneCount, int laneCapacity, long maxWait, TimeUnit unit) {
+        this(laneCount, laneCapacity, maxWait, unit, System::nanoTime);
+    }
+
+    public PriorityLaneQueue(int laneCount, int laneCapacity, long maxWait, TimeUnit unit, LongSupplier nanoClock) {
+        this(laneCount, laneCapacity, maxWait, unit, DEFAULT_AGED_EVERY, nanoClock);
+    }
+
+    /**
+     * @param agedEvery lane thấp quá hạn được phục vụ tối đa 1 trong agedEvery lần lấy (1 = luôn ưu tiên quá hạn)
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityLaneQueue(
+            int laneCount, int laneCapacity, long maxWait, TimeUnit unit, int agedEvery, LongSupplier nanoClock) {
+        if (laneCount < 1 || laneCapacity < 1 || agedEvery < 1) {
+            throw new IllegalArgumentException("laneCount, laneCapacity and agedEvery must be positive");
+        }
+        this.lanes = new ArrayDeque[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ArrayDeque<>();
+        }
+        this.laneCapacity = laneCapacity;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.agedEvery = agedEvery;
+        this.sinceAged = agedEvery - 1;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean offer(int lane, T item) {
+        lock.lock();
+        try {
+            return enqueue(lane, item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean offer(int lane, T item, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (lanes[lane].size() >= laneCapacity) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            return enqueue(lane, item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            return dequeue(nextLane(nanoClock.getAsLong()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lấy tối đa maxElements phần tử (không chờ) theo cùng thứ tự ưu tiên như poll.
+     */
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            int drained = 0;
+            while (drained < maxElements && size > 0) {
+                target.add(dequeue(nextLane(now)));
+                drained++;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size(int lane) {
+        lock.lock();
+        try {
+            return lanes[lane].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    private boolean enqueue(int lane, T item) {
+        if (lanes[lane].size() >= laneCapacity) {
+            return false;
+        }
+        lanes[lane].addLast(new Entry<>(item, nanoClock.getAsLong()));
+        size++;
+        notEmpty.signal();
+        return true;
+    }
+
+    private T dequeue(int lane) {
+        T item = lanes[lane].pollFirst().item();
+        size--;
+        // Mỗi lane có sức chứa riêng -> đánh thức tất cả, producer của lane khác sẽ chờ tiếp
+        notFull.signalAll();
+        return item;
+    }
+
+    private int nextLane(long now) {
+        int highest = -1;
+        int starving = -1;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < lanes.length; i++) {
+            Entry<T> head = lanes[i].peekFirst();
+            if (head == null) {
+                continue;
+            }
+            if (highest < 0) {
+                highest = i;
+            } else if (now - head.enqueuedNanos() >= maxWaitNanos && head.enqueuedNanos() < oldest) {
+                starving = i;
+                oldest = head.enqueuedNanos();
+            }
+        }
+        if (starving < 0) {
+            return highest;
+        }
+        if (sinceAged >= agedEvery - 1) {
+            sinceAged = 0;
+            return starving;
+        }
+        sinceAged++;
+        return highest;
+    }
+
+    private record Entry<T>(T item, long enqueuedNanos) {}
+}
@@ -0,0 +1,172 @@
+package com.safetyconstruction.backend.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.dhatim.fastexcel.Workbook;
+import org.dhatim.fastexcel.Worksheet;
+
+/**
+ * Ghi bảng (dòng đầu là tiêu đề) tuần tự ra stream: mỗi dòng được ghi ngay, không giữ cả bảng trong bộ nhớ.
+ * close() hoàn tất file nhưng không đóng stream bên dưới.
+ */
+public interface TableWriter extends Closeable {
+
+    void writeRow(List<?> values) throws IOException;
+
+    /**
+     * CSV (RFC 4180, UTF-8 có BOM để Excel đọc đúng tiếng Việt). Instant ghi dạng ISO-8601 UTC.
+     */
+    static TableWriter csv(OutputStream out) throws IOException {
+        return new Csv(out);
+    }
+
+    /**
+     * XLSX qua fastexcel; thời gian được đổi sang giờ địa phương theo zone và ghi thành ô ngày giờ.
+     */
+    static TableWriter xlsx(OutputStream out, String sheetName, ZoneId zone) {
+        return new Xlsx(out, sheetName, zone);
+    }
+
+    final class Csv implements TableWriter {
+
+        private final Writer writer;
+
+        private Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        public void writeRow(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(values.get(i));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof Enum<?> e ? e.name() : value.toString();
+            // Chặn CSV injection: ô bắt đầu bằng = + - @ bị Excel hiểu là công thức
+            if (value instanceof CharSequence && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0
+                    || text.indexOf('"') >= 0
+                    || text.indexOf('\n') >= 0
+                    || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    final class Xlsx implements TableWriter {
+
+        // Giới hạn số dòng của 1 sheet Excel; vượt thì sang sheet mới (kèm lại tiêu đề)
+        static final int MAX_SHEET_ROWS = 1_048_576;
+        // Số dòng giữ trong bộ nhớ trước khi đẩy xuống stream
+        private static final int FLUSH_EVERY_ROWS = 1_000;
+        private static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+        private final Workbook workbook;
+        private final String sheetName;
+        private final ZoneId zone;
+        private final int maxSheetRows;
+        private Worksheet worksheet;
+        private List<?> header;
+        private int sheets;
+        private int row;
+
+        private Xlsx(OutputStream out, String sheetName, ZoneId zone) {
+            this(out, sheetName, zone, MAX_SHEET_ROWS);
+        }
+
+        Xlsx(OutputStream out, String sheetName, ZoneId zone, int maxSheetRows) {
+            this.workbook = new Workbook(out, "SafetyConstruction", "1.0");
+            this.sheetName = sheetName;
+            this.zone = zone;
+            this.maxSheetRows = maxSheetRows;
+        }
+
+        @Override
+        public void writeRow(List<?> values) throws IOException {
+            if (header == null) {
+                header = List.copyOf(values);
+            }
+            if (worksheet == null || row >= maxSheetRows) {
+                newSheet();
+            }
+            for (int column = 0; column < values.size(); column++) {
+                writeCell(column, values.get(column));
+            }
+            row++;
+            if (row % FLUSH_EVERY_ROWS == 0) {
+                worksheet.flush();
+            }
+        }
+
+        private void newSheet() throws IOException {
+            if (worksheet != null) {
+                worksheet.finish();
+            }
+            sheets++;
+            worksheet = workbook.newWorksheet(sheets == 1 ? sheetName : sheetName + " (" + sheets + ")");
+            row = 0;
+            if (sheets > 1) {
+                for (int column = 0; column < header.size(); column++) {
+                    writeCell(column, header.get(column));
+                }
+                row++;
+            }
+        }
+
+        private void writeCell(int column, Object value) {
+            switch (value) {
+                case null -> {}
+                case Number number -> worksheet.value(row, column, number);
+                case Boolean bool -> worksheet.value(row, column, bool);
+                case Instant instant -> writeDateTime(column, LocalDateTime.ofInstant(instant, zone));
+                case LocalDateTime dateTime -> writeDateTime(column, dateTime);
+                case Enum<?> e -> worksheet.value(row, column, e.name());
+                default -> worksheet.value(row, column, value.toString());
+            }
+        }
+
+        private void writeDateTime(int column, LocalDateTime value) {
+            worksheet.value(row, column, value);
+            worksheet.style(row, column).format(DATE_TIME_FORMAT).set();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (worksheet == null) {
+                worksheet = workbook.newWorksheet(sheetName);
+            }
+            workbook.finish();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.safetyconstruction.backend.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket không khóa theo từng key (thuật toán GCRA).
+ * Mỗi key chỉ giữ 1 AtomicLong: thời điểm "lý thuyết" bucket đầy trở lại (TAT, nano giây);
+ * tryAcquire là 1 vòng CAS, không có thread nền nạp token.
+ */
+public class TokenBucketRateLimiter<K> {
+
+    // Giá trị của bucket vừa bị evictIdle gỡ khỏi map: tryAcquire đang giữ nó phải lấy lại bucket mới
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final ConcurrentHashMap<K, AtomicLong> theoreticalArrival = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @param ratePerSecond tốc độ nạp token
+     * @param burst số token tối đa (số request được phép dồn cùng lúc)
+     * @return true nếu lấy được 1 token
+     */
+    public boolean tryAcquire(K key, double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0) {
+            return false;
+        }
+        long interval = (long) (1_000_000_000d / ratePerSecond);
+        long capacity = interval * Math.max(1, burst);
+        long now = nanoClock.getAsLong();
+        AtomicLong tat = theoreticalArrival.computeIfAbsent(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long current = tat.get();
+            if (current == EVICTED) {
+                tat = theoreticalArrival.computeIfAbsent(key, k -> new AtomicLong(now));
+                continue;
+            }
+            long next = Math.max(current, now) + interval;
+            if (next - now > capacity) {
+                return false;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Xóa các key đã đầy token trở lại (không còn khác gì key mới), tránh map tăng mãi.
+     * Kiểm tra + xóa trong computeIfPresent, đánh dấu EVICTED bằng CAS: token vừa được lấy đồng thời không bị mất.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        for (K key : theoreticalArrival.keySet()) {
+            theoreticalArrival.computeIfPresent(key, (k, tat) -> {
+                long current = tat.get();
+                return current - now <= 0 && tat.compareAndSet(current, EVICTED) ? null : tat;
+            });
+        }
+    }
+
+    public int size() {
+        return theoreticalArrival.size();
+    }
+}
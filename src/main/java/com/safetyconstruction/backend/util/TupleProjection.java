@@ -0,0 +1,92 @@
+package com.safetyconstruction.backend.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Ánh xạ tên trường của DTO -> cột trong Criteria query, để chỉ SELECT (và chỉ điền) các trường được yêu cầu.
+ * Thứ tự khai báo cột cũng là thứ tự SELECT.
+ */
+public final class TupleProjection<E, R> {
+
+    private final Supplier<R> factory;
+    private final Map<String, Column<E, R, ?>> columns = new LinkedHashMap<>();
+
+    public TupleProjection(Supplier<R> factory) {
+        this.factory = factory;
+    }
+
+    public <V> TupleProjection<E, R> column(
+            String field, Class<V> type, Function<Root<E>, Expression<V>> path, BiConsumer<R, V> setter) {
+        columns.put(field, new Column<>(type, path, setter));
+        return this;
+    }
+
+    public Set<String> fields() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    public Set<String> fieldsExcept(String... excluded) {
+        Set<String> fields = new LinkedHashSet<>(columns.keySet());
+        List.of(excluded).forEach(fields::remove);
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * fields=a,b,c -> tập trường (theo thứ tự khai báo) cộng thêm các trường bắt buộc;
+     * rỗng -> defaults. Trường không khai báo -> IllegalArgumentException.
+     */
+    public Set<String> parse(String fields, Set<String> defaults, String... required) {
+        if (fields == null || fields.isBlank()) {
+            return defaults;
+        }
+        Set<String> requested = new LinkedHashSet<>(List.of(required));
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!columns.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+        Set<String> ordered = new LinkedHashSet<>(columns.keySet());
+        ordered.retainAll(requested);
+        return ordered;
+    }
+
+    public void select(CriteriaQuery<Tuple> query, Root<E> root, Set<String> fields) {
+        query.multiselect(fields.stream()
+                .<Selection<?>>map(
+                        field -> columns.get(field).path().apply(root).alias(field))
+                .toList());
+    }
+
+    public R read(Tuple row, Set<String> fields) {
+        R result = factory.get();
+        for (String field : fields) {
+            columns.get(field).assign(result, row, field);
+        }
+        return result;
+    }
+
+    private record Column<E, R, V>(Class<V> type, Function<Root<E>, Expression<V>> path, BiConsumer<R, V> setter) {
+        void assign(R target, Tuple row, String alias) {
+            setter.accept(target, row.get(alias, type));
+        }
+    }
+}
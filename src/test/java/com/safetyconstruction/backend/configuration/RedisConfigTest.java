@@ -0,0 +1,130 @@
+package com.safetyconstruction.backend.configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.dto.response.AlertListItemResponse;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.dto.response.DashboardSummaryResponse;
+import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.dto.response.StatsResponse;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.service.AlertAnalyticsCache;
+import com.safetyconstruction.backend.service.DashboardService;
+
+class RedisConfigTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void analyticsCache_roundTripsDashboardEntries() throws Exception {
+        AlertResponse recent = new AlertListItemResponse();
+        recent.setId(1L);
+        recent.setProjectId(7L);
+        recent.setType("NO_HELMET");
+        recent.setSeverity(AlertSeverity.HIGH);
+        recent.setConfidence(0.9f);
+        recent.setAlertStatus(AlertStatus.NEW);
+        recent.setHappenedAt(Instant.parse("2024-05-01T10:15:30.123Z"));
+        recent.setCreatedAt(LocalDateTime.parse("2024-05-01T17:15:31"));
+        DashboardService.CachedDashboard dashboard = new DashboardService.CachedDashboard(
+                new DashboardSummaryResponse(3, 2, 1),
+                List.of(new StatsResponse("NO_HELMET", new long[] {0, 1, 2, 0, 0, 0, 0})),
+                null,
+                List.of(recent),
+                3,
+                List.of("monthlyStats"));
+
+        AlertAnalyticsCache.Entry<?> entry = new AlertAnalyticsCache.Entry<>(dashboard, 1_700_000_000_000L);
+        AlertAnalyticsCache.Entry<?> read = roundTrip(AlertAnalyticsCache.DASHBOARD_CACHE, entry);
+
+        DashboardService.CachedDashboard cached = (DashboardService.CachedDashboard) read.value();
+        assertEquals(entry.loadedAtMillis(), read.loadedAtMillis());
+        assertInstanceOf(AlertListItemResponse.class, cached.recentAlerts().get(0));
+        // Client nhận cùng JSON dù kết quả đến từ cache hay vừa tính
+        assertEquals(objectMapper.writeValueAsString(dashboard), objectMapper.writeValueAsString(cached));
+    }
+
+    @Test
+    void analyticsCache_roundTripsStatisticsWithObjectGroups() throws Exception {
+        List<StatisticResponse> statistics = List.of(
+                new StatisticResponse("NO_HELMET", 3),
+                new StatisticResponse(2, 5),
+                new StatisticResponse(7L, 8),
+                new StatisticResponse(null, 1));
+
+        AlertAnalyticsCache.Entry<?> read =
+                roundTrip(AlertAnalyticsCache.STATISTICS_CACHE, new AlertAnalyticsCache.Entry<>(statistics, 42L));
+
+        List<?> cached = assertInstanceOf(List.class, read.value());
+        assertInstanceOf(StatisticResponse.class, cached.get(0));
+        assertEquals(objectMapper.writeValueAsString(statistics), objectMapper.writeValueAsString(cached));
+    }
+
+    @Test
+    void debounceRedisTemplate_keepsMainConnectionSettingsExceptTimeout() {
+        RedisSentinelConfiguration sentinel = new RedisSentinelConfiguration("mymaster", Set.of("sentinel-1:26379"));
+        sentinel.setDatabase(2);
+        LettuceConnectionFactory main = new LettuceConnectionFactory(
+                sentinel,
+                LettuceClientConfiguration.builder()
+                        .useSsl()
+                        .and()
+                        .clientName("backend")
+                        .commandTimeout(Duration.ofSeconds(60))
+                        .build());
+        NotificationDebounceProperties debounceProperties = new NotificationDebounceProperties();
+        RedisConfig config = new RedisConfig();
+
+        RedisTemplate<String, String> template = config.debounceRedisTemplate(main, debounceProperties);
+        try {
+            LettuceConnectionFactory debounce = (LettuceConnectionFactory) template.getConnectionFactory();
+            assertTrue(debounce.isRedisSentinelAware());
+            assertEquals(
+                    "mymaster", debounce.getSentinelConfiguration().getMaster().getName());
+            assertEquals(2, debounce.getDatabase());
+            assertTrue(debounce.getClientConfiguration().isUseSsl());
+            assertEquals(
+                    "backend", debounce.getClientConfiguration().getClientName().orElseThrow());
+            assertEquals(
+                    debounceProperties.getRedisTimeout(),
+                    debounce.getClientConfiguration().getCommandTimeout());
+        } finally {
+            config.closeDebounceConnection();
+        }
+    }
+
+    private AlertAnalyticsCache.Entry<?> roundTrip(String cacheName, AlertAnalyticsCache.Entry<?> entry) {
+        RedisCacheManager.RedisCacheManagerBuilder builder =
+                RedisCacheManager.builder(mock(RedisConnectionFactory.class));
+        new RedisConfig()
+                .alertAnalyticsCacheCustomizer(objectMapper, new AlertAnalyticsCacheProperties())
+                .customize(builder);
+        RedisCacheConfiguration configuration =
+                builder.getCacheConfigurationFor(cacheName).orElseThrow();
+
+        ByteBuffer bytes = configuration.getValueSerializationPair().write(entry);
+        return assertInstanceOf(
+                AlertAnalyticsCache.Entry.class,
+                configuration.getValueSerializationPair().read(bytes));
+    }
+}
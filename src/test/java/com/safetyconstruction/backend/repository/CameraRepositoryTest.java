@@ -0,0 +1,71 @@
+package com.safetyconstruction.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.dto.response.CameraResponse;
+
+// Chỉ tạo bảng camera: cột name dùng COLLATE của MySQL nên H2 không tự tạo được schema từ entity
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Sql(
+        statements = {
+            "CREATE TABLE camera (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), ip_address VARCHAR(255),"
+                    + " rtsp_url VARCHAR(255), location VARCHAR(255), description VARCHAR(255), model VARCHAR(255),"
+                    + " project_id BIGINT NOT NULL)",
+            "INSERT INTO camera (name, ip_address, rtsp_url, location, project_id) VALUES"
+                    + " ('cam-b', '10.0.0.1', 'rtsp://b', 'Gate', 7), ('cam-a', '10.0.0.2', 'rtsp://a', 'Gate', 7),"
+                    + " ('cam-c', '10.0.0.3', 'rtsp://c', 'Yard', 7)"
+        })
+@Sql(statements = "DROP TABLE camera", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class CameraRepositoryTest {
+
+    @Autowired
+    private CameraRepository cameraRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void findListItems_selectsOnlyRequestedFields() throws Exception {
+        List<CameraResponse> items = cameraRepository.findListItems(
+                Specification.unrestricted(), Sort.by("name"), 1, 1, Set.of("id", "name"));
+
+        assertEquals(1, items.size());
+        CameraResponse item = items.get(0);
+        assertNotNull(item.getId());
+        assertEquals("cam-b", item.getName());
+        assertNull(item.getLocation());
+        assertNull(item.getProjectId());
+        // Chỉ dòng projection bỏ trường null; CameraResponse thường vẫn giữ
+        assertEquals(Set.of("id", "name"), fieldNames(item));
+        assertTrue(fieldNames(new CameraResponse()).contains("location"));
+    }
+
+    @Test
+    void findListItems_negativeLimitReturnsEveryRow() {
+        List<CameraResponse> items = cameraRepository.findListItems(
+                Specification.unrestricted(), Sort.unsorted(), 0, -1, Set.of("id", "projectId"));
+
+        assertEquals(3, items.size());
+        assertTrue(items.stream().allMatch(item -> Long.valueOf(7).equals(item.getProjectId())));
+    }
+
+    private Set<String> fieldNames(CameraResponse response) throws Exception {
+        Set<String> names = new HashSet<>();
+        objectMapper
+                .readTree(objectMapper.writeValueAsString(response))
+                .fieldNames()
+                .forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,57 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.safetyconstruction.backend.configuration.AlertAdmissionProperties;
+import com.safetyconstruction.backend.dto.projection.CameraReference;
+import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
+import com.safetyconstruction.backend.exception.ErrorCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AlertAdmissionControlTest {
+
+    @Mock
+    private AlertReferenceCache referenceCache;
+
+    private AlertAdmissionControl admissionControl;
+
+    @BeforeEach
+    void setUp() {
+        AlertAdmissionProperties properties = new AlertAdmissionProperties();
+        properties.setBurst(1);
+        admissionControl = new AlertAdmissionControl(properties, referenceCache, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void check_rejectsUnknownOrForeignCameraBeforeRateLimiting() {
+        when(referenceCache.getCameras(Set.of(9L))).thenReturn(Map.of(9L, new CameraReference(9L, 2L, "Gate")));
+        when(referenceCache.getCameras(Set.of(404L))).thenReturn(Map.of());
+
+        assertEquals(ErrorCode.CAMERA_NOT_FOUND, admissionControl.check(request(1L, 404L)));
+        assertEquals(ErrorCode.CAMERA_NOT_FOUND, admissionControl.check(request(1L, 9L)));
+
+        assertNull(admissionControl.check(request(2L, 9L)));
+        assertEquals(ErrorCode.ALERT_RATE_LIMITED, admissionControl.check(request(2L, 9L)));
+    }
+
+    private static AlertCreationRequest request(Long projectId, Long cameraId) {
+        return AlertCreationRequest.builder()
+                .projectId(projectId)
+                .cameraId(cameraId)
+                .type("HELMET")
+                .confidence(0.9f)
+                .build();
+    }
+}
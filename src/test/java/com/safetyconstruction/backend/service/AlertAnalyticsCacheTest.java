@@ -0,0 +1,188 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.safetyconstruction.backend.configuration.AlertAnalyticsCacheProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AlertAnalyticsCacheTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private AlertAnalyticsCacheProperties properties;
+    private ConcurrentMapCacheManager cacheManager;
+    private AlertAnalyticsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AlertAnalyticsCacheProperties();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient()
+                .when(valueOperations.setIfAbsent(anyString(), eq("1"), any(Duration.class)))
+                .thenReturn(true);
+        cacheManager = new ConcurrentMapCacheManager(AlertAnalyticsCache.STATISTICS_CACHE);
+        cache = new AlertAnalyticsCache(cacheManager, redisTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_reusesResultForEquivalentFiltersUntilProjectGenerationChanges() {
+        AtomicInteger loads = new AtomicInteger();
+        AlertSearchRequest first =
+                AlertSearchRequest.builder().projectId(7L).severity("high").build();
+        AlertSearchRequest sameFilter =
+                AlertSearchRequest.builder().projectId(7L).severity(" HIGH ").build();
+
+        assertEquals(1, load(first, loads));
+        assertEquals(1, load(sameFilter, loads));
+
+        when(valueOperations.get(AlertAnalyticsCache.GENERATION_KEY + 7)).thenReturn("1");
+        assertEquals(2, load(first, loads));
+    }
+
+    @Test
+    void flushInvalidations_bumpsChangedProjectsOnce() {
+        cache.onAlertChanged(event(7L));
+        cache.onAlertChanged(event(7L));
+        cache.onAlertChanged(event(9L));
+
+        cache.flushInvalidations();
+        cache.flushInvalidations();
+
+        verify(valueOperations).increment(AlertAnalyticsCache.GENERATION_KEY + 7);
+        verify(valueOperations).increment(AlertAnalyticsCache.GENERATION_KEY + 9);
+        verify(valueOperations).increment(AlertAnalyticsCache.GENERATION_KEY + AlertAnalyticsCache.ALL_PROJECTS);
+    }
+
+    @Test
+    void get_loadsOnceForConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        AlertSearchRequest request = AlertSearchRequest.builder().projectId(7L).build();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<Integer> leader =
+                    executor.submit(() -> cache.get(AlertAnalyticsCache.STATISTICS_CACHE, "TYPE", request, () -> {
+                        loading.countDown();
+                        await(release);
+                        return loads.incrementAndGet();
+                    }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Integer> follower = executor.submit(() -> load(request, loads));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_refreshesStaleEntryInBackground() throws Exception {
+        properties.setRefreshAfter(Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        AlertSearchRequest request = AlertSearchRequest.builder().projectId(7L).build();
+
+        assertEquals(1, load(request, loads));
+        // Trả ngay kết quả cũ, tính lại nền
+        assertEquals(1, load(request, loads));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (loads.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_waitsForLoadOnAnotherNode() {
+        Cache statistics = cacheManager.getCache(AlertAnalyticsCache.STATISTICS_CACHE);
+        // Node khác giữ khóa và ghi kết quả vào cache trong lúc node này chờ
+        when(valueOperations.setIfAbsent(anyString(), eq("1"), any(Duration.class)))
+                .thenAnswer(invocation -> {
+                    String lockKey = invocation.getArgument(0);
+                    String key = lockKey.substring(lockKey.indexOf(AlertAnalyticsCache.STATISTICS_CACHE + ":")
+                            + AlertAnalyticsCache.STATISTICS_CACHE.length()
+                            + 1);
+                    statistics.put(key, new AlertAnalyticsCache.Entry<>(42, System.currentTimeMillis()));
+                    return false;
+                });
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(42, load(AlertSearchRequest.builder().projectId(7L).build(), loads));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void get_computesDirectlyAndBacksOffWhenRedisFails() {
+        when(valueOperations.get(anyString())).thenThrow(new IllegalStateException("redis down"));
+        AtomicInteger loads = new AtomicInteger();
+        AlertSearchRequest request = AlertSearchRequest.builder().projectId(7L).build();
+
+        assertEquals(1, load(request, loads));
+        assertEquals(2, load(request, loads));
+        // Lần sau không chờ Redis timeout nữa cho tới hết redisRetryAfter
+        verify(valueOperations, times(1)).get(anyString());
+    }
+
+    private int load(AlertSearchRequest request, AtomicInteger loads) {
+        return cache.get(AlertAnalyticsCache.STATISTICS_CACHE, "TYPE", request, loads::incrementAndGet);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AlertChangedEvent event(Long projectId) {
+        return new AlertChangedEvent(
+                AlertChangedEvent.Kind.CREATED,
+                1L,
+                projectId,
+                null,
+                3,
+                AlertSeverity.HIGH,
+                AlertStatus.NEW,
+                0.9f,
+                Instant.now(),
+                null);
+    }
+}
@@ -0,0 +1,182 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.entity.Project;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.mapper.AlertMapper;
+import com.safetyconstruction.backend.repository.AlertRepository;
+import com.safetyconstruction.backend.service.AlertEventDeduplicator.EventKey;
+
+@ExtendWith(MockitoExtension.class)
+class AlertEventDeduplicatorTest {
+
+    private static final EventKey KEY = new EventKey(1L, "evt-1");
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private AlertMapper alertMapper;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private AlertEventDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        deduplicator = new AlertEventDeduplicator(
+                alertRepository,
+                alertMapper,
+                redisTemplate,
+                new ObjectMapper().findAndRegisterModules(),
+                Duration.ofHours(1),
+                100,
+                Duration.ofSeconds(30));
+    }
+
+    @Test
+    void findExisting_servesReplayFromLocalCacheAfterCommit() {
+        AlertResponse created =
+                AlertResponse.builder().id(10L).projectId(1L).eventId("evt-1").build();
+        deduplicator.rememberAfterCommit(Map.of(KEY, created));
+
+        Map<EventKey, AlertResponse> found = deduplicator.findExisting(Set.of(KEY));
+
+        assertSame(created, found.get(KEY));
+        verify(valueOperations, never()).multiGet(anyList());
+        verifyNoInteractions(alertRepository);
+    }
+
+    @Test
+    void findExisting_fallsBackToDatabaseWhenRedisIsDown() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        Alert stored = Alert.builder()
+                .id(10L)
+                .eventId("evt-1")
+                .project(Project.builder().id(1L).build())
+                .build();
+        Alert otherProject = Alert.builder()
+                .id(11L)
+                .eventId("evt-1")
+                .project(Project.builder().id(2L).build())
+                .build();
+        AlertResponse response =
+                AlertResponse.builder().id(10L).projectId(1L).eventId("evt-1").build();
+        when(alertRepository.findAllByProjectIdInAndEventIdIn(Set.of(1L, 2L), Set.of("evt-1", "evt-2")))
+                .thenReturn(List.of(stored, otherProject));
+        when(alertMapper.toAlert(stored)).thenReturn(response);
+
+        Map<EventKey, AlertResponse> found = deduplicator.findExisting(Set.of(KEY, new EventKey(2L, "evt-2")));
+
+        assertEquals(Map.of(KEY, response), found);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void onAlertChanged_dropsStaleLocalEntryAfterReview() {
+        deduplicator.rememberAfterCommit(Map.of(
+                KEY,
+                AlertResponse.builder()
+                        .id(10L)
+                        .projectId(1L)
+                        .eventId("evt-1")
+                        .alertStatus(AlertStatus.NEW)
+                        .build()));
+        when(valueOperations.multiGet(List.of(KEY.redisKey())))
+                .thenReturn(List.of("{\"id\":10,\"projectId\":1,\"eventId\":\"evt-1\",\"alertStatus\":\"RESOLVED\"}"));
+
+        deduplicator.onAlertChanged(new AlertChangedEvent(
+                AlertChangedEvent.Kind.UPDATED,
+                10L,
+                1L,
+                null,
+                3,
+                AlertSeverity.HIGH,
+                AlertStatus.RESOLVED,
+                0.9f,
+                Instant.now(),
+                AlertStatus.NEW));
+
+        assertEquals(
+                AlertStatus.RESOLVED,
+                deduplicator.findExisting(Set.of(KEY)).get(KEY).getAlertStatus());
+    }
+
+    @Test
+    void forgetAfterCommit_removesEventFromBothCaches() {
+        deduplicator.rememberAfterCommit(Map.of(
+                KEY,
+                AlertResponse.builder().id(10L).projectId(1L).eventId("evt-1").build()));
+
+        deduplicator.forgetAfterCommit(KEY);
+        when(valueOperations.multiGet(List.of(KEY.redisKey()))).thenReturn(Arrays.asList((String) null));
+
+        verify(redisTemplate).delete(KEY.redisKey());
+        assertTrue(deduplicator.findExisting(Set.of(KEY)).isEmpty());
+    }
+
+    @Test
+    void onAlertChanged_leavesOtherEntriesCachedAfterEviction() {
+        EventKey other = new EventKey(1L, "evt-2");
+        deduplicator.rememberAfterCommit(Map.of(
+                KEY,
+                        AlertResponse.builder()
+                                .id(10L)
+                                .projectId(1L)
+                                .eventId("evt-1")
+                                .build(),
+                other,
+                        AlertResponse.builder()
+                                .id(11L)
+                                .projectId(1L)
+                                .eventId("evt-2")
+                                .build()));
+        deduplicator.forgetAfterCommit(KEY);
+
+        // Alert 10 không còn trong cache: event của nó không được đụng tới mục khác
+        deduplicator.onAlertChanged(new AlertChangedEvent(
+                AlertChangedEvent.Kind.DELETED,
+                10L,
+                1L,
+                null,
+                3,
+                AlertSeverity.HIGH,
+                AlertStatus.NEW,
+                0.9f,
+                Instant.now(),
+                AlertStatus.NEW));
+
+        assertEquals(11L, deduplicator.findExisting(Set.of(other)).get(other).getId());
+        verify(valueOperations, never()).multiGet(anyList());
+    }
+}
@@ -0,0 +1,71 @@
+package com.safetyconstruction.backend.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.entity.Project;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+@ExtendWith(MockitoExtension.class)
+class AlertEventPublisherTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+
+    @Test
+    void publishAfterCommit_pausesRelayAfterRedisFailure() {
+        AlertEventPublisher publisher = new AlertEventPublisher(
+                eventPublisher,
+                redisTemplate,
+                new ObjectMapper().findAndRegisterModules(),
+                listenerContainer,
+                Duration.ofMinutes(1));
+        when(redisTemplate.convertAndSend(eq(AlertEventPublisher.CHANNEL), anyString()))
+                .thenThrow(new RedisConnectionFailureException("redis down"));
+
+        publisher.publishAfterCommit(AlertChangedEvent.Kind.CREATED, List.of(alert()));
+        publisher.publishAfterCommit(AlertChangedEvent.Kind.CREATED, List.of(alert()));
+
+        // Listener trong node vẫn nhận cả 2 lần, Redis chỉ bị gọi 1 lần
+        verify(eventPublisher, times(2)).publishEvent(any(AlertChangedEvent.class));
+        verify(redisTemplate, times(1)).convertAndSend(eq(AlertEventPublisher.CHANNEL), anyString());
+    }
+
+    private static Alert alert() {
+        Alert alert = new Alert();
+        alert.setId(1L);
+        Project project = new Project();
+        project.setId(7L);
+        alert.setProject(project);
+        alert.setSeverity(AlertSeverity.HIGH);
+        alert.setAlertStatus(AlertStatus.NEW);
+        alert.setConfidence(0.9f);
+        alert.setHappenedAt(Instant.now());
+        return alert;
+    }
+}
@@ -0,0 +1,59 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.safetyconstruction.backend.configuration.AlertExportProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AlertExportServiceTest {
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private AlertTypeInterner alertTypeInterner;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AlertExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new AlertExportService(
+                alertRepository, alertTypeInterner, new AlertExportProperties(), transactionManager);
+        when(alertTypeInterner.filterId(any())).thenReturn(null);
+    }
+
+    @Test
+    void exportAlerts_rejectsUnknownSortBeforeStreaming() {
+        AppException exception = assertThrows(
+                AppException.class,
+                () -> exportService.exportAlerts(
+                        new AlertSearchRequest(), Sort.by("happenedAtt"), ExportFormat.CSV, null));
+
+        assertEquals(ErrorCode.INVALID_SORT, exception.getErrorCode());
+        verifyNoInteractions(alertRepository, transactionManager);
+    }
+
+    @Test
+    void exportAlerts_acceptsEntitySortProperties() {
+        assertNotNull(exportService.exportAlerts(
+                new AlertSearchRequest(), Sort.by("severity").and(Sort.by("project.id")), ExportFormat.CSV, null));
+    }
+}
@@ -0,0 +1,171 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.safetyconstruction.backend.configuration.AlertKpiCubeProperties;
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.repository.AlertStatsHourlyRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AlertKpiCubeTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDate TODAY = LocalDate.now(ZONE);
+    private static final Instant YESTERDAY =
+            TODAY.minusDays(1).atStartOfDay(ZONE).toInstant();
+
+    @Mock
+    private AlertStatsHourlyRepository statsRepository;
+
+    @Mock
+    private AlertStatsRollupService statsRollupService;
+
+    @Mock
+    private AlertEventPublisher alertEventPublisher;
+
+    @Mock
+    private AlertTypeInterner alertTypeInterner;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AlertKpiCube cube;
+
+    @BeforeEach
+    void setUp() {
+        AlertKpiCubeProperties properties = new AlertKpiCubeProperties();
+        properties.setRetentionDays(30);
+        properties.setRequireRemoteEvents(false);
+        cube = new AlertKpiCube(
+                statsRepository,
+                statsRollupService,
+                alertEventPublisher,
+                alertTypeInterner,
+                properties,
+                transactionManager,
+                new SimpleMeterRegistry());
+        when(statsRollupService.isReady()).thenReturn(true);
+        when(statsRepository.streamCountsFrom(any()))
+                .thenReturn(Stream.of(
+                        row(7L, 3, AlertSeverity.HIGH, AlertStatus.NEW, YESTERDAY.plusSeconds(3600), 4L),
+                        row(7L, 3, AlertSeverity.LOW, AlertStatus.RESOLVED, YESTERDAY.plusSeconds(7200), 2L),
+                        row(8L, -1, AlertSeverity.CRITICAL, AlertStatus.NEW, YESTERDAY, 1L)));
+        cube.reseed();
+    }
+
+    @Test
+    void aggregate_sumsSeededDaysIntoDashboardBuckets() {
+        List<AlertDashboardBucket> buckets = cube.aggregate(
+                        AlertSearchRequest.builder().happenedAfter(YESTERDAY).build())
+                .orElseThrow();
+
+        assertEquals(7, buckets.stream().mapToLong(AlertDashboardBucket::total).sum());
+        assertEquals(
+                5, buckets.stream().mapToLong(AlertDashboardBucket::unresolved).sum());
+        assertEquals(
+                5,
+                buckets.stream().mapToLong(AlertDashboardBucket::highSeverity).sum());
+        AlertDashboardBucket helmet = buckets.stream()
+                .filter(bucket -> Integer.valueOf(3).equals(bucket.typeId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(YESTERDAY.atZone(ZONE).getDayOfWeek().getValue() % 7 + 1, helmet.dayOfWeek());
+        assertEquals(YESTERDAY.atZone(ZONE).getMonthValue(), helmet.month());
+        // Alert chưa có type_id giữ typeId null như truy vấn trên bảng alerts
+        assertTrue(buckets.stream().anyMatch(bucket -> bucket.typeId() == null));
+    }
+
+    @Test
+    void onAlertChanged_movesCountsBetweenStatuses() {
+        cube.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, AlertStatus.RESOLVED, AlertStatus.NEW));
+        cube.onAlertChanged(event(AlertChangedEvent.Kind.CREATED, AlertStatus.NEW, null));
+        AlertSearchRequest request = AlertSearchRequest.builder()
+                .projectId(7L)
+                .severity("high")
+                .happenedAfter(YESTERDAY)
+                .happenedBefore(TODAY.atStartOfDay(ZONE).toInstant().minusMillis(1))
+                .build();
+
+        List<AlertDashboardBucket> buckets = cube.aggregate(request).orElseThrow();
+
+        assertEquals(5, buckets.stream().mapToLong(AlertDashboardBucket::total).sum());
+        assertEquals(
+                4, buckets.stream().mapToLong(AlertDashboardBucket::unresolved).sum());
+    }
+
+    @Test
+    void aggregate_fallsBackForFiltersOutsideTheCube() {
+        assertTrue(cube.aggregate(new AlertSearchRequest()).isEmpty());
+        assertTrue(cube.aggregate(AlertSearchRequest.builder()
+                        .happenedAfter(YESTERDAY.plusSeconds(60))
+                        .build())
+                .isEmpty());
+        assertTrue(cube.aggregate(AlertSearchRequest.builder()
+                        .happenedAfter(YESTERDAY)
+                        .happenedBefore(YESTERDAY.plusSeconds(3600))
+                        .build())
+                .isEmpty());
+        assertTrue(cube.aggregate(AlertSearchRequest.builder()
+                        .happenedAfter(TODAY.minusDays(60).atStartOfDay(ZONE).toInstant())
+                        .build())
+                .isEmpty());
+        assertTrue(cube.aggregate(AlertSearchRequest.builder()
+                        .happenedAfter(YESTERDAY)
+                        .cameraId(1L)
+                        .build())
+                .isEmpty());
+        assertTrue(cube.aggregate(AlertSearchRequest.builder()
+                        .happenedAfter(YESTERDAY)
+                        .type("helmet")
+                        .typeMatch(TypeMatch.CONTAINS)
+                        .build())
+                .isEmpty());
+    }
+
+    @Test
+    void onAlertChanged_withoutPreviousStatusFallsBackUntilReseed() {
+        cube.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, AlertStatus.RESOLVED, null));
+
+        assertTrue(cube.aggregate(
+                        AlertSearchRequest.builder().happenedAfter(YESTERDAY).build())
+                .isEmpty());
+        when(statsRepository.streamCountsFrom(any())).thenReturn(Stream.empty());
+        cube.reseed();
+        assertEquals(
+                Optional.of(List.of()),
+                cube.aggregate(
+                        AlertSearchRequest.builder().happenedAfter(YESTERDAY).build()));
+    }
+
+    private static AlertChangedEvent event(AlertChangedEvent.Kind kind, AlertStatus status, AlertStatus previous) {
+        return new AlertChangedEvent(
+                kind, 1L, 7L, null, 3, AlertSeverity.HIGH, status, 0.9f, YESTERDAY.plusSeconds(5000), previous);
+    }
+
+    private static Object[] row(
+            Long projectId, Integer typeId, AlertSeverity severity, AlertStatus status, Instant hour, Long count) {
+        return new Object[] {projectId, typeId, severity, status, hour, count};
+    }
+}
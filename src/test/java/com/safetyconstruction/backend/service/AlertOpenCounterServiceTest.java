@@ -0,0 +1,84 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.entity.AlertOpenCounter;
+import com.safetyconstruction.backend.entity.AlertOpenCounterId;
+import com.safetyconstruction.backend.entity.Project;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.repository.AlertOpenCounterRepository;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AlertOpenCounterServiceTest {
+
+    @Mock
+    private AlertOpenCounterRepository counterRepository;
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @InjectMocks
+    private AlertOpenCounterService service;
+
+    @Test
+    void getOpenCount_treatsMissingCameraAsZeroAndMissingRowAsZero() {
+        when(counterRepository.findOpenCount(AlertOpenCounterId.of(1L, 0L, "HELMET")))
+                .thenReturn(Optional.of(3L));
+
+        assertEquals(3, service.getOpenCount(1L, null, "HELMET"));
+        assertEquals(0, service.getOpenCount(1L, 5L, "HELMET"));
+    }
+
+    @Test
+    void onStatusChange_movesCounterOnlyWhenOpenStateChanges() {
+        Alert alert = Alert.builder()
+                .project(Project.builder().id(1L).build())
+                .type("HELMET")
+                .build();
+
+        service.onStatusChange(alert, AlertStatus.NEW, AlertStatus.RESOLVED);
+        service.onStatusChange(alert, AlertStatus.RESOLVED, AlertStatus.NEW);
+        service.onStatusChange(alert, AlertStatus.NEW, null);
+        service.onStatusChange(alert, AlertStatus.RESOLVED, null);
+
+        verify(counterRepository, times(2)).increment(1L, 0L, "HELMET", -1);
+        verify(counterRepository).increment(1L, 0L, "HELMET", 1);
+        verifyNoMoreInteractions(counterRepository);
+    }
+
+    @Test
+    void reconcile_appliesOnlyTheDriftSoConcurrentIncrementsSurvive() {
+        when(alertRepository.countOpenAlertsGrouped())
+                .thenReturn(
+                        List.of(new Object[] {1L, 0L, "HELMET", 3L}, new Object[] {1L, 2L, "FIRE", 1L}, new Object[] {
+                            2L, 0L, "VEST", 4L
+                        }));
+        when(counterRepository.findAll())
+                .thenReturn(List.of(
+                        counter(1L, 0L, "HELMET", 5), counter(1L, 2L, "FIRE", 1), counter(3L, 0L, "HELMET", 2)));
+
+        service.reconcile();
+
+        verify(counterRepository).increment(1L, 0L, "HELMET", -2);
+        verify(counterRepository).increment(3L, 0L, "HELMET", -2);
+        verify(counterRepository).increment(2L, 0L, "VEST", 4);
+        verify(counterRepository, never()).increment(eq(1L), eq(2L), eq("FIRE"), anyLong());
+    }
+
+    private static AlertOpenCounter counter(Long projectId, Long cameraId, String type, long openCount) {
+        return new AlertOpenCounter(AlertOpenCounterId.of(projectId, cameraId, type), openCount);
+    }
+}
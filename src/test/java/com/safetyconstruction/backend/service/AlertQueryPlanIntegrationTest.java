@@ -0,0 +1,284 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+
+/**
+ * Kiểm tra kế hoạch truy vấn: chạy các dạng lọc của searchAlerts / Dashboard / Statistic trên MySQL thật,
+ * bắt câu SQL đã gửi (kèm giá trị tham số) rồi EXPLAIN từng câu; có bảng nào bị quét toàn bộ (type=ALL) -> fail.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(authorities = {"ROLE_ADMIN", "ALERT_READ", "STATISTIC_READ_ALL"})
+class AlertQueryPlanIntegrationTest {
+
+    private static final int PROJECTS = 50;
+    private static final int CAMERAS_PER_PROJECT = 4;
+    private static final int ALERTS = 50_000;
+    private static final List<String> TYPES = List.of("NO_HELMET", "NO_VEST", "FALL", "FIRE", "RESTRICTED_AREA");
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Container
+    static final MySQLContainer<?> MY_SQL_CONTAINER = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> {
+            String url = MY_SQL_CONTAINER.getJdbcUrl();
+            return url + (url.contains("?") ? "&" : "?") + "queryInterceptors=" + SqlCapture.class.getName();
+        });
+        registry.add("spring.datasource.username", MY_SQL_CONTAINER::getUsername);
+        registry.add("spring.datasource.password", MY_SQL_CONTAINER::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AlertTypeInterner alertTypeInterner;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private StatisticService statisticService;
+
+    @BeforeAll
+    void seed() {
+        for (int p = 1; p <= PROJECTS; p++) {
+            jdbcTemplate.update("INSERT INTO project (id, name) VALUES (?, ?)", p, "Project " + p);
+            for (int c = 0; c < CAMERAS_PER_PROJECT; c++) {
+                long cameraId = (long) (p - 1) * CAMERAS_PER_PROJECT + c + 1;
+                jdbcTemplate.update(
+                        "INSERT INTO camera (id, name, ip_address, rtsp_url, location, project_id) VALUES (?, ?, ?, ?, ?, ?)",
+                        cameraId,
+                        "Camera " + cameraId,
+                        "10.0.0." + c,
+                        "rtsp://10.0.0." + c,
+                        "Zone " + c,
+                        p);
+            }
+        }
+        int[] typeIds = TYPES.stream().mapToInt(alertTypeInterner::intern).toArray();
+
+        AlertSeverity[] severities = AlertSeverity.values();
+        AlertStatus[] statuses = AlertStatus.values();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO alerts (id, project_id, camera_id, type, type_id, severity, confidence, alert_status,"
+                        + " happened_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int project = i % PROJECTS + 1;
+                        int type = i % TYPES.size();
+                        ps.setLong(1, i + 1L);
+                        ps.setLong(2, project);
+                        ps.setLong(
+                                3,
+                                (long) (project - 1) * CAMERAS_PER_PROJECT + (i / PROJECTS) % CAMERAS_PER_PROJECT + 1);
+                        ps.setString(4, TYPES.get(type));
+                        ps.setInt(5, typeIds[type]);
+                        ps.setString(6, severities[i % severities.length].name());
+                        ps.setFloat(7, (i % 100) / 100f);
+                        ps.setString(8, statuses[i % statuses.length].name());
+                        ps.setTimestamp(
+                                9,
+                                Timestamp.from(
+                                        NOW.minus(i % 365, ChronoUnit.DAYS).minusSeconds(i)));
+                        ps.setTimestamp(10, Timestamp.from(NOW));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ALERTS;
+                    }
+                });
+        jdbcTemplate.execute("ANALYZE TABLE alerts, project, camera, alert_types");
+    }
+
+    static Stream<Arguments> queryShapes() {
+        Instant weekAgo = NOW.minus(7, ChronoUnit.DAYS);
+        Instant monthAgo = NOW.minus(30, ChronoUnit.DAYS);
+        return Stream.of(
+                Arguments.of(
+                        "project + time range",
+                        AlertSearchRequest.builder()
+                                .projectId(7L)
+                                .happenedAfter(monthAgo)
+                                .happenedBefore(NOW)
+                                .build()),
+                Arguments.of(
+                        "camera + time range",
+                        AlertSearchRequest.builder()
+                                .cameraId(21L)
+                                .happenedAfter(monthAgo)
+                                .happenedBefore(NOW)
+                                .build()),
+                Arguments.of(
+                        "project + severity",
+                        AlertSearchRequest.builder()
+                                .projectId(7L)
+                                .severity("critical")
+                                .build()),
+                Arguments.of(
+                        "project + status",
+                        AlertSearchRequest.builder()
+                                .projectId(7L)
+                                .alertStatus("NEW")
+                                .build()),
+                Arguments.of(
+                        "type + time range",
+                        AlertSearchRequest.builder()
+                                .type("fall")
+                                .happenedAfter(weekAgo)
+                                .happenedBefore(NOW)
+                                .build()),
+                Arguments.of(
+                        "time range only",
+                        AlertSearchRequest.builder()
+                                .happenedAfter(weekAgo)
+                                .happenedBefore(NOW)
+                                .build()),
+                Arguments.of(
+                        "all filters",
+                        AlertSearchRequest.builder()
+                                .projectId(7L)
+                                .cameraId(25L)
+                                .type("FALL")
+                                .severity("HIGH")
+                                .alertStatus("NEW")
+                                .minConfidence(0.5f)
+                                .maxConfidence(1f)
+                                .happenedAfter(monthAgo)
+                                .happenedBefore(NOW)
+                                .build()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queryShapes")
+    void alertQueries_neverFullScan(String shape, AlertSearchRequest request) {
+        List<String> statements = SqlCapture.capture(() -> {
+            alertService.searchAlerts(request, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "happenedAt")), null);
+            dashboardService.getDashboardData(request);
+            statisticService.getStatsByType(request);
+            statisticService.getStatsByWeekday(request);
+            statisticService.getStatsByProject(request);
+        });
+        assertFalse(statements.isEmpty(), "No alert query captured for shape: " + shape);
+
+        List<String> fullScans = new ArrayList<>();
+        for (String sql : statements) {
+            for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + sql)) {
+                String table = String.valueOf(row.get("table"));
+                // <derivedN>/<unionN> là bảng tạm của subquery, không phải bảng thật
+                if ("ALL".equals(row.get("type")) && !table.startsWith("<")) {
+                    fullScans.add(table + " <- " + sql);
+                }
+            }
+        }
+        assertTrue(fullScans.isEmpty(), "Full table scan for shape '" + shape + "':\n" + String.join("\n", fullScans));
+    }
+
+    /**
+     * Connector/J query interceptor: nhận câu SQL đúng như gửi xuống server (tham số đã được điền),
+     * nên có thể EXPLAIN lại nguyên văn. Chỉ giữ các câu SELECT đọc bảng alerts.
+     */
+    public static class SqlCapture implements QueryInterceptor {
+
+        private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+        private static volatile boolean capturing;
+
+        static synchronized List<String> capture(Runnable action) {
+            CAPTURED.clear();
+            capturing = true;
+            try {
+                action.run();
+            } finally {
+                capturing = false;
+            }
+            return List.copyOf(CAPTURED);
+        }
+
+        @Override
+        public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+            return this;
+        }
+
+        @Override
+        public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+            if (capturing) {
+                String statement = sql.get();
+                String normalized = statement.trim().toLowerCase(Locale.ROOT);
+                if (normalized.startsWith("select") && normalized.contains(" alerts ")) {
+                    CAPTURED.add(statement);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean executeTopLevelOnly() {
+            return true;
+        }
+
+        @Override
+        public void destroy() {}
+
+        @Override
+        public <T extends Resultset> T postProcess(
+                Supplier<String> sql, Query interceptedQuery, T originalResultSet, ServerSession serverSession) {
+            return originalResultSet;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.safetyconstruction.backend.configuration.AlertReferenceCacheProperties;
+import com.safetyconstruction.backend.dto.projection.CameraReference;
+import com.safetyconstruction.backend.repository.CameraRepository;
+import com.safetyconstruction.backend.repository.ProjectRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AlertReferenceCacheTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private CameraRepository cameraRepository;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+
+    private AlertReferenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AlertReferenceCache(
+                projectRepository,
+                cameraRepository,
+                redisTemplate,
+                listenerContainer,
+                new AlertReferenceCacheProperties());
+    }
+
+    @Test
+    void getCameras_loadsMissingIdsOnceAndKeepsOwningProject() {
+        when(cameraRepository.findReferencesByIdIn(anyList())).thenReturn(List.of(new CameraReference(9L, 2L, "Gate")));
+
+        assertEquals(2L, cache.getCameras(Set.of(9L, 10L)).get(9L).projectId());
+        assertFalse(cache.getCameras(Set.of(9L)).isEmpty());
+
+        verify(cameraRepository, times(1)).findReferencesByIdIn(anyList());
+    }
+
+    @Test
+    void invalidateProject_dropsItsCamerasAndBroadcasts() {
+        when(cameraRepository.findReferencesByIdIn(anyList())).thenReturn(List.of(new CameraReference(9L, 2L, "Gate")));
+        cache.getCameras(Set.of(9L));
+
+        cache.invalidateProject(2L);
+        cache.getCameras(Set.of(9L));
+
+        verify(cameraRepository, times(2)).findReferencesByIdIn(anyList());
+        verify(redisTemplate).convertAndSend(AlertReferenceCache.INVALIDATION_CHANNEL, "project:2");
+    }
+
+    @Test
+    void invalidateCamera_stopsBroadcastingForAWhileAfterRedisFailure() {
+        when(redisTemplate.convertAndSend(eq(AlertReferenceCache.INVALIDATION_CHANNEL), anyString()))
+                .thenThrow(new RedisConnectionFailureException("redis down"));
+
+        cache.invalidateCamera(9L);
+        cache.invalidateCamera(10L);
+
+        verify(redisTemplate, times(1)).convertAndSend(eq(AlertReferenceCache.INVALIDATION_CHANNEL), anyString());
+    }
+}
@@ -0,0 +1,175 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import jakarta.validation.Validator;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.safetyconstruction.backend.dto.projection.CameraReference;
+import com.safetyconstruction.backend.dto.projection.ProjectReference;
+import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.response.AlertBatchResponse;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.dto.response.SliceResponse;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.enums.SearchTotalMode;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.mapper.AlertMapper;
+import com.safetyconstruction.backend.repository.AlertRepository;
+import com.safetyconstruction.backend.repository.CameraRepository;
+import com.safetyconstruction.backend.repository.ProjectRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AlertServiceTest {
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private CameraRepository cameraRepository;
+
+    @Mock
+    private AlertReferenceCache referenceCache;
+
+    @Mock
+    private AlertEventDeduplicator eventDeduplicator;
+
+    @Mock
+    private AlertAdmissionControl admissionControl;
+
+    @Mock
+    private AlertTypeInterner alertTypeInterner;
+
+    @Mock
+    private AlertMapper alertMapper;
+
+    @Mock
+    private RecentAlertIndex recentAlertIndex;
+
+    @Mock
+    private Validator validator;
+
+    @InjectMocks
+    private AlertService alertService;
+
+    @Test
+    void createAlerts_rejectsCameraOfAnotherProject() {
+        when(validator.validate(any(AlertCreationRequest.class))).thenReturn(Set.of());
+        when(referenceCache.getProjects(Set.of(1L)))
+                .thenReturn(Map.of(1L, new ProjectReference(1L, "Site A", "manager")));
+        when(referenceCache.getCameras(Set.of(9L))).thenReturn(Map.of(9L, new CameraReference(9L, 2L, "Gate")));
+
+        AlertBatchResponse response = alertService.createAlerts(List.of(AlertCreationRequest.builder()
+                .projectId(1L)
+                .cameraId(9L)
+                .type("HELMET")
+                .severity("HIGH")
+                .confidence(0.9f)
+                .happenedAt(Instant.now())
+                .build()));
+
+        assertEquals(0, response.getAccepted());
+        assertEquals(
+                ErrorCode.CAMERA_NOT_FOUND.getCode(), response.getItems().get(0).getCode());
+        verify(cameraRepository, never()).getReferenceById(anyLong());
+        verify(alertRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createAlerts_mapsOnlyEventIdViolationToConflict() {
+        stubSinglePendingAlert();
+        when(alertRepository.saveAll(anyList()))
+                .thenThrow(violation("uk_alerts_project_event"))
+                .thenThrow(violation("fk_alerts_camera"));
+
+        AppException conflict = assertThrows(AppException.class, () -> alertService.createAlert(request()));
+        AppException other = assertThrows(AppException.class, () -> alertService.createAlert(request()));
+
+        assertEquals(ErrorCode.ALERT_EVENT_CONFLICT, conflict.getErrorCode());
+        assertEquals(ErrorCode.UNCATEGORIZED_EXCEPTION, other.getErrorCode());
+    }
+
+    @Test
+    void searchAlertsSlice_derivesTotalOnlyOnTheLastNonEmptyPage() {
+        List<AlertResponse> stored = LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> AlertResponse.builder().id(id).build())
+                .toList();
+        when(alertRepository.findListItems(any(), any(), anyLong(), anyInt(), anySet()))
+                .thenAnswer(invocation -> {
+                    int offset = Math.toIntExact(invocation.<Long>getArgument(2));
+                    int limit = invocation.getArgument(3);
+                    return stored.subList(Math.min(offset, 5), Math.min(offset + limit, 5));
+                });
+        when(alertRepository.count(any(Specification.class))).thenReturn(5L);
+        AlertSearchRequest search = new AlertSearchRequest();
+
+        SliceResponse<AlertResponse> first =
+                alertService.searchAlertsSlice(search, PageRequest.of(0, 2), SearchTotalMode.EXACT, null);
+        SliceResponse<AlertResponse> middle =
+                alertService.searchAlertsSlice(search, PageRequest.of(1, 2), SearchTotalMode.EXACT, null);
+        SliceResponse<AlertResponse> last =
+                alertService.searchAlertsSlice(search, PageRequest.of(2, 2), SearchTotalMode.EXACT, null);
+        SliceResponse<AlertResponse> pastEnd =
+                alertService.searchAlertsSlice(search, PageRequest.of(4, 2), SearchTotalMode.EXACT, null);
+
+        assertTrue(first.isHasNext());
+        assertEquals(5L, first.getTotalElements());
+        assertTrue(middle.isHasNext());
+        assertEquals(5L, middle.getTotalElements());
+        assertFalse(last.isHasNext());
+        assertEquals(1, last.getContent().size());
+        assertEquals(5L, last.getTotalElements());
+        assertTrue(pastEnd.getContent().isEmpty());
+        assertEquals(5L, pastEnd.getTotalElements());
+        // Trang cuối có dữ liệu suy ra được tổng, các trang còn lại phải đếm
+        verify(alertRepository, times(3)).count(any(Specification.class));
+    }
+
+    private void stubSinglePendingAlert() {
+        when(validator.validate(any(AlertCreationRequest.class))).thenReturn(Set.of());
+        when(referenceCache.getProjects(Set.of(1L)))
+                .thenReturn(Map.of(1L, new ProjectReference(1L, "Site A", "manager")));
+        when(alertMapper.toAlert(any(AlertCreationRequest.class), any(), any()))
+                .thenAnswer(invocation -> Alert.builder().eventId("evt-1").build());
+    }
+
+    private static AlertCreationRequest request() {
+        return AlertCreationRequest.builder()
+                .projectId(1L)
+                .eventId("evt-1")
+                .type("HELMET")
+                .severity("HIGH")
+                .confidence(0.9f)
+                .happenedAt(Instant.now())
+                .build();
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("Duplicate entry", new SQLException(), "alerts." + constraint));
+    }
+}
@@ -0,0 +1,182 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.safetyconstruction.backend.configuration.AlertStatsRollupProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.response.AlertStatsRollupCheckResponse;
+import com.safetyconstruction.backend.entity.Alert;
+import com.safetyconstruction.backend.entity.AlertStatsHourly;
+import com.safetyconstruction.backend.entity.AlertStatsHourlyId;
+import com.safetyconstruction.backend.entity.Project;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.repository.AlertRepository;
+import com.safetyconstruction.backend.repository.AlertStatsHourlyRepository;
+import com.safetyconstruction.backend.repository.AlertStatsHourlyRepositoryCustom;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AlertStatsRollupServiceTest {
+
+    private static final Instant HOUR = Instant.parse("2024-05-01T10:00:00Z");
+
+    @Mock
+    private AlertStatsHourlyRepository statsRepository;
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private AlertTypeInterner alertTypeInterner;
+
+    @Mock
+    private AlertTypeBackfill alertTypeBackfill;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AlertStatsRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AlertStatsRollupService(
+                statsRepository,
+                alertRepository,
+                alertTypeInterner,
+                alertTypeBackfill,
+                new AlertStatsRollupProperties(),
+                transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void plan_readsWholeHoursFromRollupAndPartialHoursFromAlerts() {
+        markReady();
+        when(alertTypeInterner.filterId(any())).thenReturn(3);
+        AlertSearchRequest request = AlertSearchRequest.builder()
+                .projectId(7L)
+                .type("no_helmet")
+                .severity("high")
+                .happenedAfter(HOUR.plusSeconds(30 * 60))
+                .happenedBefore(HOUR.plusSeconds(4 * 3600 + 15 * 60))
+                .build();
+
+        AlertStatsRollupService.Plan plan = service.plan(request).orElseThrow();
+
+        AlertStatsHourlyRepositoryCustom.Filter filter = plan.rollup();
+        assertEquals(7L, filter.projectId());
+        assertEquals(3, filter.typeId());
+        assertEquals(AlertSeverity.HIGH, filter.severity());
+        assertNull(filter.alertStatus());
+        assertEquals(HOUR.plusSeconds(3600), filter.fromHour());
+        assertEquals(HOUR.plusSeconds(4 * 3600), filter.toHour());
+        // 10:30-11:00 và 14:00-14:15 đếm trên bảng alerts
+        assertEquals(2, plan.edges().size());
+    }
+
+    @Test
+    void plan_fallsBackToAlertsForFiltersOutsideTheRollupKey() {
+        markReady();
+
+        assertTrue(service.plan(AlertSearchRequest.builder().minConfidence(0.5f).build())
+                .isEmpty());
+        assertTrue(service.plan(AlertSearchRequest.builder()
+                        .type("helmet")
+                        .typeMatch(TypeMatch.CONTAINS)
+                        .build())
+                .isEmpty());
+        // Không có giờ trọn vẹn nào trong khoảng
+        assertTrue(service.plan(AlertSearchRequest.builder()
+                        .happenedAfter(HOUR.plusSeconds(60))
+                        .happenedBefore(HOUR.plusSeconds(3000))
+                        .build())
+                .isEmpty());
+        assertTrue(service.plan(new AlertSearchRequest()).isPresent());
+    }
+
+    @Test
+    void plan_isEmptyUntilRollupCoversOldestAlert() {
+        when(alertRepository.findFirstHappenedAt()).thenReturn(HOUR.minusSeconds(3 * 86400));
+        when(statsRepository.findFirstHour()).thenReturn(HOUR);
+        service.refreshReadiness();
+
+        assertTrue(service.plan(new AlertSearchRequest()).isEmpty());
+    }
+
+    @Test
+    void initialize_rebuildsReadyRollupOnlyAfterBackfillChangedTypes() {
+        when(alertRepository.findFirstHappenedAt()).thenReturn(HOUR);
+        when(alertRepository.findLastHappenedAt()).thenReturn(HOUR);
+        when(statsRepository.findFirstHour()).thenReturn(HOUR);
+
+        service.initialize(0L, null);
+        service.initialize(null, new IllegalStateException("backfill failed"));
+        verify(statsRepository, never()).insertFromAlerts(any(), any());
+
+        service.initialize(42L, null);
+        verify(statsRepository, atLeastOnce()).insertFromAlerts(any(), any());
+        assertTrue(service.plan(new AlertSearchRequest()).isPresent());
+    }
+
+    @Test
+    void onStatusChange_movesOneAlertBetweenStatusBuckets() {
+        Alert alert = Alert.builder()
+                .project(Project.builder().id(7L).build())
+                .typeId(3)
+                .severity(AlertSeverity.HIGH)
+                .alertStatus(AlertStatus.RESOLVED)
+                .happenedAt(HOUR.plusSeconds(1234))
+                .build();
+
+        service.onStatusChange(alert, AlertStatus.NEW, AlertStatus.RESOLVED);
+
+        // Luôn theo LOCK_ORDER (NEW trước RESOLVED) để 2 review ngược chiều không deadlock
+        InOrder inOrder = inOrder(statsRepository);
+        inOrder.verify(statsRepository).increment(7L, 0L, 3, "HIGH", "NEW", HOUR, -1);
+        inOrder.verify(statsRepository).increment(7L, 0L, 3, "HIGH", "RESOLVED", HOUR, 1);
+    }
+
+    @Test
+    void check_reportsAndRepairsDriftWithDeltas() {
+        AlertStatsHourlyId drifted = new AlertStatsHourlyId(7L, 0L, 3, AlertSeverity.HIGH, AlertStatus.NEW, HOUR);
+        AlertStatsHourlyId stale = new AlertStatsHourlyId(7L, 0L, 3, AlertSeverity.HIGH, AlertStatus.RESOLVED, HOUR);
+        when(statsRepository.countAlertsHourly(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] {7L, 0L, 3, "HIGH", "NEW", Timestamp.from(HOUR), 5L}));
+        when(statsRepository.findHours(any(), any()))
+                .thenReturn(List.of(new AlertStatsHourly(drifted, 4), new AlertStatsHourly(stale, 2)));
+
+        AlertStatsRollupCheckResponse response = service.check(HOUR, HOUR.plusSeconds(3600), true);
+
+        assertEquals(2, response.getCheckedBuckets());
+        assertEquals(2, response.getMismatchedBuckets());
+        assertTrue(response.isRepaired());
+        assertEquals(5, response.getSamples().get(0).getExpected());
+        verify(statsRepository).increment(7L, 0L, 3, "HIGH", "NEW", HOUR, 1);
+        verify(statsRepository).increment(7L, 0L, 3, "HIGH", "RESOLVED", HOUR, -2);
+        verify(statsRepository, times(2)).increment(anyLong(), anyLong(), any(), any(), any(), eq(HOUR), anyLong());
+    }
+
+    private void markReady() {
+        when(alertRepository.findFirstHappenedAt()).thenReturn(null);
+        service.refreshReadiness();
+    }
+}
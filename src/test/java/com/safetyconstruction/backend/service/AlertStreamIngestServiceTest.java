@@ -0,0 +1,143 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.dto.request.alert.AlertCreationRequest;
+import com.safetyconstruction.backend.dto.response.AlertBatchItemResponse;
+import com.safetyconstruction.backend.dto.response.AlertBatchResponse;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.exception.ErrorCode;
+
+@ExtendWith(MockitoExtension.class)
+class AlertStreamIngestServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private AlertService alertService;
+
+    @Test
+    void ingest_acksEveryRecordInStreamOrder() throws Exception {
+        when(alertService.createAlerts(anyList())).thenAnswer(invocation -> {
+            List<AlertCreationRequest> batch = invocation.getArgument(0);
+            List<AlertBatchItemResponse> items = batch.stream()
+                    .map(request -> AlertBatchItemResponse.builder()
+                            .success(true)
+                            .alert(AlertResponse.builder()
+                                    .type(request.getType())
+                                    .build())
+                            .build())
+                    .toList();
+            return AlertBatchResponse.builder()
+                    .accepted(items.size())
+                    .items(items)
+                    .build();
+        });
+        String body =
+                """
+				{"projectId":1,"type":"NO_HELMET","severity":"HIGH","confidence":0.9,"happenedAt":"2026-01-01T00:00:00Z"}
+				not json
+
+				{"projectId":1,"type":"FIRE","severity":"CRITICAL","confidence":0.8,"happenedAt":"2026-01-01T00:00:01Z"}
+				{"projectId":1,"type":"FALL","severity":"LOW","confidence":0.7,"happenedAt":"2026-01-01T00:00:02Z"}
+				""";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AlertStreamIngestService service = new AlertStreamIngestService(alertService, objectMapper, 2, 65536);
+
+        long records = service.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        assertEquals(4, records);
+        List<JsonNode> acks =
+                out.toString(StandardCharsets.UTF_8).lines().map(this::readTree).toList();
+        assertEquals(4, acks.size());
+        assertEquals(
+                ErrorCode.INVALID_ALERT_RECORD.getCode(),
+                acks.get(0).get("code").asInt());
+        assertEquals(1, acks.get(0).get("index").asInt());
+        assertEquals("NO_HELMET", acks.get(1).at("/alert/type").asText());
+        assertEquals(0, acks.get(1).get("index").asInt());
+        assertEquals("FIRE", acks.get(2).at("/alert/type").asText());
+        assertEquals(2, acks.get(2).get("index").asInt());
+        assertEquals("FALL", acks.get(3).at("/alert/type").asText());
+        assertEquals(3, acks.get(3).get("index").asInt());
+    }
+
+    @Test
+    void ingest_acksFailedBatchAndContinuesAfterUnexpectedError() throws Exception {
+        when(alertService.createAlerts(anyList()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(AlertBatchResponse.builder()
+                        .accepted(1)
+                        .items(List.of(
+                                AlertBatchItemResponse.builder().success(true).build()))
+                        .build());
+        String body =
+                """
+				{"projectId":1,"type":"NO_HELMET","severity":"HIGH","confidence":0.9,"happenedAt":"2026-01-01T00:00:00Z"}
+				{"projectId":1,"type":"FIRE","severity":"CRITICAL","confidence":0.8,"happenedAt":"2026-01-01T00:00:01Z"}
+				""";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AlertStreamIngestService service = new AlertStreamIngestService(alertService, objectMapper, 1, 65536);
+
+        assertEquals(2, service.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out));
+
+        List<JsonNode> acks =
+                out.toString(StandardCharsets.UTF_8).lines().map(this::readTree).toList();
+        assertEquals(2, acks.size());
+        assertEquals(
+                ErrorCode.UNCATEGORIZED_EXCEPTION.getCode(),
+                acks.get(0).get("code").asInt());
+        assertEquals(0, acks.get(0).get("index").asInt());
+        assertTrue(acks.get(1).get("success").asBoolean());
+        assertEquals(1, acks.get(1).get("index").asInt());
+    }
+
+    @Test
+    void ingest_rejectsOverlongLineAndContinuesWithNextRecord() throws Exception {
+        when(alertService.createAlerts(anyList()))
+                .thenReturn(AlertBatchResponse.builder()
+                        .accepted(1)
+                        .items(List.of(
+                                AlertBatchItemResponse.builder().success(true).build()))
+                        .build());
+        String record =
+                "{\"projectId\":1,\"type\":\"FIRE\",\"severity\":\"CRITICAL\",\"confidence\":0.8,\"happenedAt\":\"2026-01-01T00:00:01Z\"}";
+        String body = "{\"type\":\"" + "x".repeat(10_000) + "\"}\r\n" + record + "\r\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AlertStreamIngestService service = new AlertStreamIngestService(alertService, objectMapper, 1, 1_024);
+
+        assertEquals(2, service.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out));
+
+        List<JsonNode> acks =
+                out.toString(StandardCharsets.UTF_8).lines().map(this::readTree).toList();
+        assertEquals(2, acks.size());
+        assertEquals(
+                ErrorCode.INVALID_ALERT_RECORD.getCode(),
+                acks.get(0).get("code").asInt());
+        assertEquals(0, acks.get(0).get("index").asInt());
+        assertTrue(acks.get(1).get("success").asBoolean());
+        assertEquals(1, acks.get(1).get("index").asInt());
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
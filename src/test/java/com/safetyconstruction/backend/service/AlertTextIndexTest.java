@@ -0,0 +1,183 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyconstruction.backend.configuration.AlertTextIndexProperties;
+import com.safetyconstruction.backend.dto.response.AlertTextSearchHit;
+import com.safetyconstruction.backend.dto.response.AlertTextSearchResponse;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AlertTextIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private AlertEventPublisher alertEventPublisher;
+
+    private AlertTextIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AlertTextIndexProperties properties = new AlertTextIndexProperties();
+        properties.setDirectory(directory.toString());
+        properties.setRebuildChunkSize(2);
+        index = new AlertTextIndex(alertRepository, alertEventPublisher, properties, new ObjectMapper());
+
+        // Nạp theo từng phần 2 dòng
+        when(alertRepository.findTextAfter(anyLong(), any()))
+                .thenReturn(
+                        List.<Object[]>of(
+                                row(1L, 10L, "Công nhân không đội mũ bảo hộ", null),
+                                row(2L, 10L, null, "{\"zone\":\"Khu A\",\"ppe\":[\"helmet\",\"vest\"]}")),
+                        List.<Object[]>of(row(3L, 20L, "False alarm", "not json: Khu A")),
+                        List.of());
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void search_matchesWithoutDiacriticsAndHighlights() {
+        AlertTextSearchResponse response = index.search("mu bao ho", null, null);
+
+        assertEquals(1, response.getTotalHits());
+        AlertTextSearchHit hit = response.getHits().get(0);
+        assertEquals(1L, hit.getAlertId());
+        assertEquals(10L, hit.getProjectId());
+        assertTrue(hit.getHighlights().get("reviewNote").contains("<b>mũ</b>"));
+    }
+
+    @Test
+    void search_metadataFieldsAndProjectFilter() {
+        assertEquals(List.of(2L, 3L), ids(index.search("\"khu a\"", null, null)));
+        assertEquals(List.of(2L), ids(index.search("meta.zone:\"khu a\"", null, null)));
+        assertEquals(List.of(3L), ids(index.search("\"khu a\"", 20L, null)));
+        assertEquals(List.of(2L), ids(index.search("meta.ppe:vest", null, null)));
+    }
+
+    @Test
+    void flush_reindexesReviewedAndDeletedAlerts() {
+        when(alertRepository.findTextByIdIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(row(3L, 20L, "Confirmed: worker without helmet", null)));
+
+        index.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, 3L));
+        index.onAlertChanged(event(AlertChangedEvent.Kind.DELETED, 1L));
+        index.flush();
+
+        assertEquals(List.of(3L), ids(index.search("worker", null, null)));
+        assertTrue(ids(index.search("alarm", null, null)).isEmpty());
+        assertTrue(ids(index.search("mu", null, null)).isEmpty());
+        assertEquals(0, index.getStatus().getPendingUpdates());
+    }
+
+    @Test
+    void flush_keepsPendingWhenDatabaseFails() {
+        when(alertRepository.findTextByIdIn(anyCollection())).thenThrow(new IllegalStateException("db down"));
+
+        index.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, 3L));
+        index.flush();
+
+        assertEquals(1, index.getStatus().getPendingUpdates());
+    }
+
+    @Test
+    void flush_waitsForRunningRebuild() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(alertRepository.findTextAfter(anyLong(), any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(() -> {
+            try {
+                index.rebuild();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        // Rebuild đã deleteAll nhưng chưa commit: flush không được commit hộ bản dựng dở
+        index.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, 3L));
+        index.flush();
+        assertEquals(1, index.getStatus().getPendingUpdates());
+        verify(alertRepository, never()).findTextByIdIn(anyCollection());
+
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void maintain_rebuildsAfterResubscribingToMissedEvents() throws Exception {
+        // Trong lúc mất Redis, alert 1..3 đã bị xóa ở node khác
+        when(alertRepository.findTextAfter(anyLong(), any())).thenReturn(List.of());
+        when(alertEventPublisher.isReceivingRemoteEvents()).thenReturn(false, true);
+
+        index.maintain();
+        assertEquals(List.of(2L, 3L), ids(index.search("\"khu a\"", null, null)));
+
+        index.maintain();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((index.getStatus().isRebuilding() || index.getStatus().getDocuments() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(ids(index.search("\"khu a\"", null, null)).isEmpty());
+    }
+
+    @Test
+    void search_rejectsInvalidQuery() {
+        AppException exception = assertThrows(AppException.class, () -> index.search("note:(", null, null));
+
+        assertEquals(ErrorCode.INVALID_SEARCH_QUERY, exception.getErrorCode());
+    }
+
+    private static List<Long> ids(AlertTextSearchResponse response) {
+        return response.getHits().stream()
+                .map(AlertTextSearchHit::getAlertId)
+                .sorted()
+                .toList();
+    }
+
+    private static Object[] row(long id, long projectId, String reviewNote, String metadata) {
+        return new Object[] {id, projectId, reviewNote, metadata};
+    }
+
+    private static AlertChangedEvent event(AlertChangedEvent.Kind kind, long id) {
+        return new AlertChangedEvent(
+                kind, id, 10L, 100L, 1, AlertSeverity.HIGH, AlertStatus.NEW, 0.9f, Instant.now(), null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AlertTypeBackfillTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AlertTypeInterner alertTypeInterner;
+
+    @InjectMocks
+    private AlertTypeBackfill backfill;
+
+    @Test
+    void run_internsLegacyTypesUpdatesByIdRangeAndSignalsCompletion() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("helmet", "HELMET ", "fire"));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MIN"), eq(Long.class)))
+                .thenReturn(1L);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MAX"), eq(Long.class)))
+                .thenReturn(AlertTypeBackfill.CHUNK + 5);
+        when(jdbcTemplate.update(anyString(), anyLong(), anyLong())).thenReturn(7);
+
+        backfill.run();
+
+        verify(alertTypeInterner).intern("HELMET");
+        verify(alertTypeInterner).intern("FIRE");
+        verify(jdbcTemplate).update(anyString(), eq(1L), eq(1L + AlertTypeBackfill.CHUNK));
+        verify(jdbcTemplate)
+                .update(anyString(), eq(1L + AlertTypeBackfill.CHUNK), eq(1L + 2 * AlertTypeBackfill.CHUNK));
+        assertEquals(14L, backfill.completion().join());
+    }
+
+    @Test
+    void run_completesExceptionallyWhenBackfillFails() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        backfill.run();
+
+        assertTrue(backfill.completion().isCompletedExceptionally());
+    }
+}
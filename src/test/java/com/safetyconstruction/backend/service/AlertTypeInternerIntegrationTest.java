@@ -0,0 +1,126 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.safetyconstruction.backend.repository.AlertTypeRepository;
+
+/**
+ * Hai transaction ingest cùng gặp 1 type mới trên MySQL thật (REPEATABLE READ): transaction commit sau
+ * không được thấy lỗi dù snapshot của nó không chứa dòng mà transaction kia vừa thêm.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class AlertTypeInternerIntegrationTest {
+
+    @Container
+    static final MySQLContainer<?> MY_SQL_CONTAINER = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MY_SQL_CONTAINER::getJdbcUrl);
+        registry.add("spring.datasource.username", MY_SQL_CONTAINER::getUsername);
+        registry.add("spring.datasource.password", MY_SQL_CONTAINER::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "com.mysql.cj.jdbc.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private AlertTypeInterner alertTypeInterner;
+
+    @Autowired
+    private AlertTypeRepository alertTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void intern_resolvesTypeCommittedAfterSnapshotWasTaken() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch snapshotTaken = new CountDownLatch(1);
+        CountDownLatch otherCommitted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<Integer> late = executor.submit(() -> transaction.execute(status -> {
+                // Đọc trước như writeBatch -> snapshot được chốt tại đây
+                assertTrue(alertTypeRepository.findByCode("FIRE").isEmpty());
+                snapshotTaken.countDown();
+                await(otherCommitted);
+                return alertTypeInterner.intern("fire");
+            }));
+            assertTrue(snapshotTaken.await(30, TimeUnit.SECONDS));
+            Integer first = transaction.execute(status -> alertTypeInterner.intern("FIRE"));
+            otherCommitted.countDown();
+
+            assertEquals(first, late.get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void intern_returnsSameIdForConcurrentTransactions() throws Exception {
+        int writers = 4;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CyclicBarrier barrier = new CyclicBarrier(writers);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Integer>> ids = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                ids.add(executor.submit(() -> transaction.execute(status -> {
+                    alertTypeRepository.findByCode("NO_VEST");
+                    await(barrier);
+                    return alertTypeInterner.intern("NO_VEST");
+                })));
+            }
+
+            Integer expected = ids.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<Integer> id : ids) {
+                assertEquals(expected, id.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(
+                    expected,
+                    alertTypeRepository.findByCode("NO_VEST").orElseThrow().getId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.entity.AlertType;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.repository.AlertTypeRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AlertTypeInternerTest {
+
+    @Mock
+    private AlertTypeRepository alertTypeRepository;
+
+    @InjectMocks
+    private AlertTypeInterner interner;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void intern_insertsNewTypeInCallerTransactionAndCachesOnlyAfterCommit() {
+        AlertType helmet = AlertType.builder().id(3).code("HELMET").build();
+        when(alertTypeRepository.findByCode("HELMET")).thenReturn(Optional.empty());
+        when(alertTypeRepository.lastInsertId()).thenReturn(3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertEquals(3, interner.intern(" helmet "));
+        verify(alertTypeRepository).insertIfAbsent("HELMET");
+
+        // Chưa commit: lần sau vẫn phải đọc lại
+        when(alertTypeRepository.findByCode("HELMET")).thenReturn(Optional.of(helmet));
+        assertEquals(3, interner.intern("HELMET"));
+        verify(alertTypeRepository, times(2)).findByCode("HELMET");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(3, interner.intern("Helmet"));
+        verify(alertTypeRepository, times(2)).findByCode("HELMET");
+    }
+
+    @Test
+    void filterId_resolvesOnlyExactTypeFilters() {
+        when(alertTypeRepository.findByCode("HELMET"))
+                .thenReturn(Optional.of(AlertType.builder().id(3).code("HELMET").build()));
+
+        assertEquals(
+                3, interner.filterId(AlertSearchRequest.builder().type("helmet").build()));
+        assertEquals(
+                AlertTypeInterner.UNKNOWN_TYPE_ID,
+                interner.filterId(
+                        AlertSearchRequest.builder().type("never-seen").build()));
+        assertNull(interner.filterId(AlertSearchRequest.builder()
+                .type("helmet")
+                .typeMatch(TypeMatch.CONTAINS)
+                .build()));
+        assertNull(interner.filterId(new AlertSearchRequest()));
+    }
+}
@@ -0,0 +1,139 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.safetyconstruction.backend.configuration.DashboardProperties;
+import com.safetyconstruction.backend.dto.projection.AlertDashboardBucket;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.dto.response.AlertResponse;
+import com.safetyconstruction.backend.dto.response.DashboardResponse;
+import com.safetyconstruction.backend.dto.response.SliceResponse;
+import com.safetyconstruction.backend.dto.response.StatsResponse;
+import com.safetyconstruction.backend.enums.SearchTotalMode;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private AlertTypeInterner alertTypeInterner;
+
+    @Mock
+    private AlertStatsRollupService statsRollupService;
+
+    @Mock
+    private AlertKpiCube alertKpiCube;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private DashboardProperties dashboardProperties = new DashboardProperties();
+
+    @Mock
+    private AlertAnalyticsCache analyticsCache;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        // Luôn miss: tính trực tiếp
+        lenient()
+                .when(analyticsCache.get(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+    }
+
+    @Test
+    void getDashboardData_foldsOneGroupedQueryIntoKpisAndCharts() {
+        when(alertRepository.aggregateDashboard(any()))
+                .thenReturn(List.of(
+                        // (loại, DAYOFWEEK, MONTH, tổng, NEW, HIGH+CRITICAL)
+                        new AlertDashboardBucket(1, 2, 1, 5, 2, 1),
+                        new AlertDashboardBucket(1, 2, 3, 4, 0, 4),
+                        new AlertDashboardBucket(2, 7, 12, 3, 3, 0)));
+        when(alertTypeInterner.codeOf(1)).thenReturn("NO_HELMET");
+        when(alertTypeInterner.codeOf(2)).thenReturn("FALL");
+        when(alertService.searchAlertsSlice(any(), any(), eq(SearchTotalMode.NONE), isNull()))
+                .thenReturn(SliceResponse.<AlertResponse>builder()
+                        .content(List.of(new AlertResponse()))
+                        .build());
+
+        DashboardResponse response = dashboardService.getDashboardData(new AlertSearchRequest());
+
+        verify(alertRepository, times(1)).aggregateDashboard(any());
+        verifyNoMoreInteractions(alertRepository);
+        assertEquals(12, response.getSummary().getTotalAlerts());
+        assertEquals(5, response.getSummary().getUnresolvedAlerts());
+        assertEquals(5, response.getSummary().getHighSeverityAlerts());
+
+        StatsResponse helmetWeekday = response.getWeekdayStats().get(0);
+        assertEquals("NO_HELMET", helmetWeekday.getGroup());
+        assertArrayEquals(new long[] {0, 9, 0, 0, 0, 0, 0}, helmetWeekday.getCounts());
+        StatsResponse helmetMonthly = response.getMonthlyStats().get(0);
+        assertArrayEquals(new long[] {5, 0, 4, 0, 0, 0, 0, 0, 0, 0, 0, 0}, helmetMonthly.getCounts());
+        assertEquals(3, response.getMonthlyStats().get(1).getCounts()[11]);
+        assertEquals(12, response.getRecentAlerts().getTotalElements());
+    }
+
+    @Test
+    void getDashboardData_returnsFinishedSectionsWhenOneMissesTheDeadline() {
+        // Đủ rộng cho phần còn lại kể cả khi test này chạy đầu tiên (JVM còn lạnh)
+        dashboardProperties.setDeadline(Duration.ofSeconds(1));
+        when(alertRepository.aggregateDashboard(any())).thenReturn(List.of(new AlertDashboardBucket(1, 2, 1, 5, 2, 1)));
+        when(alertTypeInterner.codeOf(1)).thenReturn("NO_HELMET");
+        CountDownLatch release = new CountDownLatch(1);
+        when(alertService.searchAlertsSlice(any(), any(), eq(SearchTotalMode.NONE), isNull()))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return SliceResponse.<AlertResponse>builder()
+                            .content(List.of())
+                            .build();
+                });
+
+        DashboardResponse response;
+        try {
+            response = dashboardService.getDashboardData(new AlertSearchRequest());
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(5, response.getSummary().getTotalAlerts());
+        assertNull(response.getRecentAlerts());
+        assertEquals(List.of("recentAlerts"), response.getUnavailableSections());
+    }
+
+    @Test
+    void getDashboardData_checksAlertReadAccessBeforeUsingCache() {
+        doThrow(new AccessDeniedException("Access Denied")).when(alertService).checkSearchAccess();
+
+        assertThrows(AccessDeniedException.class, () -> dashboardService.getDashboardData(new AlertSearchRequest()));
+        verifyNoInteractions(analyticsCache);
+    }
+}
@@ -0,0 +1,229 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.safetyconstruction.backend.configuration.ExportJobProperties;
+import com.safetyconstruction.backend.dto.request.export.ExportJobRequest;
+import com.safetyconstruction.backend.dto.response.ExportJobResponse;
+import com.safetyconstruction.backend.dto.response.StatisticResponse;
+import com.safetyconstruction.backend.enums.ExportFormat;
+import com.safetyconstruction.backend.enums.ExportJobStatus;
+import com.safetyconstruction.backend.enums.ExportJobType;
+import com.safetyconstruction.backend.exception.AppException;
+import com.safetyconstruction.backend.exception.ErrorCode;
+import com.safetyconstruction.backend.util.TableWriter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private AlertExportService alertExportService;
+
+    @Mock
+    private StatisticService statisticService;
+
+    private ExportJobProperties properties;
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExportJobProperties();
+        properties.setDirectory(directory.toString());
+        properties.setWorkers(1);
+        service = new ExportJobService(alertExportService, statisticService, properties, new SimpleMeterRegistry());
+        authenticate("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void alertJob_writesFileAndReportsProgress() throws Exception {
+        when(alertExportService.prepareAlertExport(any(), any(), eq(ExportFormat.CSV), eq("id")))
+                .thenReturn((out, progress) -> {
+                    out.write("id\r\n1\r\n2\r\n".getBytes(StandardCharsets.UTF_8));
+                    progress.add(2);
+                });
+
+        ExportJobResponse submitted = service.submit(request(ExportJobType.ALERTS));
+        ExportJobResponse done = awaitFinished(submitted.getJobId());
+
+        assertEquals(ExportJobStatus.COMPLETED, done.getStatus());
+        assertEquals(2, done.getRowsWritten());
+        ExportJobService.ExportFile file = service.getFile(submitted.getJobId());
+        assertEquals(
+                "id\r\n1\r\n2\r\n", Files.readString(file.resource().getFile().toPath()));
+    }
+
+    @Test
+    void statisticsJob_runsWithSubmitterSecurityContext() throws Exception {
+        when(alertExportService.open(eq(ExportFormat.CSV), any(OutputStream.class), anyString()))
+                .thenAnswer(invocation -> TableWriter.csv(invocation.getArgument(1)));
+        when(statisticService.getStatsByType(any())).thenAnswer(invocation -> {
+            // Worker phải thấy người dùng đã submit
+            assertEquals(
+                    "alice",
+                    SecurityContextHolder.getContext().getAuthentication().getName());
+            return List.of(new StatisticResponse("NO_HELMET", 3));
+        });
+        when(statisticService.getStatsByWeekday(any())).thenReturn(List.of());
+        when(statisticService.getStatsByProject(any())).thenReturn(List.of(new StatisticResponse("Project 1", 3)));
+
+        ExportJobResponse done =
+                awaitFinished(service.submit(request(ExportJobType.STATISTICS)).getJobId());
+
+        assertEquals(ExportJobStatus.COMPLETED, done.getStatus());
+        assertEquals(2, done.getRowsWritten());
+    }
+
+    @Test
+    void statisticsJob_rejectedAtSubmitWithoutPermission() {
+        doThrow(new AccessDeniedException("denied")).when(statisticService).checkExportAccess();
+
+        assertThrows(AccessDeniedException.class, () -> service.submit(request(ExportJobType.STATISTICS)));
+        verify(statisticService, never()).getStatsByType(any());
+    }
+
+    @Test
+    void submit_enforcesPerUserLimitUnderConcurrency() throws Exception {
+        properties.setMaxActivePerUser(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(alertExportService.prepareAlertExport(any(), any(), any(), any()))
+                .thenReturn((out, progress) -> await(release));
+        SecurityContext context = SecurityContextHolder.getContext();
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> attempts = Collections.nCopies(8, () -> {
+                SecurityContextHolder.setContext(context);
+                try {
+                    service.submit(request(ExportJobType.ALERTS));
+                    return true;
+                } catch (AppException e) {
+                    return false;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+            long accepted = 0;
+            for (Future<Boolean> attempt : submitters.invokeAll(attempts)) {
+                accepted += attempt.get() ? 1 : 0;
+            }
+            assertEquals(2, accepted);
+        } finally {
+            release.countDown();
+            submitters.shutdownNow();
+        }
+    }
+
+    @Test
+    void jobsOfOtherUsersAreHidden() throws Exception {
+        when(alertExportService.prepareAlertExport(any(), any(), any(), any())).thenReturn((out, progress) -> {});
+        String jobId = service.submit(request(ExportJobType.ALERTS)).getJobId();
+        awaitFinished(jobId);
+
+        authenticate("bob");
+        AppException exception = assertThrows(AppException.class, () -> service.getJob(jobId));
+        assertEquals(ErrorCode.EXPORT_JOB_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    void failedJob_leavesNoFile() throws Exception {
+        when(alertExportService.prepareAlertExport(any(), any(), any(), any())).thenReturn((out, progress) -> {
+            out.write(1);
+            throw new IllegalStateException("db down");
+        });
+
+        ExportJobResponse done =
+                awaitFinished(service.submit(request(ExportJobType.ALERTS)).getJobId());
+
+        assertEquals(ExportJobStatus.FAILED, done.getStatus());
+        assertThrows(AppException.class, () -> service.getFile(done.getJobId()));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void cleanup_removesExpiredJobsAndFiles() throws Exception {
+        when(alertExportService.prepareAlertExport(any(), any(), any(), any()))
+                .thenReturn((out, progress) -> out.write(1));
+        String jobId = service.submit(request(ExportJobType.ALERTS)).getJobId();
+        awaitFinished(jobId);
+        Files.writeString(directory.resolve("stale.csv.part"), "x");
+
+        properties.setTtl(Duration.ZERO);
+        Thread.sleep(5);
+        service.cleanup();
+
+        assertThrows(AppException.class, () -> service.getJob(jobId));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private ExportJobResponse awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ExportJobResponse job = service.getJob(jobId);
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Export job did not finish");
+    }
+
+    private static ExportJobRequest request(ExportJobType type) {
+        return ExportJobRequest.builder().type(type).fields("id").build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken(username, null, "ALERT_READ"));
+    }
+}
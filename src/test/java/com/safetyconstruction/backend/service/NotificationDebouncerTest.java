@@ -0,0 +1,78 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.safetyconstruction.backend.configuration.NotificationDebounceProperties;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDebouncerTest {
+
+    private static final String KEY = "notify_lock:proj_1:cam_2:NO_HELMET";
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private NotificationDebounceProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationDebounceProperties();
+        properties.getSeverityWindows().put(AlertSeverity.CRITICAL, Duration.ofSeconds(30));
+        properties.getTypeWindows().put("no_helmet", Duration.ofMinutes(5));
+        properties.getTypeWindows().put("NO_HELMET.CRITICAL", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void tryAcquire_usesSingleSetNxWithConfiguredWindow() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(KEY, "locked", Duration.ofMinutes(5))).thenReturn(true, false);
+        NotificationDebouncer debouncer = new NotificationDebouncer(redisTemplate, properties);
+
+        assertTrue(debouncer.tryAcquire(KEY, "NO_HELMET", AlertSeverity.LOW));
+        assertFalse(debouncer.tryAcquire(KEY, "NO_HELMET", AlertSeverity.LOW));
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    void tryAcquire_fallsBackToLocalLocksWhenRedisIsDown() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        NotificationDebouncer debouncer = new NotificationDebouncer(redisTemplate, properties);
+
+        assertTrue(debouncer.tryAcquire(KEY, "NO_HELMET", AlertSeverity.HIGH));
+        assertFalse(debouncer.tryAcquire(KEY, "NO_HELMET", AlertSeverity.HIGH));
+        assertTrue(debouncer.tryAcquire(KEY + ":other", "NO_HELMET", AlertSeverity.HIGH));
+        // Redis chỉ bị thử 1 lần, sau đó bỏ qua trong redis-retry-after
+        verify(valueOperations, times(1)).setIfAbsent(anyString(), eq("locked"), any(Duration.class));
+    }
+
+    @Test
+    void windowFor_prefersTypeAndSeverityThenTypeThenSeverity() {
+        NotificationDebouncer debouncer = new NotificationDebouncer(redisTemplate, properties);
+
+        assertEquals(Duration.ofMinutes(1), debouncer.windowFor("no_helmet", AlertSeverity.CRITICAL));
+        assertEquals(Duration.ofMinutes(5), debouncer.windowFor("NO_HELMET", AlertSeverity.HIGH));
+        assertEquals(Duration.ofSeconds(30), debouncer.windowFor("NO_VEST", AlertSeverity.CRITICAL));
+        assertEquals(Duration.ofMinutes(2), debouncer.windowFor("NO_VEST", AlertSeverity.LOW));
+    }
+}
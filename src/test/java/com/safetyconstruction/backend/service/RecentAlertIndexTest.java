@@ -0,0 +1,151 @@
+package com.safetyconstruction.backend.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import com.safetyconstruction.backend.configuration.RecentAlertIndexProperties;
+import com.safetyconstruction.backend.dto.request.alert.AlertSearchRequest;
+import com.safetyconstruction.backend.enums.AlertSeverity;
+import com.safetyconstruction.backend.enums.AlertStatus;
+import com.safetyconstruction.backend.enums.TypeMatch;
+import com.safetyconstruction.backend.repository.AlertRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RecentAlertIndexTest {
+
+    private static final Instant NOW = Instant.now();
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private AlertTypeInterner alertTypeInterner;
+
+    @Mock
+    private AlertEventPublisher alertEventPublisher;
+
+    private RecentAlertIndex index;
+
+    @BeforeEach
+    void setUp() {
+        RecentAlertIndexProperties properties = new RecentAlertIndexProperties();
+        properties.setWindow(Duration.ofHours(24));
+        properties.setLoadChunkSize(2);
+        index = new RecentAlertIndex(
+                alertRepository, alertTypeInterner, alertEventPublisher, properties, new SimpleMeterRegistry());
+        when(alertEventPublisher.isReceivingRemoteEvents()).thenReturn(true);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(1L, 10L, 100L, AlertStatus.NEW, NOW.minusSeconds(300)));
+        rows.add(row(2L, 10L, 101L, AlertStatus.RESOLVED, NOW.minusSeconds(200)));
+        rows.add(row(3L, 10L, 100L, AlertStatus.NEW, NOW.minusSeconds(100)));
+        rows.add(row(4L, 20L, 200L, AlertStatus.NEW, NOW.minusSeconds(50)));
+        // Nạp theo từng phần 2 dòng
+        when(alertRepository.findIndexRowsAfter(any(), anyLong(), any()))
+                .thenReturn(rows.subList(0, 2), rows.subList(2, 4), List.of());
+        index.rebuild();
+    }
+
+    @Test
+    void search_filtersAndOrdersNewestFirstWithTotal() {
+        AlertSearchRequest request = recent().projectId(10L).alertStatus("new").build();
+
+        RecentAlertIndex.Hits hits =
+                index.search(request, Sort.unsorted(), 0, 1).orElseThrow();
+
+        assertEquals(List.of(3L), hits.ids());
+        assertEquals(2, hits.total());
+        assertEquals(
+                List.of(1L),
+                index.search(request, Sort.unsorted(), 1, 5).orElseThrow().ids());
+    }
+
+    @Test
+    void search_appliesChangeEvents() {
+        index.onAlertChanged(event(AlertChangedEvent.Kind.CREATED, 5L, AlertStatus.NEW, NOW.minusSeconds(10)));
+        index.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, 3L, AlertStatus.RESOLVED, NOW.minusSeconds(100)));
+        index.onAlertChanged(event(AlertChangedEvent.Kind.DELETED, 1L, AlertStatus.NEW, NOW.minusSeconds(300)));
+
+        RecentAlertIndex.Hits hits = index.search(
+                        recent().projectId(10L).alertStatus("NEW").build(), Sort.unsorted(), 0, 10)
+                .orElseThrow();
+
+        assertEquals(List.of(5L), hits.ids());
+        assertEquals(1, hits.total());
+    }
+
+    @Test
+    void search_invalidSeverityMatchesNothing() {
+        RecentAlertIndex.Hits hits = index.search(recent().severity("URGENT").build(), Sort.unsorted(), 0, 10)
+                .orElseThrow();
+
+        assertTrue(hits.ids().isEmpty());
+        assertEquals(0, hits.total());
+    }
+
+    @Test
+    void search_fallsBackOutsideWindowOrForUnsupportedQueries() {
+        AlertSearchRequest tooOld = AlertSearchRequest.builder()
+                .happenedAfter(NOW.minus(Duration.ofDays(2)))
+                .build();
+        AlertSearchRequest contains =
+                recent().type("helmet").typeMatch(TypeMatch.CONTAINS).build();
+
+        assertEquals(Optional.empty(), index.search(tooOld, Sort.unsorted(), 0, 10));
+        assertEquals(Optional.empty(), index.search(contains, Sort.unsorted(), 0, 10));
+        assertEquals(Optional.empty(), index.search(recent().build(), Sort.by("happenedAt"), 0, 10));
+    }
+
+    @Test
+    void search_fallsBackWhenRemoteEventsAreNotReceived() {
+        when(alertEventPublisher.isReceivingRemoteEvents()).thenReturn(false);
+
+        assertEquals(Optional.empty(), index.search(recent().build(), Sort.unsorted(), 0, 10));
+    }
+
+    @Test
+    void onAlertChanged_findsRowsAfterIdMapGrows() {
+        for (long id = 1_000; id < 4_000; id++) {
+            index.onAlertChanged(event(AlertChangedEvent.Kind.CREATED, id, AlertStatus.NEW, NOW.minusSeconds(10)));
+        }
+        index.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, 3L, AlertStatus.RESOLVED, NOW.minusSeconds(100)));
+        index.onAlertChanged(event(AlertChangedEvent.Kind.DELETED, 2_500L, AlertStatus.NEW, NOW.minusSeconds(10)));
+        index.onAlertChanged(event(AlertChangedEvent.Kind.UPDATED, 3_999L, AlertStatus.RESOLVED, NOW.minusSeconds(10)));
+
+        RecentAlertIndex.Hits hits = index.search(
+                        recent().projectId(10L).alertStatus("NEW").build(), Sort.unsorted(), 0, 1)
+                .orElseThrow();
+
+        // 1 dòng NEW ban đầu (id 1) + 3000 dòng mới - 1 bị xóa - 1 đã resolve
+        assertEquals(2_999, hits.total());
+    }
+
+    private static AlertSearchRequest.AlertSearchRequestBuilder recent() {
+        return AlertSearchRequest.builder().happenedAfter(NOW.minus(Duration.ofHours(1)));
+    }
+
+    private static Object[] row(long id, long projectId, long cameraId, AlertStatus status, Instant happenedAt) {
+        return new Object[] {id, projectId, cameraId, 1, AlertSeverity.HIGH, status, 0.9f, happenedAt};
+    }
+
+    private static AlertChangedEvent event(AlertChangedEvent.Kind kind, long id, AlertStatus status, Instant at) {
+        return new AlertChangedEvent(kind, id, 10L, 100L, 1, AlertSeverity.HIGH, status, 0.9f, at, null);
+    }
+}
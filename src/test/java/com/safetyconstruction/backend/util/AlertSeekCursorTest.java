@@ -0,0 +1,23 @@
+package com.safetyconstruction.backend.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class AlertSeekCursorTest {
+
+    @Test
+    void decode_roundTripsEncodedCursor() {
+        AlertSeekCursor cursor = new AlertSeekCursor(Instant.parse("2026-03-01T08:15:30.123456Z"), 4242L);
+
+        assertEquals(cursor, AlertSeekCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_rejectsTamperedToken() {
+        assertThrows(IllegalArgumentException.class, () -> AlertSeekCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> AlertSeekCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.safetyconstruction.backend.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class PriorityLaneQueueTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PriorityLaneQueue<String> queue =
+            new PriorityLaneQueue<>(3, 2, 100, TimeUnit.MILLISECONDS, clock::get);
+
+    @Test
+    void drainTo_servesHigherLanesFirst() {
+        queue.offer(2, "low-1");
+        queue.offer(1, "mid-1");
+        queue.offer(0, "critical-1");
+        queue.offer(2, "low-2");
+
+        List<String> drained = new ArrayList<>();
+        queue.drainTo(drained, 10);
+
+        assertEquals(List.of("critical-1", "mid-1", "low-1", "low-2"), drained);
+    }
+
+    @Test
+    void poll_servesStarvingLowerLaneFirst() throws InterruptedException {
+        queue.offer(2, "low-old");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        queue.offer(0, "critical-new");
+
+        assertEquals("low-old", queue.poll(0, TimeUnit.MILLISECONDS));
+        assertEquals("critical-new", queue.poll(0, TimeUnit.MILLISECONDS));
+        assertNull(queue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void drainTo_keepsPriorityWhenEveryLaneIsPastMaxWait() {
+        PriorityLaneQueue<String> saturated = new PriorityLaneQueue<>(3, 10, 100, TimeUnit.MILLISECONDS, 4, clock::get);
+        for (int i = 0; i < 6; i++) {
+            saturated.offer(2, "low-" + i);
+            saturated.offer(0, "critical-" + i);
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        List<String> drained = new ArrayList<>();
+        saturated.drainTo(drained, 8);
+
+        // Lane thấp quá hạn chỉ được 1 trong 4 lượt, còn lại vẫn theo ưu tiên
+        assertEquals(
+                List.of(
+                        "low-0",
+                        "critical-0",
+                        "critical-1",
+                        "critical-2",
+                        "low-1",
+                        "critical-3",
+                        "critical-4",
+                        "critical-5"),
+                drained);
+    }
+
+    @Test
+    void offer_fullLowerLaneDoesNotBlockHigherLane() {
+        assertTrue(queue.offer(2, "low-1"));
+        assertTrue(queue.offer(2, "low-2"));
+        assertFalse(queue.offer(2, "low-3"));
+
+        assertTrue(queue.offer(0, "critical-1"));
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.size(2));
+    }
+}
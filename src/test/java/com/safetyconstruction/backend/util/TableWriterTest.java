@@ -0,0 +1,67 @@
+package com.safetyconstruction.backend.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import com.safetyconstruction.backend.enums.AlertSeverity;
+
+class TableWriterTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    @Test
+    void csv_escapesQuotesSeparatorsAndFormulas() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TableWriter writer = TableWriter.csv(out)) {
+            writer.writeRow(List.of("id", "severity", "reviewNote"));
+            writer.writeRow(Arrays.asList(1L, AlertSeverity.HIGH, "Khu A, \"tầng 2\""));
+            writer.writeRow(Arrays.asList(2L, null, "=HYPERLINK(\"x\")"));
+        }
+
+        assertEquals(
+                "\uFEFFid,severity,reviewNote\r\n"
+                        + "1,HIGH,\"Khu A, \"\"tầng 2\"\"\"\r\n"
+                        + "2,,\"'=HYPERLINK(\"\"x\"\")\"\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void xlsx_writesTypedCellsAndRollsOverToNewSheet() throws Exception {
+        Instant happenedAt = Instant.parse("2024-05-01T03:00:00Z");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TableWriter writer = new TableWriter.Xlsx(out, "Alerts", ZONE, 3)) {
+            writer.writeRow(List.of("id", "severity", "happenedAt"));
+            for (long id = 1; id <= 3; id++) {
+                writer.writeRow(Arrays.asList(id, AlertSeverity.CRITICAL, happenedAt));
+            }
+        }
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(2, workbook.getNumberOfSheets());
+            Sheet first = workbook.getSheet("Alerts");
+            assertEquals("id", first.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1, first.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("CRITICAL", first.getRow(1).getCell(1).getStringCellValue());
+            assertEquals(
+                    LocalDateTime.of(2024, 5, 1, 10, 0),
+                    first.getRow(1).getCell(2).getLocalDateTimeCellValue());
+
+            // Sheet thứ 2 lặp lại tiêu đề rồi tiếp tục từ dòng còn lại
+            Sheet second = workbook.getSheet("Alerts (2)");
+            assertEquals("id", second.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(3, second.getRow(1).getCell(0).getNumericCellValue());
+        }
+    }
+}
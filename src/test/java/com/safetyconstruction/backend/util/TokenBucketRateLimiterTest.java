@@ -0,0 +1,53 @@
+package com.safetyconstruction.backend.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final TokenBucketRateLimiter<Long> limiter = new TokenBucketRateLimiter<>(clock::get);
+
+    @Test
+    void tryAcquire_allowsBurstThenRefillsAtRate() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(1L, 10, 5));
+        }
+        assertFalse(limiter.tryAcquire(1L, 10, 5));
+        // Camera khác có bucket riêng
+        assertTrue(limiter.tryAcquire(2L, 10, 5));
+
+        clock.addAndGet(100_000_000L); // 100ms = 1 token ở 10/s
+        assertTrue(limiter.tryAcquire(1L, 10, 5));
+        assertFalse(limiter.tryAcquire(1L, 10, 5));
+    }
+
+    @Test
+    void evictIdle_dropsOnlyFullyRefilledBuckets() {
+        limiter.tryAcquire(1L, 10, 5);
+        limiter.tryAcquire(2L, 1, 5);
+
+        clock.addAndGet(500_000_000L);
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void tryAcquire_startsFreshBucketAfterEviction() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(1L, 10, 5));
+        }
+        assertFalse(limiter.tryAcquire(1L, 10, 5));
+
+        clock.addAndGet(1_000_000_000L);
+        limiter.evictIdle();
+        assertEquals(0, limiter.size());
+
+        assertTrue(limiter.tryAcquire(1L, 10, 5));
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,38 @@
+package com.safetyconstruction.backend.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.safetyconstruction.backend.dto.response.CameraResponse;
+import com.safetyconstruction.backend.entity.Camera;
+
+class TupleProjectionTest {
+
+    private final TupleProjection<Camera, CameraResponse> projection = new TupleProjection<Camera, CameraResponse>(
+                    CameraResponse::new)
+            .column("id", Long.class, root -> root.get("id"), CameraResponse::setId)
+            .column("name", String.class, root -> root.get("name"), CameraResponse::setName)
+            .column("location", String.class, root -> root.get("location"), CameraResponse::setLocation);
+
+    @Test
+    void parse_keepsDeclarationOrderAndAddsRequiredFields() {
+        Set<String> fields = projection.parse(" location, ,name ", Set.of(), "id");
+
+        assertEquals(List.of("id", "name", "location"), List.copyOf(fields));
+    }
+
+    @Test
+    void parse_blankFallsBackToDefaults() {
+        assertEquals(projection.fields(), projection.parse(null, projection.fields(), "id"));
+        assertEquals(projection.fields(), projection.parse("  ", projection.fields(), "id"));
+    }
+
+    @Test
+    void parse_rejectsUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> projection.parse("name,password", Set.of(), "id"));
+    }
+}